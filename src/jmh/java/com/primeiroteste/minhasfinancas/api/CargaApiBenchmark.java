@@ -0,0 +1,231 @@
+package com.primeiroteste.minhasfinancas.api;
+
+import com.primeiroteste.minhasfinancas.api.dto.AtualizaStatusDto;
+import com.primeiroteste.minhasfinancas.api.dto.UsuarioDto;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import com.primeiroteste.minhasfinancas.service.TokenService;
+import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+//rodarCom: mvn -P jmh test -Dtest=CargaApiBenchmark -Dcarga.concorrencia=16 -Dcarga.duracao=30
+//aBaselineEDaMaquinaQueRodouEntaoNaoVemNoRepositorio: gravarCom -Dcarga.atualizarBaseline=true e asProximasExecucoesNaMesmaMaquinaComparam
+@Slf4j
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class CargaApiBenchmark {
+
+    static final String SENHA = "senha";
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @Autowired
+    UsuarioService usuarioService;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    TokenService tokenService;
+
+    //mesmaPosicaoNasTresListasCadaUsuarioSimuladoAutenticaUmaVezESoMexeNosProprios
+    List<Usuario> usuarios = new ArrayList<>();
+    List<HttpHeaders> autenticacoes = new ArrayList<>();
+    List<List<Long>> lancamentos = new ArrayList<>();
+
+    @Test
+    public void medirLatenciaDoTrafegoMisto() throws Exception{
+        int concorrencia = Integer.getInteger("carga.concorrencia", 16);
+        int duracao = Integer.getInteger("carga.duracao", 30); //segundos
+        int aquecimento = Integer.getInteger("carga.aquecimento", 10); //segundos
+        double tolerancia = Double.parseDouble(System.getProperty("carga.tolerancia", "0.20"));
+        Path baseline = Paths.get(System.getProperty("carga.baseline", "target/carga-baseline.properties"));
+
+        popular(Integer.getInteger("carga.usuarios", 50), Integer.getInteger("carga.lancamentosPorUsuario", 200));
+
+        Map<String, Function<ThreadLocalRandom, ResponseEntity<String>>> operacoes = new LinkedHashMap<>();
+        operacoes.put("buscar", random -> {
+            int u = usuario(random);
+            return rest.exchange("/api/lancamentos?usuario={usuario}&ano=2020&tamanho=20", HttpMethod.GET,
+                    new HttpEntity<>(autenticacoes.get(u)), String.class, usuarios.get(u).getId());
+        });
+        operacoes.put("atualizaStatus", random -> {
+            int u = usuario(random);
+            List<Long> doUsuario = lancamentos.get(u);
+            return rest.exchange("/api/lancamentos/{id}/atualiza-status", HttpMethod.PUT,
+                    new HttpEntity<>(new AtualizaStatusDto(random.nextBoolean() ? "EFETIVADO" : "PENDENTE"), autenticacoes.get(u)),
+                    String.class, doUsuario.get(random.nextInt(doUsuario.size())));
+        });
+        operacoes.put("autenticar", random -> {
+            Usuario usuario = usuarios.get(usuario(random));
+            return rest.postForEntity("/api/usuarios/autenticar",
+                    UsuarioDto.builder().email(usuario.getEmail()).senha(SENHA).build(), String.class);
+        });
+        operacoes.put("saldo", random -> {
+            int u = usuario(random);
+            return rest.exchange("/api/usuarios/{id}/saldo", HttpMethod.GET,
+                    new HttpEntity<>(autenticacoes.get(u)), String.class, usuarios.get(u).getId());
+        });
+        String[] mistura = {"buscar", "buscar", "buscar", "buscar", "atualizaStatus", "atualizaStatus",
+                "autenticar", "autenticar", "saldo", "saldo"}; //40/20/20/20
+
+        executar(operacoes, mistura, concorrencia, aquecimento, new LinkedHashMap<>(), new AtomicLong());
+        Map<String, Histogram> histogramas = new LinkedHashMap<>();
+        operacoes.keySet().forEach(nome -> histogramas.put(nome, new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3)));
+        AtomicLong erros = new AtomicLong();
+        executar(operacoes, mistura, concorrencia, duracao, histogramas, erros);
+
+        Properties atual = relatorio(histogramas, concorrencia, duracao);
+        Assertions.assertThat(erros.get()).as("requisicoes com erro").isZero();
+
+        if(Boolean.getBoolean("carga.atualizarBaseline")){
+            try (OutputStream saida = new FileOutputStream(baseline.toFile())) {
+                atual.store(saida, "p50/p99/p999 em microssegundos e vazao em req/s");
+            }
+            return;
+        }
+        if(Files.exists(baseline)){
+            comparar(atual, carregar(baseline), tolerancia);
+        }
+    }
+
+    private void executar(Map<String, Function<ThreadLocalRandom, ResponseEntity<String>>> operacoes, String[] mistura,
+                          int concorrencia, int segundos, Map<String, Histogram> histogramas, AtomicLong erros)
+            throws InterruptedException {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        ExecutorService executor = Executors.newFixedThreadPool(concorrencia);
+        for (int i = 0; i < concorrencia; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < fim) {
+                    String nome = mistura[random.nextInt(mistura.length)];
+                    long inicio = System.nanoTime();
+                    ResponseEntity<String> resposta = operacoes.get(nome).apply(random);
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio);
+                    Histogram histograma = histogramas.get(nome);
+                    if(histograma != null){ //noAquecimentoNaoRegistra
+                        histograma.recordValue(Math.min(micros, histograma.getHighestTrackableValue()));
+                        if(!resposta.getStatusCode().is2xxSuccessful()){
+                            erros.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(segundos + 60, TimeUnit.SECONDS);
+    }
+
+    private Properties relatorio(Map<String, Histogram> histogramas, int concorrencia, int duracao){
+        Properties resultado = new Properties();
+        log.info(String.format("carga com %d clientes por %ds (latencias em ms)", concorrencia, duracao));
+        log.info(String.format("%-16s %10s %10s %10s %10s %10s", "endpoint", "req/s", "p50", "p99", "p999", "max"));
+        histogramas.forEach((nome, histograma) -> {
+            double vazao = (double) histograma.getTotalCount() / duracao;
+            log.info(String.format("%-16s %10.1f %10.2f %10.2f %10.2f %10.2f", nome, vazao,
+                    histograma.getValueAtPercentile(50) / 1000d, histograma.getValueAtPercentile(99) / 1000d,
+                    histograma.getValueAtPercentile(99.9) / 1000d, histograma.getMaxValue() / 1000d));
+            resultado.setProperty(nome + ".p50", String.valueOf(histograma.getValueAtPercentile(50)));
+            resultado.setProperty(nome + ".p99", String.valueOf(histograma.getValueAtPercentile(99)));
+            resultado.setProperty(nome + ".p999", String.valueOf(histograma.getValueAtPercentile(99.9)));
+            resultado.setProperty(nome + ".vazao", String.valueOf(Math.round(vazao * 10) / 10d));
+        });
+        return resultado;
+    }
+
+    //soOP99EAVazaoReprovamOP50EOP999SaoInformativosPorqueVariamMuitoEntreMaquinas
+    private void comparar(Properties atual, Properties baseline, double tolerancia){
+        List<String> regressoes = new ArrayList<>();
+        log.info(String.format("comparacao com a baseline (tolerancia %.0f%%)", tolerancia * 100));
+        for (String chave : new TreeSet<>(atual.stringPropertyNames())) {
+            if(!baseline.containsKey(chave)){
+                continue;
+            }
+            double antes = Double.parseDouble(baseline.getProperty(chave));
+            double agora = Double.parseDouble(atual.getProperty(chave));
+            double variacao = antes == 0 ? 0 : (agora - antes) / antes;
+            log.info(String.format("%-24s %12.1f -> %12.1f (%+.1f%%)", chave, antes, agora, variacao * 100));
+            if(chave.endsWith(".p99") && variacao > tolerancia || chave.endsWith(".vazao") && variacao < -tolerancia){
+                regressoes.add(chave);
+            }
+        }
+        Assertions.assertThat(regressoes).as("regressoes em relacao a baseline").isEmpty();
+    }
+
+    private Properties carregar(Path arquivo) throws IOException {
+        Properties propriedades = new Properties();
+        try (InputStream entrada = new FileInputStream(arquivo.toFile())) {
+            propriedades.load(entrada);
+        }
+        return propriedades;
+    }
+
+    private void popular(int quantidadeUsuarios, int lancamentosPorUsuario){
+        long execucao = System.nanoTime(); //emailsUnicosPorExecucao
+        for (int u = 0; u < quantidadeUsuarios; u++) {
+            Usuario usuario = usuarioService.salvarUsuario(Usuario.builder().nome("carga " + u)
+                    .email("carga" + u + "-" + execucao + "@email.com").senha(SENHA).build());
+            usuarios.add(usuario);
+            HttpHeaders autenticacao = new HttpHeaders();
+            autenticacao.setBearerAuth(tokenService.gerarToken(usuario));
+            autenticacoes.add(autenticacao);
+
+            List<Lancamento> lote = new ArrayList<>();
+            for (int i = 0; i < lancamentosPorUsuario; i++) {
+                lote.add(Lancamento.builder().usuario(usuario).descricao("Lancamento " + i)
+                        .mes(i % 12 + 1).ano(2020).valor(BigDecimal.valueOf(i % 500 + 1))
+                        .tipoLancamento(i % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+                        .statusLancamento(StatusLancamento.PENDENTE).dataCadastro(LocalDate.now()).build());
+            }
+            List<Long> doUsuario = new ArrayList<>();
+            lancamentoService.salvarLote(lote).forEach(lancamento -> doUsuario.add(lancamento.getId()));
+            lancamentos.add(doUsuario);
+        }
+    }
+
+    private int usuario(ThreadLocalRandom random){
+        return random.nextInt(usuarios.size());
+    }
+}
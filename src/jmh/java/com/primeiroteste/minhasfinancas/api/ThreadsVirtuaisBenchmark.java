@@ -0,0 +1,123 @@
+package com.primeiroteste.minhasfinancas.api;
+
+import com.primeiroteste.minhasfinancas.MinhasfinancasApplication;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.service.TokenService;
+import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//rodarCom: mvn -P jmh test -Dtest=ThreadsVirtuaisBenchmark -Dclientes=400 -Dlatencia=50 -Dthreads=50 -Dpool=200
+//sobeAAplicacaoDuasVezesComUmBancoLentoSimuladoUmaComThreadsDePlataformaEOutraComThreadsVirtuais
+@Slf4j
+public class ThreadsVirtuaisBenchmark {
+
+    @Test
+    public void compararVazaoComBancoLento() throws Exception{
+        int clientes = Integer.getInteger("clientes", 400);
+        int latencia = Integer.getInteger("latencia", 50); //msPorConsulta
+        int duracao = Integer.getInteger("duracao", 10); //segundos
+
+        double plataforma = medir(false, clientes, latencia, duracao);
+        double virtuais = medir(true, clientes, latencia, duracao);
+
+        log.info(String.format("threads virtuais x plataforma: %.1f x %.1f req/s (%.1fx)",
+                virtuais, plataforma, virtuais / plataforma));
+    }
+
+    private double medir(boolean threadsVirtuais, int clientes, int latencia, int duracao) throws Exception{
+        ConfigurableApplicationContext contexto = new SpringApplicationBuilder(MinhasfinancasApplication.class)
+                .profiles("test")
+                .initializers(aplicacao -> aplicacao.getBeanFactory().addBeanPostProcessor(bancoLento(latencia)))
+                .run("--server.port=0",
+                        "--minhasfinancas.threads-virtuais=" + threadsVirtuais,
+                        "--server.tomcat.threads.max=" + Integer.getInteger("threads", 50),
+                        "--spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("pool", 200),
+                        "--logging.level.com.primeiroteste.minhasfinancas.api.filter=ERROR"); //oBenchmarkContinuaLogandoOResultado
+        try {
+            int porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            Usuario usuario = contexto.getBean(UsuarioService.class).salvarUsuario(Usuario.builder()
+                    .nome("virtual").email("virtual" + System.nanoTime() + "@email.com").senha("senha").build());
+            URI saldo = URI.create("http://localhost:" + porta + "/api/usuarios/" + usuario.getId() + "/saldo");
+            String token = contexto.getBean(TokenService.class).gerarToken(usuario);
+
+            Histogram histograma = new ConcurrentHistogram(TimeUnit.SECONDS.toMicros(60), 3);
+            AtomicLong erros = new AtomicLong();
+            disparar(saldo, token, clientes, 2, new ConcurrentHistogram(3), erros); //aquecimento
+            erros.set(0);
+            disparar(saldo, token, clientes, duracao, histograma, erros);
+
+            double vazao = (double) histograma.getTotalCount() / duracao;
+            log.info(String.format("threads %s: %d clientes, %dms por consulta -> %.1f req/s p50=%.1fms p99=%.1fms",
+                    threadsVirtuais ? "virtuais" : "de plataforma", clientes, latencia, vazao,
+                    histograma.getValueAtPercentile(50) / 1000d, histograma.getValueAtPercentile(99) / 1000d));
+            Assertions.assertThat(erros.get()).as("requisicoes com erro").isZero();
+            return vazao;
+        }finally {
+            contexto.close();
+        }
+    }
+
+    private void disparar(URI uri, String token, int clientes, int segundos, Histogram histograma, AtomicLong erros)
+            throws InterruptedException {
+        long fim = System.nanoTime() + TimeUnit.SECONDS.toNanos(segundos);
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Authorization", "Bearer " + token).GET().build();
+        for (int i = 0; i < clientes; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() < fim) {
+                    long inicio = System.nanoTime();
+                    try {
+                        if(http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200){
+                            erros.incrementAndGet();
+                        }
+                    }catch (Exception e){
+                        erros.incrementAndGet();
+                    }
+                    histograma.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - inicio),
+                            histograma.getHighestTrackableValue()));
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(segundos + 60, TimeUnit.SECONDS);
+    }
+
+    //oBancoLentoSeguraAConexaoDuranteALatenciaComoUmBancoRemotoSobCarga
+    private static BeanPostProcessor bancoLento(int latencia){
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(!(bean instanceof DataSource)){
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create((DataSource) bean).beforeQuery((execucao, consultas) -> {
+                    try {
+                        Thread.sleep(latencia);
+                    }catch (InterruptedException e){
+                        Thread.currentThread().interrupt();
+                    }
+                }).build();
+            }
+        };
+    }
+}
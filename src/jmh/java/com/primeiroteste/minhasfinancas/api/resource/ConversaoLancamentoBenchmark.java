@@ -0,0 +1,41 @@
+package com.primeiroteste.minhasfinancas.api.resource;
+
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ConversaoLancamentoBenchmark {
+
+    LancamentoResource resource;
+    LancamentoDto dto;
+    Usuario usuario;
+
+    @Setup
+    public void setUp(){
+        //aConversaoComOUsuarioJaResolvidoNaoUsaOsServicos
+        resource = new LancamentoResource(null, null, null, null, null);
+        usuario = Usuario.builder().id(1l).build();
+        dto = new LancamentoDto(null, "Aluguel", 1, 2020, BigDecimal.valueOf(900), 1l,
+                TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+    }
+
+    @Benchmark
+    public Lancamento converter(){
+        return resource.converter(dto, usuario);
+    }
+}
@@ -0,0 +1,54 @@
+package com.primeiroteste.minhasfinancas.api.resource;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacaoLancamentoBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    int tamanho;
+
+    ObjectMapper objectMapper;
+    List<Lancamento> lancamentos;
+
+    @Setup
+    public void setUp(){
+        objectMapper = Jackson2ObjectMapperBuilder.json().build(); //mesmaConfiguracaoPadraoDoSpring
+        Usuario usuario = Usuario.builder().id(1l).nome("Usuario").email("usuario@email.com").senha("senha").build();
+        lancamentos = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            lancamentos.add(Lancamento.builder().id((long) i).descricao("Lancamento " + i)
+                    .mes(i % 12 + 1).ano(2020).valor(BigDecimal.valueOf(i * 100 + 99, 2))
+                    .usuario(usuario).dataCadastro(LocalDate.of(2020, 1, 1))
+                    .tipoLancamento(i % 2 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+                    .statusLancamento(StatusLancamento.PENDENTE).build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializar() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(lancamentos);
+    }
+}
@@ -0,0 +1,86 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.repository.UsuarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+//rodarCom: mvn -P jmh test -Dtest=BuscaDescricaoBenchmark -Dlancamentos=20000 -Dtrecho="gasolina 12"
+@Slf4j
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class BuscaDescricaoBenchmark {
+
+    static final String[] DESCRICOES = {"Supermercado", "Aluguel", "Conta de luz", "Farmácia", "Padaria",
+            "Posto de gasolina", "Restaurante", "Mercadinho", "Salário", "Internet"};
+
+    @Autowired
+    LancamentoService service;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Test
+    public void compararBuscaPorExampleComIndiceDeTrigramas(){
+        int quantidade = Integer.getInteger("lancamentos", 20000);
+        int repeticoes = Integer.getInteger("repeticoes", 50);
+        Usuario usuario = usuarioRepository.save(Usuario.builder()
+                .nome("benchmark").email("benchmark" + System.nanoTime() + "@email.com").senha("senha").build());
+
+        List<Lancamento> lote = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            lote.add(Lancamento.builder().usuario(usuario)
+                    .descricao(DESCRICOES[i % DESCRICOES.length] + " " + i)
+                    .mes(i % 12 + 1).ano(2000 + i % 20)
+                    .valor(BigDecimal.valueOf(i % 500 + 1))
+                    .tipoLancamento(i % 3 == 0 ? TipoLancamento.RECEITA : TipoLancamento.DESPESA)
+                    .statusLancamento(StatusLancamento.PENDENTE)
+                    .dataCadastro(LocalDate.now()).build());
+            if(lote.size() == 1000){
+                service.salvarLote(lote);
+                lote = new ArrayList<>();
+            }
+        }
+        if(!lote.isEmpty()){
+            service.salvarLote(lote);
+        }
+
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+        filtro.setDescricao(System.getProperty("trecho", "gasolina 12"));
+
+        //aquecimento
+        int esperado = service.buscar(filtro).size();
+        Assertions.assertThat(service.buscar(filtro, null, quantidade)).hasSize(esperado);
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            service.buscar(filtro);
+        }
+        long example = (System.nanoTime() - inicio) / repeticoes;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < repeticoes; i++) {
+            service.buscar(filtro, null, quantidade);
+        }
+        long indice = (System.nanoTime() - inicio) / repeticoes;
+
+        log.info(String.format("busca por descricao em %d lancamentos (%d encontrados): example=%.2fms indice=%.2fms",
+                quantidade, esperado, example / 1e6, indice / 1e6));
+    }
+}
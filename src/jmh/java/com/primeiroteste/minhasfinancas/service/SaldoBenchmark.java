@@ -0,0 +1,54 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.SaldoUsuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+//aContaDoSaldoDeObterSaldoPorUsuarioSemOBancoSomaDosValoresEReceitasMenosDespesas
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SaldoBenchmark {
+
+    @Param({"10", "1000"})
+    int lancamentos;
+
+    BigDecimal[] valores;
+    SaldoUsuario saldo;
+
+    @Setup
+    public void setUp(){
+        Random random = new Random(42);
+        valores = new BigDecimal[lancamentos];
+        for (int i = 0; i < lancamentos; i++) {
+            valores[i] = BigDecimal.valueOf(random.nextInt(1_000_000), 2); //valoresComCentavos
+        }
+        saldo = SaldoUsuario.builder().idUsuario(1l)
+                .totalReceitas(BigDecimal.valueOf(123456789, 2))
+                .totalDespesas(BigDecimal.valueOf(98765432, 2)).build();
+    }
+
+    @Benchmark
+    public BigDecimal somarValores(){
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal valor : valores) {
+            total = total.add(valor);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal calcularSaldo(){
+        return saldo.getSaldo();
+    }
+}
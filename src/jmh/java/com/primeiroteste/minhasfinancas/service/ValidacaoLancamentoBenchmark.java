@@ -0,0 +1,56 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.service.impl.LancamentoServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ValidacaoLancamentoBenchmark {
+
+    LancamentoService service;
+    Lancamento valido;
+    Lancamento semValor;
+
+    @Setup
+    public void setUp(){
+        //validarNaoUsaORepositorioNemOSaldo
+        service = new LancamentoServiceImpl(null, null, null, null, null);
+        valido = Lancamento.builder().descricao("Aluguel").mes(1).ano(2020)
+                .usuario(Usuario.builder().id(1l).build()).valor(BigDecimal.valueOf(900))
+                .tipoLancamento(TipoLancamento.DESPESA).statusLancamento(StatusLancamento.PENDENTE).build();
+        semValor = Lancamento.builder().descricao("Aluguel").mes(1).ano(2020)
+                .usuario(Usuario.builder().id(1l).build()).tipoLancamento(TipoLancamento.DESPESA).build();
+    }
+
+    @Benchmark
+    public Lancamento validarLancamentoValido(){
+        service.validar(valido);
+        return valido;
+    }
+
+    @Benchmark
+    public RegraNegocioException validarLancamentoInvalido(){
+        //medeOCustoDeMontarAExcecaoComStackTrace
+        try {
+            service.validar(semValor);
+            return null;
+        }catch (RegraNegocioException e){
+            return e;
+        }
+    }
+}
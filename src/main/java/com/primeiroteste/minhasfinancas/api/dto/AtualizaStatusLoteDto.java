@@ -0,0 +1,22 @@
+package com.primeiroteste.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AtualizaStatusLoteDto {
+
+    private String status;
+    private List<Long> ids;
+    private Long usuario;
+    private Integer ano;
+    private Integer mes;
+    private String statusAtual;
+}
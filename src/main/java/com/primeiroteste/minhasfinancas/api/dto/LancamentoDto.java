@@ -1,11 +1,15 @@
 package com.primeiroteste.minhasfinancas.api.dto;
 
-import lombok.Builder;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
 import lombok.Data;
+import lombok.NoArgsConstructor;
+
 import java.math.BigDecimal;
 
 
 @Data
+@NoArgsConstructor
 public class LancamentoDto {
 
     private Long id;
@@ -16,4 +20,27 @@ public class LancamentoDto {
     private Long usuario;
     private String tipo;
     private String status;
+    private Long versao;
+    private String serie;
+    private Integer parcela;
+    private RecorrenciaDto recorrencia; //soNaCriacaoGeraTodosOsLancamentosDaSerie
+
+    public LancamentoDto(Long id, String descricao, Integer mes, Integer ano, BigDecimal valor, Long usuario,
+                         TipoLancamento tipo, StatusLancamento status){
+        this(id, descricao, mes, ano, valor, usuario, tipo, status, null);
+    }
+
+    //usadoPelaProjecaoDaConsultaQueSoLeAsColunasDoLancamentoEOIdDoUsuario
+    public LancamentoDto(Long id, String descricao, Integer mes, Integer ano, BigDecimal valor, Long usuario,
+                         TipoLancamento tipo, StatusLancamento status, Long versao){
+        this.id = id;
+        this.descricao = descricao;
+        this.mes = mes;
+        this.ano = ano;
+        this.valor = valor;
+        this.usuario = usuario;
+        this.tipo = tipo != null ? tipo.name() : null;
+        this.status = status != null ? status.name() : null;
+        this.versao = versao;
+    }
 }
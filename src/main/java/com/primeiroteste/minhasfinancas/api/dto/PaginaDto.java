@@ -0,0 +1,16 @@
+package com.primeiroteste.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaginaDto<T> {
+
+    private List<T> itens;
+    private String proximoCursor;
+}
@@ -0,0 +1,19 @@
+package com.primeiroteste.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RecorrenciaDto {
+
+    private String tipo;
+    private String frequencia;
+    private Integer quantidade;
+    private Integer mesInicio; //semMesEAnoDeInicioComecaNoMesEAnoDoLancamento
+    private Integer anoInicio;
+}
@@ -0,0 +1,28 @@
+package com.primeiroteste.minhasfinancas.api.dto;
+
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+public class ResumoMensalDto {
+
+    private Integer ano;
+    private Integer mes;
+    private String tipo;
+    private String status;
+    private BigDecimal valor;
+    private Long quantidade;
+
+    public ResumoMensalDto(ResumoMensal resumo){
+        this.ano = resumo.getChave().getAno();
+        this.mes = resumo.getChave().getMes();
+        this.tipo = resumo.getChave().getTipoLancamento().name();
+        this.status = resumo.getChave().getStatusLancamento().name();
+        this.valor = resumo.getValorTotal();
+        this.quantidade = resumo.getQuantidade();
+    }
+}
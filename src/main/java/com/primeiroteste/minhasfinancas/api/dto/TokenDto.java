@@ -0,0 +1,17 @@
+package com.primeiroteste.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenDto {
+
+    private Long id;
+    private String nome;
+    private String email;
+    private String token;
+    private Long expiracao; //segundosDesdeEpoch
+}
@@ -0,0 +1,16 @@
+package com.primeiroteste.minhasfinancas.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+//semASenhaPorqueARespostaDoCadastroFicaGuardadaNaTabelaDeIdempotencia
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsuarioCadastradoDto {
+
+    private Long id;
+    private String nome;
+    private String email;
+}
@@ -0,0 +1,135 @@
+package com.primeiroteste.minhasfinancas.api.filter;
+
+import com.primeiroteste.minhasfinancas.config.ContadorConsultas;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ContadorConsultasFilter extends OncePerRequestFilter {
+
+    public static final String CABECALHO = "X-Quantidade-Consultas";
+
+    private final int limiteAviso;
+
+    public ContadorConsultasFilter(int limiteAviso){
+        this.limiteAviso = limiteAviso;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        AtomicInteger contador = ContadorConsultas.iniciar();
+        request.setAttribute(ContadorConsultas.ATRIBUTO, contador);
+        ComCabecalho resposta = new ComCabecalho(response);
+        try {
+            chain.doFilter(request, resposta);
+        }finally {
+            resposta.escreverCabecalho();
+            ContadorConsultas.encerrar();
+            if(isAsyncStarted(request)){
+                //oExportContinuaConsultandoNoExecutorEntaoSoRegistraQuandoARequisicaoAssincronaTermina
+                request.getAsyncContext().addListener(new AoTerminar(() -> registrar(request, response, contador.get(), inicio)));
+            }else{
+                registrar(request, response, contador.get(), inicio);
+            }
+        }
+    }
+
+    //soAcimaDoLimiteViraAvisoORestoFicaEmDebugParaNaoEscreverUmaLinhaPorRequisicao
+    private void registrar(HttpServletRequest request, HttpServletResponse response, int consultas, long inicio){
+        long milis = (System.nanoTime() - inicio) / 1_000_000;
+        if(consultas > limiteAviso){
+            log.warn("{} {} {} - {} consultas em {}ms (limite {})", request.getMethod(), request.getRequestURI(),
+                    response.getStatus(), consultas, milis, limiteAviso);
+        }else{
+            log.debug("{} {} {} - {} consultas em {}ms", request.getMethod(), request.getRequestURI(),
+                    response.getStatus(), consultas, milis);
+        }
+    }
+
+    private static class AoTerminar implements AsyncListener {
+
+        private final Runnable acao;
+
+        AoTerminar(Runnable acao){
+            this.acao = acao;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event){
+            acao.run(); //tambemChamadoDepoisDeTimeoutOuErro
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event){
+        }
+
+        @Override
+        public void onError(AsyncEvent event){
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event){
+        }
+    }
+
+    //oCabecalhoPrecisaIrAntesDoPrimeiroByteDoCorpoSenaoARespostaJaFoiComitada
+    private static class ComCabecalho extends HttpServletResponseWrapper {
+
+        private boolean escrito;
+
+        ComCabecalho(HttpServletResponse response){
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            escreverCabecalho();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            escreverCabecalho();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            escreverCabecalho();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            escreverCabecalho();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            escreverCabecalho();
+            super.sendError(sc);
+        }
+
+        void escreverCabecalho(){
+            if(!escrito && !isCommitted()){
+                setIntHeader(CABECALHO, ContadorConsultas.obter());
+            }
+            escrito = true;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.primeiroteste.minhasfinancas.api.filter;
+
+import com.primeiroteste.minhasfinancas.service.TokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+public class TokenFilter extends OncePerRequestFilter {
+
+    public static final String USUARIO_AUTENTICADO = "idUsuarioAutenticado";
+
+    private static final String PREFIXO = "Bearer ";
+
+    private final TokenService tokenService;
+    private final boolean obrigatorio;
+
+    public TokenFilter(TokenService tokenService, boolean obrigatorio){
+        this.tokenService = tokenService;
+        this.obrigatorio = obrigatorio;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String cabecalho = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if(cabecalho != null && cabecalho.startsWith(PREFIXO)){
+            Optional<Long> idUsuario = tokenService.validar(cabecalho.substring(PREFIXO.length()));
+            if(!idUsuario.isPresent()){
+                negar(response, "Token inválido ou expirado!");
+                return;
+            }
+            request.setAttribute(USUARIO_AUTENTICADO, idUsuario.get());
+        }else if(obrigatorio && !publico(request)){
+            negar(response, "Informe o token de autenticação!");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean publico(HttpServletRequest request){
+        String caminho = request.getRequestURI().substring(request.getContextPath().length());
+        if(HttpMethod.OPTIONS.matches(request.getMethod())){
+            return true;
+        }
+        return HttpMethod.POST.matches(request.getMethod())
+                && (caminho.equals("/api/usuarios") || caminho.equals("/api/usuarios/autenticar"));
+    }
+
+    private void negar(HttpServletResponse response, String mensagem) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(mensagem.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.primeiroteste.minhasfinancas.api.resource;
+
+import com.primeiroteste.minhasfinancas.api.filter.TokenFilter;
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Importacao;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusImportacao;
+import com.primeiroteste.minhasfinancas.service.ImportacaoService;
+import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/importacoes")
+@RequiredArgsConstructor
+public class ImportacaoResource {
+
+    private final ImportacaoService service;
+    private final UsuarioService usuarioService;
+
+    private static final String SEM_PERMISSAO = "Importação não pertence ao usuário autenticado!";
+
+    //oArquivoVemNoCorpoDaRequisicaoEELidoDiretoDoStreamSemMultipart
+    @PostMapping
+    public ResponseEntity importar(@RequestParam(value = "usuario", required = false) Long idUsuario,
+                                   @RequestParam("formato") String formato,
+                                   @RequestParam(value = "importacao", required = false) Long idImportacao,
+                                   @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado,
+                                   HttpServletRequest request) throws IOException {
+        if(semPermissao(idUsuario, idAutenticado)){
+            return new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN);
+        }
+        Optional<Usuario> usuario = obterUsuario(idUsuario, idAutenticado);
+        if(!usuario.isPresent()){
+            return ResponseEntity.badRequest().body("Usuário não encontrado!");
+        }
+        try {
+            Importacao importacao;
+            if(idImportacao == null){
+                importacao = service.importar(usuario.get(), formato, request.getInputStream());
+            }else{
+                Optional<Importacao> anterior = service.obterPorId(idImportacao);
+                if(!anterior.isPresent()){
+                    return ResponseEntity.badRequest().body("Importação não encontrada na base de dados!");
+                }
+                importacao = service.retomar(anterior.get(), usuario.get(), request.getInputStream());
+            }
+            HttpStatus status = importacao.getStatus() == StatusImportacao.FALHOU
+                    ? HttpStatus.UNPROCESSABLE_ENTITY : HttpStatus.CREATED;
+            return new ResponseEntity(importacao, status);
+        }catch (RegraNegocioException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity obterProgresso(@PathVariable("id") Long id,
+                                         @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        return service.obterPorId(id)
+                .map(importacao -> {
+                    if(semPermissao(importacao.getIdUsuario(), idAutenticado)){
+                        return new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN);
+                    }
+                    return ResponseEntity.ok(importacao);
+                })
+                .orElseGet(() -> new ResponseEntity(HttpStatus.NOT_FOUND));
+    }
+
+    //mesmaRegraDoLancamentoResourceComTokenSoOProprioUsuario
+    private boolean semPermissao(Long idInformado, Long idAutenticado){
+        return idAutenticado != null && idInformado != null && !idInformado.equals(idAutenticado);
+    }
+
+    private Optional<Usuario> obterUsuario(Long idInformado, Long idAutenticado){
+        if(idAutenticado != null){
+            return Optional.of(Usuario.builder().id(idAutenticado).build());
+        }
+        return idInformado == null ? Optional.empty() : usuarioService.obterPorId(idInformado);
+    }
+}
@@ -1,21 +1,53 @@
 package com.primeiroteste.minhasfinancas.api.resource;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.primeiroteste.minhasfinancas.api.dto.AtualizaStatusDto;
+import com.primeiroteste.minhasfinancas.api.dto.AtualizaStatusLoteDto;
 import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.api.dto.PaginaDto;
+import com.primeiroteste.minhasfinancas.api.dto.RecorrenciaDto;
+import com.primeiroteste.minhasfinancas.api.dto.ResultadoLoteDto;
+import com.primeiroteste.minhasfinancas.api.filter.TokenFilter;
 import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
 import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
 import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.FrequenciaRecorrencia;
 import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
 import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoRecorrencia;
+import com.primeiroteste.minhasfinancas.model.repository.CursorLancamento;
+import com.primeiroteste.minhasfinancas.service.IdempotenciaService;
 import com.primeiroteste.minhasfinancas.service.LancamentoService;
 import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import com.primeiroteste.minhasfinancas.service.gravacao.GravacaoAgrupada;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/lancamentos")
@@ -24,94 +56,471 @@ public class LancamentoResource {
 
     private final LancamentoService service;
     private final UsuarioService usuarioService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<GravacaoAgrupada> gravacaoAgrupada;
+    private final IdempotenciaService idempotenciaService;
 
+    private static final String SEM_PERMISSAO = "Lançamento não pertence ao usuário autenticado!";
+    private static final String VERSAO_DIVERGENTE = "Lançamento foi alterado por outra requisição, busque a versão atual!";
+    private static final String IF_MATCH_OBRIGATORIO = "Informe no If-Match a versão do lançamento que será alterado!";
+    private static final String STATUS_INVALIDO = "Não foi possível atualizar o status do lançamento, envie um status válido!";
+    private static final String CHAVE_SEM_USUARIO = "Informe o usuário para usar a Idempotency-Key!";
+    private static final String GRAVACAO_DEMORADA = "A gravação do lançamento não terminou a tempo, confira se ele foi salvo antes de tentar novamente!";
+
+    @Value("${minhasfinancas.paginacao.tamanho-maximo:100}")
+    private int tamanhoMaximoPagina;
+
+    @Value("${minhasfinancas.lancamento.if-match-obrigatorio:false}")
+    private boolean ifMatchObrigatorio;
+
+    @Value("${minhasfinancas.lancamento.lote.tamanho-maximo:1000}")
+    private int tamanhoMaximoLote;
 
     @GetMapping
     public ResponseEntity buscar(@RequestParam(value= "descricao", required = false) String descricao,
                                  @RequestParam(value="mes", required = false) Integer mes,
                                  @RequestParam(value="ano", required = false) Integer ano,
-                                 @RequestParam("usuario") Long idUsuario){
+                                 @RequestParam(value="usuario", required = false) Long idUsuario,
+                                 @RequestParam(value="cursor", required = false) String cursor,
+                                 @RequestParam(value="tamanho", required = false) Integer tamanho,
+                                 @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        if(semPermissao(idUsuario, idAutenticado)){
+            return new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN);
+        }
         Lancamento lancamentoFiltro = new Lancamento();
         lancamentoFiltro.setDescricao(descricao);
         lancamentoFiltro.setMes(mes);
         lancamentoFiltro.setAno(ano);
-        Optional<Usuario> usuario = usuarioService.obterPorId(idUsuario);
+        Optional<Usuario> usuario = obterUsuario(idUsuario, idAutenticado);
         if(!usuario.isPresent()){
             return ResponseEntity.badRequest().body("Usuário não encontrado!");
         }else{
             lancamentoFiltro.setUsuario(usuario.get());
         }
-        List<Lancamento> lancamentos = service.buscar(lancamentoFiltro);
-        return ResponseEntity.ok(lancamentos);
+        int tamanhoPagina = tamanho == null || tamanho < 1 || tamanho > tamanhoMaximoPagina ? tamanhoMaximoPagina : tamanho;
+        try {
+            CursorLancamento cursorLancamento = cursor != null ? CursorLancamento.doToken(cursor) : null;
+
+            //buscaUmAMaisSoParaSaberSeExisteProximaPagina
+            List<LancamentoDto> lancamentos = service.buscar(lancamentoFiltro, cursorLancamento, tamanhoPagina + 1);
+            String proximoCursor = null;
+            if(lancamentos.size() > tamanhoPagina){
+                lancamentos = lancamentos.subList(0, tamanhoPagina);
+                proximoCursor = CursorLancamento.de(lancamentos.get(tamanhoPagina - 1)).toToken();
+            }
+            //oSpringRespondeSozinho304QuandoOIfNoneMatchBateComOEtag
+            return ResponseEntity.ok().eTag(etagDaPagina(lancamentos, proximoCursor))
+                    .body(new PaginaDto<>(lancamentos, proximoCursor));
+        }catch (RegraNegocioException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity obter(@PathVariable("id") Long id,
+                                @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        return service.obterPorId(id).map(entity -> {
+            if(semPermissao(entity, idAutenticado)){
+                return new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN);
+            }
+            return ResponseEntity.ok().eTag(String.valueOf(entity.getVersao())).body(converterParaDto(entity));
+        }).orElseGet(()-> new ResponseEntity("Lançamento não encontrado na base de dados!", HttpStatus.NOT_FOUND));
+    }
 
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> exportar(@RequestParam(value = "usuario", required = false) Long idInformado,
+                                                          @RequestParam(value = "format", defaultValue = "csv") String formato,
+                                                          @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        //oCorpoPrecisaSerStreamingResponseBodyAteNoErroParaOSpringEscreverEmStream
+        if(semPermissao(idInformado, idAutenticado)){
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(mensagem(SEM_PERMISSAO));
+        }
+        Optional<Usuario> usuario = obterUsuario(idInformado, idAutenticado);
+        if(!usuario.isPresent()){
+            return ResponseEntity.badRequest().body(mensagem("Usuário não encontrado!"));
+        }
+        Long idUsuario = usuario.get().getId();
+        boolean csv = formato.equalsIgnoreCase("csv");
+        if(!csv && !formato.equalsIgnoreCase("ndjson")){
+            return ResponseEntity.badRequest().body(mensagem("Formato de exportação inválido, use csv ou ndjson!"));
+        }
 
+        StreamingResponseBody corpo = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if(csv){
+                writer.write("id,descricao,mes,ano,valor,tipo,status,data_cadastro\n");
+            }
+            service.exportar(idUsuario, lancamento -> {
+                try {
+                    writer.write(csv ? linhaCsv(lancamento) : objectMapper.writeValueAsString(converterParaDto(lancamento)));
+                    writer.write("\n");
+                }catch (IOException e){
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=lancamentos." + formato.toLowerCase())
+                .body(corpo);
     }
 
+    //aRetentativaComAMesmaChaveRecebeARespostaGuardadaSemValidarNemGravarDeNovo
     @PostMapping
-    public ResponseEntity salvar(@RequestBody LancamentoDto dto){
+    public ResponseEntity salvar(@RequestBody LancamentoDto dto,
+                                 @RequestHeader(name = IdempotenciaService.CHAVE, required = false) String chave,
+                                 @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        //aChaveValeDentroDoUsuarioSemTokenEleVemDoCorpoSemNenhumDosDoisNaoHaOndeGuardar
+        Long idUsuario = idAutenticado != null ? idAutenticado : dto.getUsuario();
+        if(chave != null && idUsuario == null){
+            return ResponseEntity.badRequest().body(CHAVE_SEM_USUARIO);
+        }
+        return idempotenciaService.executar("lancamentos:" + idUsuario, chave, dto, () -> criar(dto, idAutenticado));
+    }
+
+    private ResponseEntity criar(LancamentoDto dto, Long idAutenticado){
+        if(semPermissao(dto.getUsuario(), idAutenticado)){
+            return new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN);
+        }
         try {
-            Lancamento entidade = converter(dto);
-            entidade = service.salvar(entidade);
-            return new ResponseEntity(entidade, HttpStatus.CREATED);
+            Lancamento entidade = converter(dto, idAutenticado);
+            if(dto.getRecorrencia() != null){
+                List<LancamentoDto> serie = salvarSerie(entidade, dto.getRecorrencia()).stream()
+                        .map(this::converterParaDto)
+                        .collect(Collectors.toList());
+                return new ResponseEntity(serie, HttpStatus.CREATED);
+            }
+            GravacaoAgrupada gravacao = gravacaoAgrupada.getIfAvailable();
+            entidade = gravacao != null ? aguardar(gravacao.enfileirar(entidade)) : service.salvar(entidade);
+            return new ResponseEntity(converterParaDto(entidade), HttpStatus.CREATED);
         }catch (RegraNegocioException e){
             return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (RejectedExecutionException e){
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(e.getMessage());
         }
     }
 
+    @PostMapping("lote")
+    public ResponseEntity salvarLote(@RequestBody List<LancamentoDto> dtos, @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        //oLoteInteiroViraUmaTransacaoEFicaNaMemoriaEntaoSemLimiteUmaRequisicaoSoSeguraOBancoEOHeap
+        if(dtos.size() > tamanhoMaximoLote){
+            return ResponseEntity.badRequest().body("Envie no máximo " + tamanhoMaximoLote + " lançamentos por lote!");
+        }
+        Map<Long, Optional<Usuario>> usuarios = new HashMap<>(); //buscaCadaUsuarioUmaVezSo
+        List<ResultadoLoteDto> resultados = new ArrayList<>();
+        List<Lancamento> validos = new ArrayList<>();
+        List<ResultadoLoteDto> resultadosValidos = new ArrayList<>();
+
+        for (int indice = 0; indice < dtos.size(); indice++) {
+            LancamentoDto dto = dtos.get(indice);
+            ResultadoLoteDto resultado = new ResultadoLoteDto(indice, null, null);
+            resultados.add(resultado);
+            try {
+                if(semPermissao(dto.getUsuario(), idAutenticado)){
+                    throw new RegraNegocioException(SEM_PERMISSAO);
+                }
+                Usuario usuario = usuarios.computeIfAbsent(dto.getUsuario(), id -> obterUsuario(id, idAutenticado))
+                        .orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o id informado!"));
+                Lancamento lancamento = converter(dto, usuario);
+                lancamento.setId(null); //loteSoCriaLancamentosNovos
+                service.validar(lancamento);
+                validos.add(lancamento);
+                resultadosValidos.add(resultado);
+            }catch (RegraNegocioException | IllegalArgumentException e){
+                resultado.setErro(e.getMessage());
+            }
+        }
+
+        if(validos.isEmpty()){
+            return ResponseEntity.badRequest().body(resultados);
+        }
+        List<Lancamento> salvos = service.salvarLote(validos);
+        for (int i = 0; i < salvos.size(); i++) {
+            resultadosValidos.get(i).setId(salvos.get(i).getId());
+        }
+        return new ResponseEntity(resultados, HttpStatus.CREATED);
+    }
+
+    //leAntesDeGravarPorqueOEstornoDoSaldoEDoResumoPrecisaDosValoresGravadosEOMergeReaproveitaAEntidadeCarregada
     @PutMapping("{id}")
-    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDto dto){
+    public ResponseEntity atualizar(@PathVariable("id") Long id, @RequestBody LancamentoDto dto,
+                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                    @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        if(ifMatch == null && ifMatchObrigatorio){
+            return new ResponseEntity(IF_MATCH_OBRIGATORIO, HttpStatus.PRECONDITION_REQUIRED);
+        }
         return  service.obterPorId(id).map(entity -> {
+            if(semPermissao(entity, idAutenticado) || semPermissao(dto.getUsuario(), idAutenticado)){
+                return new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN);
+            }
+            if(!versaoConfere(ifMatch, entity)){
+                return new ResponseEntity(VERSAO_DIVERGENTE, HttpStatus.PRECONDITION_FAILED);
+            }
             try {
-                Lancamento lancamento = converter(dto);
+                Lancamento lancamento = converter(dto, idAutenticado);
                 lancamento.setId(entity.getId());
-                service.atualizar(lancamento);
-                return ResponseEntity.ok(lancamento);
+                lancamento.setVersao(entity.getVersao()); //seOutroSalvarAntesDoCommitOUpdateComAVersaoNaoAchaALinha
+                Lancamento atualizado = service.atualizar(lancamento);
+                return ResponseEntity.ok().eTag(String.valueOf(atualizado.getVersao())).body(converterParaDto(atualizado));
             }catch (RegraNegocioException e){
                 return ResponseEntity.badRequest().body(e.getMessage());
+            }catch (ObjectOptimisticLockingFailureException e){
+                return new ResponseEntity(VERSAO_DIVERGENTE, HttpStatus.PRECONDITION_FAILED);
             }
         }).orElseGet(()-> new ResponseEntity("Lançamento nao encontrado na base de dados", HttpStatus.BAD_REQUEST));
     }
 
     @PutMapping("{id}/atualiza-status")
-    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDto dto){
+    public ResponseEntity atualizarStatus(@PathVariable("id") Long id, @RequestBody AtualizaStatusDto dto,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                          @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        if(ifMatch == null && ifMatchObrigatorio){
+            return new ResponseEntity(IF_MATCH_OBRIGATORIO, HttpStatus.PRECONDITION_REQUIRED);
+        }
+        StatusLancamento statusSelecionado;
+        try {
+            statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
+        }catch (IllegalArgumentException | NullPointerException e){
+            return ResponseEntity.badRequest().body(STATUS_INVALIDO);
+        }
+        Optional<Long> versao = versaoUnica(ifMatch);
+        if(versao.isPresent()){
+            //comAVersaoNoIfMatchOUpdateConfereVersaoEDonoSemLerOLancamentoAntes
+            try {
+                Optional<Lancamento> atualizado = service.atualizarStatusNaVersao(id, versao.get(), idAutenticado, statusSelecionado);
+                if(atualizado.isPresent()){
+                    return ResponseEntity.ok().eTag(String.valueOf(atualizado.get().getVersao())).body(converterParaDto(atualizado.get()));
+                }
+            }catch (RegraNegocioException e){
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+            //soNaFalhaLeParaDizerPorQueNaoAtualizou
+            return service.obterPorId(id)
+                    .map(entity -> semPermissao(entity, idAutenticado)
+                            ? new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN)
+                            : new ResponseEntity(VERSAO_DIVERGENTE, HttpStatus.PRECONDITION_FAILED))
+                    .orElseGet(()-> new ResponseEntity("Lançamento nao encontrado na base de dados", HttpStatus.BAD_REQUEST));
+        }
         return service.obterPorId(id).map(entity -> {
-            StatusLancamento statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
-            if(statusSelecionado == null){
-                return ResponseEntity.badRequest().body("Não foi possível atualizar o status do lançamento, envie um status válido!");
+            if(semPermissao(entity, idAutenticado)){
+                return new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN);
+            }
+            if(!versaoConfere(ifMatch, entity)){
+                return new ResponseEntity(VERSAO_DIVERGENTE, HttpStatus.PRECONDITION_FAILED);
             }
-
             try {
                 entity.setStatusLancamento(statusSelecionado);
-                service.atualizar(entity);
-                return ResponseEntity.ok(entity);
+                Lancamento atualizado = service.atualizar(entity);
+                return ResponseEntity.ok().eTag(String.valueOf(atualizado.getVersao())).body(converterParaDto(atualizado));
             }catch (RegraNegocioException e){
                 return ResponseEntity.badRequest().body(e.getMessage());
+            }catch (ObjectOptimisticLockingFailureException e){
+                return new ResponseEntity(VERSAO_DIVERGENTE, HttpStatus.PRECONDITION_FAILED);
             }
         }).orElseGet(()-> new ResponseEntity("Lançamento nao encontrado na base de dados", HttpStatus.BAD_REQUEST));
     }
 
+    //fechamentoDoMesEfetivaTodosDeUmaVezEmUmUnicoUpdateERetornaQuantosMudaram
+    @PutMapping("atualiza-status")
+    public ResponseEntity atualizarStatusEmLote(@RequestBody AtualizaStatusLoteDto dto,
+                                                @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        if(semPermissao(dto.getUsuario(), idAutenticado)){
+            return new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN);
+        }
+        StatusLancamento statusSelecionado;
+        StatusLancamento statusAtual;
+        try {
+            statusSelecionado = StatusLancamento.valueOf(dto.getStatus());
+            statusAtual = dto.getStatusAtual() != null ? StatusLancamento.valueOf(dto.getStatusAtual()) : null;
+        }catch (IllegalArgumentException | NullPointerException e){
+            return ResponseEntity.badRequest().body(STATUS_INVALIDO);
+        }
+
+        //comTokenSoAlcancaOsLancamentosDoProprioUsuarioMesmoQuandoVemSoOsIds
+        Long idUsuario = idAutenticado != null ? idAutenticado : dto.getUsuario();
+        Lancamento lancamentoFiltro = Lancamento.builder()
+                .usuario(idUsuario != null ? Usuario.builder().id(idUsuario).build() : null)
+                .ano(dto.getAno())
+                .mes(dto.getMes())
+                .statusLancamento(statusAtual)
+                .build();
+        try {
+            return ResponseEntity.ok(service.atualizarStatus(lancamentoFiltro, dto.getIds(), statusSelecionado));
+        }catch (RegraNegocioException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    //alteraOsPendentesDaSerieNumUnicoUpdateERetornaQuantosMudaram
+    @PutMapping("serie/{idSerie}")
+    public ResponseEntity atualizarSerie(@PathVariable("idSerie") String idSerie, @RequestBody LancamentoDto dto,
+                                         @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        Lancamento alteracao = new Lancamento();
+        alteracao.setDescricao(dto.getDescricao());
+        alteracao.setValor(dto.getValor());
+        try {
+            if(dto.getTipo() != null){
+                alteracao.setTipoLancamento(TipoLancamento.valueOf(dto.getTipo()));
+            }
+            return ResponseEntity.ok(service.atualizarSerie(filtroDaSerie(idSerie, idAutenticado), alteracao));
+        }catch (RegraNegocioException e){
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }catch (IllegalArgumentException e){
+            return ResponseEntity.badRequest().body("Informe um tipo de lançamento!");
+        }
+    }
+
+    @PutMapping("serie/{idSerie}/cancela")
+    public ResponseEntity cancelarSerie(@PathVariable("idSerie") String idSerie,
+                                        @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        return ResponseEntity.ok(service.cancelarSerie(filtroDaSerie(idSerie, idAutenticado)));
+    }
+
+    //tambemLeAntesOEstornoPrecisaDoValorGravadoEODeleteDaEntidadeConfereAVersaoCarregada
     @DeleteMapping("{id}")
-    public ResponseEntity deletar(@PathVariable("id") Long id){
+    public ResponseEntity deletar(@PathVariable("id") Long id,
+                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                  @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        if(ifMatch == null && ifMatchObrigatorio){
+            return new ResponseEntity(IF_MATCH_OBRIGATORIO, HttpStatus.PRECONDITION_REQUIRED);
+        }
         return service.obterPorId(id).map(entidade -> {
-            service.deletar(entidade);
+            if(semPermissao(entidade, idAutenticado)){
+                return new ResponseEntity(SEM_PERMISSAO, HttpStatus.FORBIDDEN);
+            }
+            if(!versaoConfere(ifMatch, entidade)){
+                return new ResponseEntity(VERSAO_DIVERGENTE, HttpStatus.PRECONDITION_FAILED);
+            }
+            try {
+                service.deletar(entidade);
+            }catch (ObjectOptimisticLockingFailureException e){
+                return new ResponseEntity(VERSAO_DIVERGENTE, HttpStatus.PRECONDITION_FAILED);
+            }
             return new ResponseEntity(HttpStatus.NO_CONTENT);
         }).orElseGet(()-> new ResponseEntity("Lançamento não encontrado na base de dados!", HttpStatus.BAD_REQUEST));
 
     }
 
-    private Lancamento converter(LancamentoDto dto){
+    //aRecorrenciaComecaNoMesEAnoDelaOuNosDoProprioLancamentoESemTipoOuFrequenciaEMensalComValorFixo
+    private List<Lancamento> salvarSerie(Lancamento modelo, RecorrenciaDto recorrencia){
+        if(recorrencia.getMesInicio() != null){
+            modelo.setMes(recorrencia.getMesInicio());
+        }
+        if(recorrencia.getAnoInicio() != null){
+            modelo.setAno(recorrencia.getAnoInicio());
+        }
+        TipoRecorrencia tipo;
+        FrequenciaRecorrencia frequencia;
+        try {
+            tipo = recorrencia.getTipo() != null ? TipoRecorrencia.valueOf(recorrencia.getTipo()) : TipoRecorrencia.RECORRENTE;
+            frequencia = recorrencia.getFrequencia() != null
+                    ? FrequenciaRecorrencia.valueOf(recorrencia.getFrequencia()) : FrequenciaRecorrencia.MENSAL;
+        }catch (IllegalArgumentException e){
+            throw new RegraNegocioException("Informe um tipo e uma frequência de recorrência válidos!");
+        }
+        return service.salvarSerie(modelo, tipo, frequencia, recorrencia.getQuantidade());
+    }
+
+    //aRequisicaoEsperaOCommitDoLoteEmQueOLancamentoDelaEntrou
+    private static Lancamento aguardar(CompletableFuture<Lancamento> gravacao){
+        try {
+            return gravacao.join();
+        }catch (CompletionException e){
+            if(e.getCause() instanceof RuntimeException){
+                throw (RuntimeException) e.getCause();
+            }
+            //oLoteAindaPodeComitarDepoisDoTimeoutPorIssoAMensagemPedeParaConferir
+            if(e.getCause() instanceof TimeoutException){
+                throw new RejectedExecutionException(GRAVACAO_DEMORADA, e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    //comTokenSoAlcancaASerieDoProprioUsuario
+    private Lancamento filtroDaSerie(String idSerie, Long idAutenticado){
+        return Lancamento.builder()
+                .idSerie(idSerie)
+                .usuario(idAutenticado != null ? Usuario.builder().id(idAutenticado).build() : null)
+                .build();
+    }
+
+    //semIfMatchOuComAsteriscoValeQualquerVersao
+    private boolean versaoConfere(String ifMatch, Lancamento lancamento){
+        if(ifMatch == null || ifMatch.trim().equals("*")){
+            return true;
+        }
+        for (String etag : ifMatch.split(",")) {
+            if(valorDaEtag(etag).equals(String.valueOf(lancamento.getVersao()))){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Optional<Long> versaoUnica(String ifMatch){
+        if(ifMatch == null || ifMatch.contains(",")){
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Long.valueOf(valorDaEtag(ifMatch)));
+        }catch (NumberFormatException e){
+            return Optional.empty();
+        }
+    }
+
+    private String valorDaEtag(String etag){
+        String valor = etag.trim();
+        if(valor.startsWith("W/")){
+            valor = valor.substring(2);
+        }
+        return valor.replace("\"", "");
+    }
+
+    //aPaginaMudaQuandoEntraSaiOuMudaDeVersaoAlgumLancamentoEntaoOIdEAVersaoBastam
+    private String etagDaPagina(List<LancamentoDto> lancamentos, String proximoCursor){
+        StringBuilder conteudo = new StringBuilder();
+        for (LancamentoDto lancamento : lancamentos) {
+            conteudo.append(lancamento.getId()).append(':').append(lancamento.getVersao()).append(',');
+        }
+        conteudo.append(proximoCursor);
+        return "W/\"" + DigestUtils.md5DigestAsHex(conteudo.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private boolean semPermissao(Long idInformado, Long idAutenticado){
+        return idAutenticado != null && idInformado != null && !idInformado.equals(idAutenticado);
+    }
+
+    private boolean semPermissao(Lancamento lancamento, Long idAutenticado){
+        //oIdDoProxyLazyDoUsuarioNaoPrecisaDeConsulta
+        return idAutenticado != null && !lancamento.getUsuario().getId().equals(idAutenticado);
+    }
+
+    //comTokenOIdDoUsuarioVemAssinadoEntaoNaoPrecisaConferirNoBanco
+    private Optional<Usuario> obterUsuario(Long idInformado, Long idAutenticado){
+        if(idAutenticado != null){
+            return Optional.of(Usuario.builder().id(idAutenticado).build());
+        }
+        return idInformado == null ? Optional.empty() : usuarioService.obterPorId(idInformado);
+    }
+
+    private Lancamento converter(LancamentoDto dto, Long idAutenticado){
+        Usuario usuario = obterUsuario(dto.getUsuario(), idAutenticado)
+                .orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o id informado!"));
+        return converter(dto, usuario);
+    }
+
+    Lancamento converter(LancamentoDto dto, Usuario usuario){
         Lancamento lancamento = new Lancamento();
         lancamento.setId(dto.getId());
         lancamento.setDescricao(dto.getDescricao());
         lancamento.setAno(dto.getAno());
         lancamento.setMes(dto.getMes());
         lancamento.setValor(dto.getValor());
-
-       Usuario usuario = usuarioService
-                .obterPorId(dto.getUsuario())
-                .orElseThrow(() -> new RegraNegocioException("Usuário não encontrado para o id informado!"));
-
-       lancamento.setUsuario(usuario);
+        lancamento.setUsuario(usuario);
 
        if (dto.getTipo() != null) {
            lancamento.setTipoLancamento(TipoLancamento.valueOf(dto.getTipo()));
@@ -121,4 +530,35 @@ public class LancamentoResource {
        }
         return lancamento;
     }
+
+    private LancamentoDto converterParaDto(Lancamento lancamento){
+        LancamentoDto dto = new LancamentoDto();
+        dto.setId(lancamento.getId());
+        dto.setDescricao(lancamento.getDescricao());
+        dto.setMes(lancamento.getMes());
+        dto.setAno(lancamento.getAno());
+        dto.setValor(lancamento.getValor());
+        dto.setUsuario(lancamento.getUsuario().getId());
+        dto.setVersao(lancamento.getVersao());
+        dto.setSerie(lancamento.getIdSerie());
+        dto.setParcela(lancamento.getParcela());
+        if(lancamento.getTipoLancamento() != null){
+            dto.setTipo(lancamento.getTipoLancamento().name());
+        }
+        if(lancamento.getStatusLancamento() != null){
+            dto.setStatus(lancamento.getStatusLancamento().name());
+        }
+        return dto;
+    }
+
+    private StreamingResponseBody mensagem(String mensagem){
+        return outputStream -> outputStream.write(mensagem.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String linhaCsv(Lancamento lancamento){
+        String descricao = lancamento.getDescricao() == null ? "" : lancamento.getDescricao().replace("\"", "\"\"");
+        return lancamento.getId() + ",\"" + descricao + "\"," + lancamento.getMes() + "," + lancamento.getAno() + ","
+                + lancamento.getValor().toPlainString() + "," + lancamento.getTipoLancamento() + ","
+                + lancamento.getStatusLancamento() + "," + (lancamento.getDataCadastro() == null ? "" : lancamento.getDataCadastro());
+    }
 }
@@ -1,10 +1,16 @@
 package com.primeiroteste.minhasfinancas.api.resource;
 
+import com.primeiroteste.minhasfinancas.api.dto.ResumoMensalDto;
+import com.primeiroteste.minhasfinancas.api.dto.TokenDto;
+import com.primeiroteste.minhasfinancas.api.dto.UsuarioCadastradoDto;
 import com.primeiroteste.minhasfinancas.api.dto.UsuarioDto;
+import com.primeiroteste.minhasfinancas.api.filter.TokenFilter;
 import com.primeiroteste.minhasfinancas.exception.ErroAutenticacao;
 import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
 import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.service.IdempotenciaService;
 import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import com.primeiroteste.minhasfinancas.service.TokenService;
 import com.primeiroteste.minhasfinancas.service.UsuarioService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -13,7 +19,8 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/usuarios")
@@ -22,20 +29,34 @@ public class UsuarioResource {
 
     private final UsuarioService service;
     private final LancamentoService lancamentoService;
+    private final TokenService tokenService;
+    private final IdempotenciaService idempotenciaService;
 
 
     @PostMapping("/autenticar")
     public ResponseEntity autenticar(@RequestBody UsuarioDto dto) {
         try {
             Usuario usuarioAutenticado = service.autenticar(dto.getEmail(), dto.getSenha());
-            return ResponseEntity.ok(usuarioAutenticado);
+            String token = tokenService.gerarToken(usuarioAutenticado);
+            return ResponseEntity.ok(new TokenDto(usuarioAutenticado.getId(), usuarioAutenticado.getNome(),
+                    usuarioAutenticado.getEmail(), token, tokenService.obterExpiracao(token).getEpochSecond()));
         } catch (ErroAutenticacao e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PostMapping
-    public ResponseEntity salvar(@RequestBody UsuarioDto dto){
+    public ResponseEntity salvar(@RequestBody UsuarioDto dto,
+                                 @RequestHeader(name = IdempotenciaService.CHAVE, required = false) String chave){
+        //oCadastroNaoTemTokenEntaoAChaveValeDentroDoEmailQueEstaSendoCadastrado
+        if(chave != null && dto.getEmail() == null){
+            return ResponseEntity.badRequest().body("Informe o email para usar a Idempotency-Key!");
+        }
+        String escopo = "usuarios:" + (dto.getEmail() != null ? dto.getEmail().toLowerCase() : null);
+        return idempotenciaService.executar(escopo, chave, dto, () -> criar(dto));
+    }
+
+    private ResponseEntity criar(UsuarioDto dto){
         Usuario usuario = Usuario.builder()
                 .nome(dto.getNome())
                 .email(dto.getEmail())
@@ -43,17 +64,20 @@ public class UsuarioResource {
                 .build();
         try{
            Usuario usuarioSalvo = service.salvarUsuario(usuario);
-           return new ResponseEntity(usuarioSalvo, HttpStatus.CREATED);
+           return new ResponseEntity(new UsuarioCadastradoDto(usuarioSalvo.getId(), usuarioSalvo.getNome(),
+                   usuarioSalvo.getEmail()), HttpStatus.CREATED);
         }catch (RegraNegocioException e){
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @GetMapping("{id}/saldo")
-    public ResponseEntity obterSaldo(@PathVariable("id") Long id){
-        Optional<Usuario> usuario = service.obterPorId(id);
-
-        if(!usuario.isPresent()){
+    public ResponseEntity obterSaldo(@PathVariable("id") Long id,
+                                     @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        if(idAutenticado != null && !idAutenticado.equals(id)){
+            return new ResponseEntity(HttpStatus.FORBIDDEN);
+        }
+        if(idAutenticado == null && !service.obterPorId(id).isPresent()){ //comTokenOUsuarioJaFoiConferidoNaAssinatura
             return new ResponseEntity(HttpStatus.NOT_FOUND);
         }
 
@@ -61,4 +85,35 @@ public class UsuarioResource {
         return ResponseEntity.ok(saldo);
     }
 
+    //oAnoInteiroJaSomadoPorMesTipoEStatusEmVezDeUmBuscarPorMesSomadoNoCliente
+    @GetMapping("{id}/resumo")
+    public ResponseEntity obterResumo(@PathVariable("id") Long id, @RequestParam("ano") Integer ano,
+                                      @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        if(idAutenticado != null && !idAutenticado.equals(id)){
+            return new ResponseEntity(HttpStatus.FORBIDDEN);
+        }
+        if(idAutenticado == null && !service.obterPorId(id).isPresent()){
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        List<ResumoMensalDto> resumo = lancamentoService.obterResumoPorAno(id, ano).stream()
+                .map(ResumoMensalDto::new)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(resumo);
+    }
+
+    @PostMapping("{id}/saldo/recalcular")
+    public ResponseEntity recalcularSaldo(@PathVariable("id") Long id,
+                                          @RequestAttribute(name = TokenFilter.USUARIO_AUTENTICADO, required = false) Long idAutenticado){
+        if(idAutenticado != null && !idAutenticado.equals(id)){
+            return new ResponseEntity(HttpStatus.FORBIDDEN);
+        }
+        if(idAutenticado == null && !service.obterPorId(id).isPresent()){
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+
+        BigDecimal saldo = lancamentoService.recalcularSaldoPorUsuario(id);
+        return ResponseEntity.ok(saldo);
+    }
+
 }
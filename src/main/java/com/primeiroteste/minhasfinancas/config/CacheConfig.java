@@ -0,0 +1,23 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//oEvictDentroDeUmaTransacaoSoAconteceDepoisDoCommitSenaoUmaLeituraNoMeioRecolocaODadoAntigo
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(CacheProperties propriedades){
+        CaffeineCacheManager caffeine = new CaffeineCacheManager();
+        caffeine.setCacheNames(propriedades.getCacheNames());
+        caffeine.setCacheSpecification(propriedades.getCaffeine().getSpec()); //continuaVindoDoSpringCacheCaffeineSpec
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,44 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+//quantidadeDeIdasAoBancoDaThreadAtualUmLoteJdbcContaComoUma
+//aGravacaoAgrupadaGravaOLoteDeVariasRequisicoesNaThreadDelaEEssasConsultasNaoEntramEmNenhuma
+public final class ContadorConsultas {
+
+    public static final String ATRIBUTO = ContadorConsultas.class.getName();
+
+    private static final ThreadLocal<AtomicInteger> CONTADOR = new ThreadLocal<>();
+
+    private ContadorConsultas(){
+    }
+
+    public static AtomicInteger iniciar(){
+        AtomicInteger contador = new AtomicInteger();
+        CONTADOR.set(contador);
+        return contador;
+    }
+
+    //aThreadDoExecutorAssincronoPassaASomarNoContadorDaRequisicaoQueACriou
+    public static void continuar(AtomicInteger contador){
+        CONTADOR.set(contador);
+    }
+
+    public static int obter(){
+        AtomicInteger contador = CONTADOR.get();
+        return contador == null ? 0 : contador.get();
+    }
+
+    public static int encerrar(){
+        int quantidade = obter();
+        CONTADOR.remove();
+        return quantidade;
+    }
+
+    static void registrar(){
+        AtomicInteger contador = CONTADOR.get();
+        if(contador != null){ //foraDeUmaRequisicaoOuTesteNaoConta
+            contador.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//oCorpoEmStreamDoExportRodaNumaThreadDoExecutorAssincronoEAsConsultasDeleContamNaRequisicaoQueOIniciou
+public class ContadorConsultasAssincrono implements CallableProcessingInterceptor {
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task){
+        Object contador = request.getAttribute(ContadorConsultas.ATRIBUTO, RequestAttributes.SCOPE_REQUEST);
+        if(contador instanceof AtomicInteger){
+            ContadorConsultas.continuar((AtomicInteger) contador);
+        }
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult){
+        ContadorConsultas.encerrar(); //aThreadVoltaProExecutorSemOContador
+    }
+}
@@ -0,0 +1,40 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import com.primeiroteste.minhasfinancas.api.filter.ContadorConsultasFilter;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class ContadorConsultasConfig {
+
+    //envolveODataSourceDoSpringParaContarCadaExecucaoDeStatementNaThreadDaRequisicao
+    @Bean
+    public static BeanPostProcessor contadorConsultasDataSource(){
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if(!(bean instanceof DataSource)){
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                        .afterQuery((execucao, consultas) -> ContadorConsultas.registrar())
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ContadorConsultasFilter> contadorConsultasFilter(
+            @Value("${minhasfinancas.consultas.limite-aviso:10}") int limiteAviso){
+        FilterRegistrationBean<ContadorConsultasFilter> registro =
+                new FilterRegistrationBean<>(new ContadorConsultasFilter(limiteAviso));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
@@ -0,0 +1,61 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+//quemAcabouDeEscreverLeDoPrimarioDuranteAJanelaSenaoAReplicaAtrasadaEscondeOQueEleGravou
+//aJanelaFicaNaMemoriaDestaInstanciaSoUmaEscritaFeitaAquiMandaALeituraDaquiProPrimario
+//comVariasInstanciasOBalanceadorPrecisaDeSessaoFixaPorUsuarioParaAGarantiaValer
+@Component
+public class LeituraAposEscrita {
+
+    private static final ThreadLocal<Boolean> NO_PRIMARIO = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> escritasRecentes;
+
+    public LeituraAposEscrita(@Value("${minhasfinancas.datasource.leitura-apos-escrita:5s}") Duration janela){
+        this.escritasRecentes = Caffeine.newBuilder().expireAfterWrite(janela).build();
+    }
+
+    //aJanelaContaDoCommitAntesDeleAReplicaNaoTemComoTerRecebidoNada
+    public void registrarEscrita(Long idUsuario){
+        if(idUsuario == null){
+            return;
+        }
+        if(!TransactionSynchronizationManager.isSynchronizationActive()){
+            escritasRecentes.put(idUsuario, Boolean.TRUE);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                escritasRecentes.put(idUsuario, Boolean.TRUE);
+            }
+        });
+    }
+
+    //chamadoNoComecoDaLeituraAntesDoPrimeiroStatementValeAteOFimDaTransacao
+    public void prepararLeitura(Long idUsuario){
+        if(idUsuario == null || escritasRecentes.getIfPresent(idUsuario) == null
+                || !TransactionSynchronizationManager.isSynchronizationActive() || noPrimario()){
+            return;
+        }
+        NO_PRIMARIO.set(Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                NO_PRIMARIO.remove();
+            }
+        });
+    }
+
+    static boolean noPrimario(){
+        return Boolean.TRUE.equals(NO_PRIMARIO.get());
+    }
+}
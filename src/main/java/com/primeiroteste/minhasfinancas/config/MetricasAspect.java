@@ -0,0 +1,71 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import com.primeiroteste.minhasfinancas.exception.ErroAutenticacao;
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+//tempoEQuantidadeDeChamadasDosServicosEDosRepositoriosPorOperacaoEResultado
+@Aspect
+@Component
+public class MetricasAspect {
+
+    static final String SERVICO = "minhasfinancas.servico";
+    static final String REPOSITORIO = "minhasfinancas.repositorio";
+
+    private final MeterRegistry registry;
+
+    public MetricasAspect(MeterRegistry registry){
+        this.registry = registry;
+    }
+
+    @Around("execution(* com.primeiroteste.minhasfinancas.service.LancamentoService+.*(..))")
+    public Object medirLancamentoService(ProceedingJoinPoint chamada) throws Throwable {
+        return medir(SERVICO, "LancamentoService", chamada);
+    }
+
+    @Around("execution(* com.primeiroteste.minhasfinancas.service.UsuarioService+.*(..))")
+    public Object medirUsuarioService(ProceedingJoinPoint chamada) throws Throwable {
+        return medir(SERVICO, "UsuarioService", chamada);
+    }
+
+    //oNomeDaClasseEFixoPorqueSaveEFindByIdSaoDeclaradosNoCrudRepository
+    @Around("execution(* com.primeiroteste.minhasfinancas.model.repository.LancamentoRepository+.*(..))")
+    public Object medirLancamentoRepository(ProceedingJoinPoint chamada) throws Throwable {
+        return medir(REPOSITORIO, "LancamentoRepository", chamada);
+    }
+
+    @Around("execution(* com.primeiroteste.minhasfinancas.model.repository.UsuarioRepository+.*(..))")
+    public Object medirUsuarioRepository(ProceedingJoinPoint chamada) throws Throwable {
+        return medir(REPOSITORIO, "UsuarioRepository", chamada);
+    }
+
+    private Object medir(String metrica, String classe, ProceedingJoinPoint chamada) throws Throwable {
+        Timer.Sample amostra = Timer.start(registry);
+        String resultado = "sucesso";
+        try {
+            return chamada.proceed();
+        }catch (Throwable e){
+            resultado = resultado(e);
+            throw e;
+        }finally {
+            amostra.stop(Timer.builder(metrica)
+                    .tag("classe", classe)
+                    .tag("operacao", chamada.getSignature().getName())
+                    .tag("resultado", resultado)
+                    .register(registry));
+        }
+    }
+
+    //soAsExcecoesDeNegocioViramTagAsOutrasFicamJuntasParaNaoExplodirACardinalidade
+    private static String resultado(Throwable e){
+        if(e instanceof RegraNegocioException || e instanceof ErroAutenticacao){
+            return e.getClass().getSimpleName();
+        }
+        return "erro";
+    }
+}
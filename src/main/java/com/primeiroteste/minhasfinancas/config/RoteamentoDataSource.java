@@ -0,0 +1,82 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+//transacaoReadOnlyVaiPraUmaReplicaEmRodizioOResto(eQuemEscreveuHaPouco)VaiProPrimario
+//oLazyConnectionSoPegaAConexaoNoPrimeiroStatementQuandoOReadOnlyDaTransacaoJaFoiMarcado
+@Slf4j
+public class RoteamentoDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private final HikariDataSource primario;
+    private final List<HikariDataSource> replicas;
+    private final long quarentenaMilis;
+    private final AtomicLongArray foraAte;
+    private final AtomicInteger proxima = new AtomicInteger();
+
+    public RoteamentoDataSource(HikariDataSource primario, List<HikariDataSource> replicas, Duration quarentena){
+        this.primario = primario;
+        this.replicas = replicas;
+        this.quarentenaMilis = quarentena.toMillis();
+        this.foraAte = new AtomicLongArray(replicas.size());
+        setTargetDataSource(new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return conectar();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return conectar();
+            }
+        });
+        afterPropertiesSet();
+    }
+
+    private Connection conectar() throws SQLException {
+        if(!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || LeituraAposEscrita.noPrimario()){
+            return primario.getConnection();
+        }
+        for (int tentativa = 0; tentativa < replicas.size(); tentativa++) {
+            int indice = Math.floorMod(proxima.getAndIncrement(), replicas.size());
+            if(foraAte.get(indice) > System.currentTimeMillis()){
+                continue;
+            }
+            HikariDataSource replica = replicas.get(indice);
+            try {
+                return replica.getConnection();
+            }catch (SQLException | RuntimeException e){ //oHikariLancaPoolInitializationExceptionSeNaoSobeOPool
+                foraAte.set(indice, System.currentTimeMillis() + quarentenaMilis);
+                log.warn("Replica {} fora do rodizio por {}ms: {}", replica.getPoolName(), quarentenaMilis, e.getMessage());
+            }
+        }
+        return primario.getConnection(); //nenhumaReplicaDisponivelLeDoPrimario
+    }
+
+    //osHikaricpSaemComOPoolNameDeCadaUmPrimarioReplica1Replica2
+    void registrarMetricas(MeterRegistry registro){
+        Stream.concat(Stream.of(primario), replicas.stream())
+                .filter(pool -> pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null)
+                .forEach(pool -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registro)));
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primario.close();
+    }
+}
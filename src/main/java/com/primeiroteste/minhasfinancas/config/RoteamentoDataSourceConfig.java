@@ -0,0 +1,60 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+//soEntraSeHouverReplicaConfiguradaSemElasFicaODataSourceUnicoDoSpring
+//asReplicasUsamOMesmoUsuarioSenhaEPoolDoSpringDatasourceMudaSoAUrl
+@Configuration
+@ConditionalOnProperty(name = "minhasfinancas.datasource.replicas")
+public class RoteamentoDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties propriedades, Environment ambiente,
+                                 @Value("${minhasfinancas.datasource.replicas}") List<String> urlsReplicas,
+                                 @Value("${minhasfinancas.datasource.replica-quarentena:30s}") Duration quarentena){
+        HikariDataSource primario = pool(propriedades, ambiente, "primario", propriedades.determineUrl());
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < urlsReplicas.size(); i++) {
+            replicas.add(pool(propriedades, ambiente, "replica-" + (i + 1), urlsReplicas.get(i).trim()));
+        }
+        return new RoteamentoDataSource(primario, replicas, quarentena);
+    }
+
+    //oActuatorSoRegistraOsHikaricpDeHikariQueEhBeanEstesPoolsFicamDentroDoRoteamentoEntaoSaoLigadosAqui
+    //oDataSourceVemPeloProviderNaHoraDoBindSenaoORegistroEODataSourceDependemUmDoOutroNaCriacao
+    @Bean
+    public MeterBinder metricasPoolsRoteamento(ObjectProvider<DataSource> dataSource){
+        return registro -> dataSource.ifAvailable(banco -> {
+            try {
+                if(banco.isWrapperFor(RoteamentoDataSource.class)){ //oContadorDeConsultasEmbrulhaOBean
+                    banco.unwrap(RoteamentoDataSource.class).registrarMetricas(registro);
+                }
+            }catch (SQLException e){
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private HikariDataSource pool(DataSourceProperties propriedades, Environment ambiente, String nome, String url){
+        HikariDataSource pool = propriedades.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        Binder.get(ambiente).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(nome);
+        return pool;
+    }
+}
@@ -0,0 +1,35 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//cadaRequisicaoRodaNumaThreadVirtualQuemLimitaQuantasVaoAoBancoAoMesmoTempoEOPoolDoHikari
+@Configuration
+@ConditionalOnProperty(name = "minhasfinancas.threads-virtuais", havingValue = "true")
+public class ThreadsVirtuaisConfig implements WebMvcConfigurer {
+
+    //comoBeanOSpringFechaOExecutorNoShutdownEsperandoAsTarefasQueAindaEstaoRodando
+    @Bean(destroyMethod = "close")
+    public ExecutorService threadsVirtuais(){
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> threadsVirtuaisTomcat(ExecutorService threadsVirtuais){
+        return protocolHandler -> protocolHandler.setExecutor(threadsVirtuais);
+    }
+
+    //oExportEmStreamTambemEscreveNumaThreadVirtual
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(threadsVirtuais()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import com.primeiroteste.minhasfinancas.api.filter.TokenFilter;
+import com.primeiroteste.minhasfinancas.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class TokenConfig {
+
+    @Bean
+    public FilterRegistrationBean<TokenFilter> tokenFilter(TokenService tokenService,
+                                                           @Value("${minhasfinancas.token.obrigatorio:true}") boolean obrigatorio){
+        FilterRegistrationBean<TokenFilter> registro = new FilterRegistrationBean<>(new TokenFilter(tokenService, obrigatorio));
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
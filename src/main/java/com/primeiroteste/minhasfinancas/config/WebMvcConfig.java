@@ -0,0 +1,36 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+//foraDaClasseDaAplicacaoParaOsTestesDeFatiaComoODataJpaTestNaoSubiremOMvc
+@Configuration
+@EnableWebMvc
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final Duration tempoRequisicaoAssincrona;
+
+    public WebMvcConfig(@Value("${minhasfinancas.mvc.tempo-requisicao-assincrona:30m}") Duration tempoRequisicaoAssincrona){
+        this.tempoRequisicaoAssincrona = tempoRequisicaoAssincrona;
+    }
+
+    @Override
+    public void addCorsMappings(CorsRegistry registry){
+        registry.addMapping("/**").allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+                .exposedHeaders(HttpHeaders.ETAG); //oFrontPrecisaLerAVersaoParaMandarNoIfMatch
+    }
+
+    //comEnableWebMvcOSpringMvcAsyncRequestTimeoutNaoValeEOExportEmStreamCairiaNoTimeoutPadraoDoTomcat
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer){
+        configurer.setDefaultTimeout(tempoRequisicaoAssincrona.toMillis());
+        configurer.registerCallableInterceptors(new ContadorConsultasAssincrono());
+    }
+}
@@ -0,0 +1,37 @@
+package com.primeiroteste.minhasfinancas.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotencia", schema = "financas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Idempotencia {
+
+    @Id
+    @Column(name = "chave")
+    private String chave;
+
+    @Column(name = "status")
+    private Integer status; //nuloEnquantoARequisicaoQueReservouAChaveNaoTerminou
+
+    @Column(name = "hash_requisicao")
+    private String hashRequisicao;
+
+    @Column(name = "tipo_conteudo")
+    private String tipoConteudo;
+
+    @Column(name = "corpo")
+    private String corpo;
+
+    @Column(name = "data_criacao")
+    private LocalDateTime dataCriacao;
+}
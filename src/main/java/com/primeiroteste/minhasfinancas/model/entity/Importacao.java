@@ -0,0 +1,52 @@
+package com.primeiroteste.minhasfinancas.model.entity;
+
+import com.primeiroteste.minhasfinancas.model.enums.StatusImportacao;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "importacao", schema = "financas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Importacao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "formato")
+    private String formato;
+
+    @Column(name = "status")
+    @Enumerated(value = EnumType.STRING)
+    private StatusImportacao status;
+
+    @Column(name = "linhas_processadas")
+    private Long linhasProcessadas;
+
+    @Column(name = "linhas_importadas")
+    private Long linhasImportadas;
+
+    @Column(name = "linhas_com_erro")
+    private Long linhasComErro;
+
+    @Column(name = "mensagem")
+    private String mensagem;
+
+    @Column(name = "data_inicio")
+    private LocalDateTime dataInicio;
+
+    @Column(name = "data_atualizacao")
+    private LocalDateTime dataAtualizacao;
+}
@@ -6,14 +6,20 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
 
 
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "lancamento", schema = "financas")
+//oDeleteSoMarcaALinhaQuemApagaDeVerdadeEOExpurgoForaDoHorarioDePico
+@SQLDelete(sql = "update financas.lancamento set deleted_at = current_timestamp, versao = versao + 1 where id = ? and versao = ?")
+@Where(clause = "deleted_at is null")
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,7 +27,8 @@ import java.time.LocalDate;
 public class Lancamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "lancamento_seq")
+    @SequenceGenerator(name = "lancamento_seq", sequenceName = "financas.lancamento_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -34,7 +41,7 @@ public class Lancamento {
     @Column(name="ano")
     private Integer ano;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="id_usuario")
     private Usuario usuario;
 
@@ -51,4 +58,17 @@ public class Lancamento {
     @Column(name="status")
     @Enumerated(value = EnumType.STRING)
     private StatusLancamento statusLancamento;
+
+    @Version
+    @Column(name="versao", nullable = false)
+    private Long versao;
+
+    @Column(name="deleted_at")
+    private LocalDateTime deletadoEm;
+
+    @Column(name="id_serie")
+    private String idSerie;
+
+    @Column(name="parcela")
+    private Integer parcela;
 }
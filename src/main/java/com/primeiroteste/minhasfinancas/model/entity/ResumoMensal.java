@@ -0,0 +1,27 @@
+package com.primeiroteste.minhasfinancas.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "lancamento_resumo_mensal", schema = "financas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumoMensal {
+
+    @EmbeddedId
+    private ChaveResumoMensal chave;
+
+    @Column(name = "valor_total")
+    private BigDecimal valorTotal;
+
+    @Column(name = "quantidade")
+    private Long quantidade;
+}
@@ -0,0 +1,32 @@
+package com.primeiroteste.minhasfinancas.model.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "saldo_usuario", schema = "financas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SaldoUsuario {
+
+    @Id
+    @Column(name = "id_usuario")
+    private Long idUsuario;
+
+    @Column(name = "total_receitas")
+    private BigDecimal totalReceitas;
+
+    @Column(name = "total_despesas")
+    private BigDecimal totalDespesas;
+
+    public BigDecimal getSaldo(){
+        return totalReceitas.subtract(totalDespesas);
+    }
+}
@@ -8,7 +8,8 @@ import lombok.NoArgsConstructor;
 import javax.persistence.*;
 
 @Entity
-@Table( name = "usuario", schema = "financas")
+@Table( name = "usuario", schema = "financas",
+        uniqueConstraints = @UniqueConstraint(name = "uk_usuario_email", columnNames = "email"))
 @Data
 @Builder
 @NoArgsConstructor
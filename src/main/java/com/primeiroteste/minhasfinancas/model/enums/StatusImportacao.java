@@ -0,0 +1,8 @@
+package com.primeiroteste.minhasfinancas.model.enums;
+
+public enum StatusImportacao {
+
+    EM_ANDAMENTO,
+    CONCLUIDA,
+    FALHOU
+}
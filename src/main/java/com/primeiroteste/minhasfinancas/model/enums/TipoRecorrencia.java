@@ -0,0 +1,7 @@
+package com.primeiroteste.minhasfinancas.model.enums;
+
+public enum TipoRecorrencia {
+
+    RECORRENTE, //todoMesOMesmoValor
+    PARCELADO //oValorInformadoEOTotalDivididoEntreAsParcelas
+}
@@ -0,0 +1,41 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+@Data
+@AllArgsConstructor
+public class CursorLancamento {
+
+    private Integer ano;
+    private Integer mes;
+    private Long id;
+
+    public static CursorLancamento de(Lancamento lancamento){
+        return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+
+    public static CursorLancamento de(LancamentoDto lancamento){
+        return new CursorLancamento(lancamento.getAno(), lancamento.getMes(), lancamento.getId());
+    }
+
+    public String toToken(){
+        String valor = ano + ":" + mes + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorLancamento doToken(String token){
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":");
+            return new CursorLancamento(Integer.valueOf(partes[0]), Integer.valueOf(partes[1]), Long.valueOf(partes[2]));
+        }catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e){
+            throw new RegraNegocioException("Cursor de paginação inválido!");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import com.primeiroteste.minhasfinancas.model.entity.Idempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotenciaRepository extends JpaRepository<Idempotencia, String> {
+
+    //aChavePrimariaDecideQuemReservaPrimeiroQuemChegaDepoisNaoInsereNadaERecebeZero
+    @Transactional
+    @Modifying
+    @Query(value = "insert into financas.idempotencia (chave, hash_requisicao, data_criacao) " +
+            "values (:chave, :hash, :agora) on conflict do nothing", nativeQuery = true)
+    int reservar(@Param("chave") String chave, @Param("hash") String hash, @Param("agora") LocalDateTime agora);
+
+    //reservaParadaHaMaisTempoQueAEsperaEDeUmaInstanciaQueCaiuERespostaVencidaNaoValeMais
+    @Transactional
+    @Modifying
+    @Query("update Idempotencia i set i.hashRequisicao = :hash, i.dataCriacao = :agora, i.status = null, " +
+            "i.tipoConteudo = null, i.corpo = null where i.chave = :chave " +
+            "and ((i.status is null and i.dataCriacao < :abandonada) or i.dataCriacao < :vencida)")
+    int assumir(@Param("chave") String chave, @Param("hash") String hash, @Param("agora") LocalDateTime agora,
+                @Param("abandonada") LocalDateTime abandonada, @Param("vencida") LocalDateTime vencida);
+
+    //semReadOnlyParaLerDoPrimarioOndeAReservaFoiFeita
+    @Transactional
+    @Query("select i from Idempotencia i where i.chave = :chave")
+    Optional<Idempotencia> obterNoPrimario(@Param("chave") String chave);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Idempotencia i where i.chave = :chave and i.status is null")
+    int liberar(@Param("chave") String chave);
+
+    @Modifying
+    @Query("delete from Idempotencia i where i.dataCriacao < :limite")
+    int expurgar(@Param("limite") LocalDateTime limite);
+}
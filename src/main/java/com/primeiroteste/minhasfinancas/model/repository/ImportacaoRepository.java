@@ -0,0 +1,21 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import com.primeiroteste.minhasfinancas.model.entity.Importacao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface ImportacaoRepository extends JpaRepository<Importacao, Long> {
+
+    //soPassaSeNinguemEstaProcessandoOuSeQuemEstavaParouDeGravarBlocosHaMaisDoQueOLimite
+    @Modifying(clearAutomatically = true)
+    @Query("update Importacao i set i.status = com.primeiroteste.minhasfinancas.model.enums.StatusImportacao.EM_ANDAMENTO, " +
+            "i.mensagem = null, i.dataAtualizacao = :agora where i.id = :id " +
+            "and i.status <> com.primeiroteste.minhasfinancas.model.enums.StatusImportacao.CONCLUIDA " +
+            "and (i.status <> com.primeiroteste.minhasfinancas.model.enums.StatusImportacao.EM_ANDAMENTO " +
+            "or i.dataAtualizacao < :abandonada)")
+    int assumir(@Param("id") Long id, @Param("agora") LocalDateTime agora, @Param("abandonada") LocalDateTime abandonada);
+}
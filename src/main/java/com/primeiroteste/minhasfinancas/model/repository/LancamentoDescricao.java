@@ -0,0 +1,8 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+public interface LancamentoDescricao {
+
+    Long getId();
+
+    String getDescricao();
+}
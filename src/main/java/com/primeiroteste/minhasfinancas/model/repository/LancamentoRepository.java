@@ -3,16 +3,50 @@ package com.primeiroteste.minhasfinancas.model.repository;
 import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
 import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface LancamentoRepository extends JpaRepository<Lancamento, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+public interface LancamentoRepository extends JpaRepository<Lancamento, Long>, LancamentoRepositoryCustom {
+
+    //asConsultasDeSaldoUsamFlushModeCommitParaLerOQueEstaNoBancoENaoOQueFoiAlteradoNaSessao
 
     @Query(value = "select sum(l.valor) from Lancamento l join l.usuario u " +
             "where u.id =:idUsuario and l.tipoLancamento =:tipo GROUP BY u")
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
     BigDecimal obterSaldoPorTipoLancamentoEUsuario(
             @Param("idUsuario") Long idUsuario,
             @Param("tipo")TipoLancamento tipoLancamento);
+
+    @Query(value = "select l.usuario.id as idUsuario, l.tipoLancamento as tipoLancamento, l.valor as valor, " +
+            "l.ano as ano, l.mes as mes, l.statusLancamento as statusLancamento from Lancamento l where l.id =:id")
+    @QueryHints(@QueryHint(name = "org.hibernate.flushMode", value = "COMMIT"))
+    Optional<LancamentoValor> obterValorPersistido(@Param("id") Long id);
+
+    @Query(value = "select l.id as id, l.descricao as descricao from Lancamento l where l.usuario.id =:idUsuario")
+    List<LancamentoDescricao> listarDescricoesPorUsuario(@Param("idUsuario") Long idUsuario);
+
+    @Query(value = "select l from Lancamento l where l.usuario.id =:idUsuario order by l.ano, l.mes, l.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<Lancamento> streamPorUsuario(@Param("idUsuario") Long idUsuario);
+
+    //nativasPorqueOWhereDaEntidadeEscondeOsExcluidosDoJpql
+    @Query(value = "select id from financas.lancamento where deleted_at < :limite order by id limit :tamanho",
+            nativeQuery = true)
+    List<Long> listarIdsExcluidosAntesDe(@Param("limite") LocalDateTime limite, @Param("tamanho") int tamanho);
+
+    @Modifying
+    @Query(value = "delete from financas.lancamento where id in (:ids) and deleted_at is not null", nativeQuery = true)
+    int expurgar(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,32 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface LancamentoRepositoryCustom {
+
+    List<LancamentoDto> buscarPagina(Lancamento filtro, CursorLancamento cursor, int tamanho);
+
+    List<LancamentoDto> buscarPagina(Lancamento filtro, Collection<Long> ids, CursorLancamento cursor, int tamanho);
+
+    List<Long> travar(Lancamento filtro, Collection<Long> ids);
+
+    long contarPorStatus(Lancamento filtro, Collection<Long> ids, Collection<StatusLancamento> status);
+
+    List<ResumoMensal> resumir(Lancamento filtro, Collection<Long> ids, StatusLancamento excetoStatus);
+
+    int atualizarStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento status);
+
+    int atualizarSerie(Lancamento filtro, Lancamento alteracao);
+
+    List<Long> listarIds(Lancamento filtro);
+
+    int atualizarStatusNaVersao(Long id, Long versao, Long idUsuario, StatusLancamento status);
+
+    void desanexar(Lancamento lancamento);
+}
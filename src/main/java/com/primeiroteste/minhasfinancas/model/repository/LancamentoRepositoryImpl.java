@@ -0,0 +1,241 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.model.entity.ChaveResumoMensal;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class LancamentoRepositoryImpl implements LancamentoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<LancamentoDto> buscarPagina(Lancamento filtro, CursorLancamento cursor, int tamanho) {
+        return buscarPagina(filtro, null, cursor, tamanho);
+    }
+
+    @Override
+    public List<LancamentoDto> buscarPagina(Lancamento filtro, Collection<Long> ids, CursorLancamento cursor, int tamanho) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LancamentoDto> query = cb.createQuery(LancamentoDto.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        List<Predicate> filtros = new ArrayList<>();
+        filtros.add(cb.equal(root.get("usuario").get("id"), filtro.getUsuario().getId()));
+        if(filtro.getAno() != null){
+            filtros.add(cb.equal(root.get("ano"), filtro.getAno()));
+        }
+        if(filtro.getMes() != null){
+            filtros.add(cb.equal(root.get("mes"), filtro.getMes()));
+        }
+        if(ids != null){
+            filtros.add(root.get("id").in(ids));
+        }
+        if(filtro.getDescricao() != null){
+            filtros.add(cb.like(cb.lower(root.get("descricao")), PadraoLike.contendo(filtro.getDescricao()), PadraoLike.ESCAPE));
+        }
+        if(cursor != null){
+            //continuaDepoisDoUltimoRegistroDaPaginaAnteriorSemUsarOffset
+            //oAnoMaiorOuIgualForaDoOrViraFaixaNoIndiceOOrSozinhoNaoLimitaALeitura
+            filtros.add(cb.greaterThanOrEqualTo(root.get("ano"), cursor.getAno()));
+            filtros.add(cb.or(
+                    cb.greaterThan(root.get("ano"), cursor.getAno()),
+                    cb.and(cb.equal(root.get("ano"), cursor.getAno()), cb.greaterThan(root.get("mes"), cursor.getMes())),
+                    cb.and(cb.equal(root.get("ano"), cursor.getAno()), cb.equal(root.get("mes"), cursor.getMes()),
+                            cb.greaterThan(root.get("id"), cursor.getId()))));
+        }
+
+        //soAsColunasDoLancamentoEOIdDoUsuarioQueJaEstaNaPropriaTabelaSemJoin
+        query.select(cb.construct(LancamentoDto.class,
+                        root.get("id"), root.get("descricao"), root.get("mes"), root.get("ano"), root.get("valor"),
+                        root.get("usuario").get("id"), root.get("tipoLancamento"), root.get("statusLancamento"),
+                        root.get("versao")))
+                .where(filtros.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("ano")), cb.asc(root.get("mes")), cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(tamanho)
+                .getResultList();
+    }
+
+    //selectForUpdateNasLinhasDoFiltroNaOrdemDoIdParaDuasAtualizacoesEmMassaNaoSeTravaremUmaEsperandoAOutra
+    @Override
+    public List<Long> travar(Lancamento filtro, Collection<Long> ids) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        query.select(root.get("id"))
+                .where(filtrosDeStatus(cb, root, filtro, ids).toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+    }
+
+    @Override
+    public long contarPorStatus(Lancamento filtro, Collection<Long> ids, Collection<StatusLancamento> status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        List<Predicate> filtros = filtrosDeStatus(cb, root, filtro, ids);
+        filtros.add(root.get("statusLancamento").in(status));
+        query.select(cb.count(root)).where(filtros.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    //oQueUmUpdateEmMassaVaiMudarAgrupadoPelaChaveDoResumoMensalSemTrazerAsLinhas
+    @Override
+    public List<ResumoMensal> resumir(Lancamento filtro, Collection<Long> ids, StatusLancamento excetoStatus) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        List<Predicate> filtros = filtrosDeStatus(cb, root, filtro, ids);
+        if(excetoStatus != null){
+            filtros.add(cb.notEqual(root.get("statusLancamento"), excetoStatus));
+        }
+        Path<Long> idUsuario = root.get("usuario").get("id");
+        Path<Integer> ano = root.get("ano");
+        Path<Integer> mes = root.get("mes");
+        Path<TipoLancamento> tipo = root.get("tipoLancamento");
+        Path<StatusLancamento> statusAtual = root.get("statusLancamento");
+        Expression<BigDecimal> valor = cb.sum(root.<BigDecimal>get("valor"));
+        Expression<Long> quantidade = cb.count(root);
+        query.multiselect(idUsuario, ano, mes, tipo, statusAtual, valor, quantidade)
+                .where(filtros.toArray(new Predicate[0]))
+                .groupBy(idUsuario, ano, mes, tipo, statusAtual);
+
+        List<ResumoMensal> resumos = new ArrayList<>();
+        for (Tuple linha : entityManager.createQuery(query).getResultList()) {
+            resumos.add(ResumoMensal.builder()
+                    .chave(new ChaveResumoMensal(linha.get(idUsuario), linha.get(ano), linha.get(mes),
+                            linha.get(tipo), linha.get(statusAtual)))
+                    .valorTotal(linha.get(valor))
+                    .quantidade(linha.get(quantidade))
+                    .build());
+        }
+        return resumos;
+    }
+
+    //umUnicoUpdateNoBancoSemCarregarNemReescreverAsOutrasColunasDosLancamentos
+    @Override
+    public int atualizarStatus(Lancamento filtro, Collection<Long> ids, StatusLancamento status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+        Root<Lancamento> root = update.from(Lancamento.class);
+
+        List<Predicate> filtros = filtrosDeStatus(cb, root, filtro, ids);
+        filtros.add(cb.notEqual(root.get("statusLancamento"), status)); //quemJaEstaNoStatusNaoContaComoAlterado
+        update.set(root.<StatusLancamento>get("statusLancamento"), status)
+                .set(root.<Long>get("versao"), cb.sum(root.<Long>get("versao"), 1L)) //oUpdateEmMassaNaoPassaPeloVersionDoHibernate
+                .where(filtros.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    //soAsColunasInformadasNaAlteracaoMudamNasLinhasDoFiltroNumUnicoUpdate
+    @Override
+    public int atualizarSerie(Lancamento filtro, Lancamento alteracao) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+        Root<Lancamento> root = update.from(Lancamento.class);
+
+        if(alteracao.getDescricao() != null){
+            update.set(root.<String>get("descricao"), alteracao.getDescricao());
+        }
+        if(alteracao.getValor() != null){
+            update.set(root.<BigDecimal>get("valor"), alteracao.getValor());
+        }
+        if(alteracao.getTipoLancamento() != null){
+            update.set(root.<TipoLancamento>get("tipoLancamento"), alteracao.getTipoLancamento());
+        }
+        update.set(root.<Long>get("versao"), cb.sum(root.<Long>get("versao"), 1L))
+                .where(filtrosDeStatus(cb, root, filtro, null).toArray(new Predicate[0]));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public List<Long> listarIds(Lancamento filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Lancamento> root = query.from(Lancamento.class);
+
+        query.select(root.get("id")).where(filtrosDeStatus(cb, root, filtro, null).toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    //soMudaSeAVersaoAindaForAQueOClienteViuSemLerOLancamentoAntes
+    @Override
+    public int atualizarStatusNaVersao(Long id, Long versao, Long idUsuario, StatusLancamento status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Lancamento> update = cb.createCriteriaUpdate(Lancamento.class);
+        Root<Lancamento> root = update.from(Lancamento.class);
+
+        List<Predicate> filtros = new ArrayList<>();
+        filtros.add(cb.equal(root.get("id"), id));
+        filtros.add(cb.isNull(root.get("deletadoEm"))); //oWhereDaEntidadeNaoEntraNoUpdateEmMassa
+        filtros.add(cb.equal(root.get("versao"), versao));
+        if(idUsuario != null){
+            filtros.add(cb.equal(root.get("usuario").get("id"), idUsuario));
+        }
+        update.set(root.<StatusLancamento>get("statusLancamento"), status)
+                .set(root.<Long>get("versao"), cb.sum(root.<Long>get("versao"), 1L))
+                .where(filtros.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public void desanexar(Lancamento lancamento) {
+        entityManager.detach(lancamento);
+    }
+
+    private List<Predicate> filtrosDeStatus(CriteriaBuilder cb, Root<Lancamento> root, Lancamento filtro, Collection<Long> ids){
+        List<Predicate> filtros = new ArrayList<>();
+        filtros.add(cb.isNull(root.get("deletadoEm")));
+        if(filtro.getUsuario() != null){
+            filtros.add(cb.equal(root.get("usuario").get("id"), filtro.getUsuario().getId()));
+        }
+        if(ids != null && !ids.isEmpty()){
+            filtros.add(root.get("id").in(ids));
+        }
+        if(filtro.getIdSerie() != null){
+            filtros.add(cb.equal(root.get("idSerie"), filtro.getIdSerie()));
+        }
+        if(filtro.getAno() != null){
+            filtros.add(cb.equal(root.get("ano"), filtro.getAno()));
+        }
+        if(filtro.getMes() != null){
+            filtros.add(cb.equal(root.get("mes"), filtro.getMes()));
+        }
+        if(filtro.getStatusLancamento() != null){
+            filtros.add(cb.equal(root.get("statusLancamento"), filtro.getStatusLancamento()));
+        }
+        return filtros;
+    }
+}
@@ -0,0 +1,21 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface LancamentoValor {
+
+    Long getIdUsuario();
+
+    TipoLancamento getTipoLancamento();
+
+    BigDecimal getValor();
+
+    Integer getAno();
+
+    Integer getMes();
+
+    StatusLancamento getStatusLancamento();
+}
@@ -0,0 +1,22 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+//oQueOUsuarioDigitaNaDescricaoEhTextoLiteralSemEscapeUm%OuUm_ViravaCoringaEBuscavaTudo
+//mesmoPadraoNoRepositorioJpaENoReativo
+public final class PadraoLike {
+
+    public static final char ESCAPE = '\\';
+
+    private PadraoLike(){
+    }
+
+    public static String contendo(String texto){
+        StringBuilder padrao = new StringBuilder(texto.length() + 2).append('%');
+        for (char caractere : texto.toLowerCase().toCharArray()) {
+            if(caractere == ESCAPE || caractere == '%' || caractere == '_'){
+                padrao.append(ESCAPE);
+            }
+            padrao.append(caractere);
+        }
+        return padrao.append('%').toString();
+    }
+}
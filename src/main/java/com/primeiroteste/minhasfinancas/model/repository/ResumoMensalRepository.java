@@ -0,0 +1,38 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import com.primeiroteste.minhasfinancas.model.entity.ChaveResumoMensal;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ResumoMensalRepository extends JpaRepository<ResumoMensal, ChaveResumoMensal> {
+
+    @Modifying
+    @Query(value = "update ResumoMensal r set r.valorTotal = r.valorTotal + :valor, r.quantidade = r.quantidade + :quantidade " +
+            "where r.chave.idUsuario = :#{#chave.idUsuario} and r.chave.ano = :#{#chave.ano} and r.chave.mes = :#{#chave.mes} " +
+            "and r.chave.tipoLancamento = :#{#chave.tipoLancamento} and r.chave.statusLancamento = :#{#chave.statusLancamento}")
+    int somarValores(
+            @Param("chave") ChaveResumoMensal chave,
+            @Param("valor") BigDecimal valor,
+            @Param("quantidade") Long quantidade);
+
+    //quemPerdeACorridaDoPrimeiroInsertRecebeZeroESomaNaLinhaQueOOutroCriou
+    @Modifying
+    @Query(value = "insert into financas.lancamento_resumo_mensal (id_usuario, ano, mes, tipo, status, valor_total, quantidade) " +
+            "values (:#{#chave.idUsuario}, :#{#chave.ano}, :#{#chave.mes}, :#{#chave.tipoLancamento.name()}, " +
+            ":#{#chave.statusLancamento.name()}, :valor, :quantidade) on conflict do nothing", nativeQuery = true)
+    int inserir(
+            @Param("chave") ChaveResumoMensal chave,
+            @Param("valor") BigDecimal valor,
+            @Param("quantidade") Long quantidade);
+
+    //prefixoDaChavePrimariaUmaLeituraSoPeloIndiceParaOAnoInteiro
+    @Query(value = "select r from ResumoMensal r where r.chave.idUsuario =:idUsuario and r.chave.ano =:ano " +
+            "and r.quantidade > 0 order by r.chave.mes, r.chave.tipoLancamento, r.chave.statusLancamento")
+    List<ResumoMensal> obterPorAno(@Param("idUsuario") Long idUsuario, @Param("ano") Integer ano);
+}
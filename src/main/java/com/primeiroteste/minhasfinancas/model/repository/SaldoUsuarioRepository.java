@@ -0,0 +1,36 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import com.primeiroteste.minhasfinancas.model.entity.SaldoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.Optional;
+
+public interface SaldoUsuarioRepository extends JpaRepository<SaldoUsuario, Long> {
+
+    @Modifying
+    @Query(value = "update SaldoUsuario s set s.totalReceitas = s.totalReceitas + :receitas, " +
+            "s.totalDespesas = s.totalDespesas + :despesas where s.idUsuario =:idUsuario")
+    int somarValores(
+            @Param("idUsuario") Long idUsuario,
+            @Param("receitas") BigDecimal receitas,
+            @Param("despesas") BigDecimal despesas);
+
+    //quemPerdeACorridaDoPrimeiroInsertRecebeZeroESomaNaLinhaQueOOutroCriou
+    @Modifying
+    @Query(value = "insert into financas.saldo_usuario (id_usuario, total_receitas, total_despesas) " +
+            "values (:idUsuario, :receitas, :despesas) on conflict do nothing", nativeQuery = true)
+    int inserir(
+            @Param("idUsuario") Long idUsuario,
+            @Param("receitas") BigDecimal receitas,
+            @Param("despesas") BigDecimal despesas);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "select s from SaldoUsuario s where s.idUsuario =:idUsuario")
+    Optional<SaldoUsuario> travar(@Param("idUsuario") Long idUsuario);
+}
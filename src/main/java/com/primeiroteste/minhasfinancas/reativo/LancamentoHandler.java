@@ -0,0 +1,153 @@
+package com.primeiroteste.minhasfinancas.reativo;
+
+import com.primeiroteste.minhasfinancas.api.dto.AtualizaStatusDto;
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.api.filter.TokenFilter;
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.function.Function;
+
+//mesmasRotasMensagensEStatusDoLancamentoResource
+public class LancamentoHandler {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final String SEM_PERMISSAO = "Lançamento não pertence ao usuário autenticado!";
+
+    private final LancamentoServiceReativo service;
+
+    public LancamentoHandler(LancamentoServiceReativo service){
+        this.service = service;
+    }
+
+    public Mono<ServerResponse> salvar(ServerRequest request){
+        Long idAutenticado = idAutenticado(request);
+        return request.bodyToMono(LancamentoDto.class)
+                .flatMap(dto -> {
+                    if(semPermissao(dto.getUsuario(), idAutenticado)){
+                        return proibido();
+                    }
+                    return service.salvar(converter(dto, idAutenticado))
+                            .flatMap(lancamento -> ServerResponse.created(URI.create("/api/lancamentos/" + lancamento.getId()))
+                                    .bodyValue(converterParaDto(lancamento)));
+                })
+                .onErrorResume(RegraNegocioException.class, e -> ServerResponse.badRequest().bodyValue(e.getMessage()))
+                .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest().bodyValue(e.getMessage()));
+    }
+
+    //emNdjsonCadaLinhaSaiAssimQueLidaEODemandaDoClienteControlaQuantasLinhasOBancoEntrega
+    public Mono<ServerResponse> buscar(ServerRequest request){
+        Long idAutenticado = idAutenticado(request);
+        Optional<Long> idInformado = request.queryParam("usuario").map(Long::valueOf);
+        if(semPermissao(idInformado.orElse(null), idAutenticado)){
+            return proibido();
+        }
+        Optional<Long> idUsuario = idAutenticado != null ? Optional.of(idAutenticado) : idInformado;
+        if(!idUsuario.isPresent()){
+            return ServerResponse.badRequest().bodyValue("Usuário não encontrado!");
+        }
+        Lancamento lancamentoFiltro = new Lancamento();
+        lancamentoFiltro.setDescricao(request.queryParam("descricao").orElse(null));
+        lancamentoFiltro.setMes(request.queryParam("mes").map(Integer::valueOf).orElse(null));
+        lancamentoFiltro.setAno(request.queryParam("ano").map(Integer::valueOf).orElse(null));
+        lancamentoFiltro.setUsuario(Usuario.builder().id(idUsuario.get()).build());
+
+        MediaType tipo = request.headers().accept().contains(NDJSON) ? NDJSON : MediaType.APPLICATION_JSON;
+        return service.existeUsuario(idUsuario.get()).flatMap(existe -> {
+            if(!existe){
+                return ServerResponse.badRequest().bodyValue("Usuário não encontrado!");
+            }
+            return ServerResponse.ok().contentType(tipo).body(service.buscar(lancamentoFiltro), LancamentoDto.class);
+        });
+    }
+
+    public Mono<ServerResponse> atualizarStatus(ServerRequest request){
+        Long id = Long.valueOf(request.pathVariable("id"));
+        return comPermissao(request, id, "Lançamento nao encontrado na base de dados", lancamento ->
+                request.bodyToMono(AtualizaStatusDto.class)
+                        .flatMap(dto -> dto.getStatus() == null ? Mono.error(new IllegalArgumentException())
+                                : Mono.just(StatusLancamento.valueOf(dto.getStatus())))
+                        .flatMap(status -> service.atualizarStatus(id, status))
+                        .flatMap(atualizado -> ServerResponse.ok().bodyValue(converterParaDto(atualizado)))
+                        .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().bodyValue("Lançamento nao encontrado na base de dados")))
+                        .onErrorResume(RegraNegocioException.class, e -> ServerResponse.badRequest().bodyValue(e.getMessage()))
+                        .onErrorResume(IllegalArgumentException.class, e -> ServerResponse.badRequest()
+                                .bodyValue("Não foi possível atualizar o status do lançamento, envie um status válido!")));
+    }
+
+    public Mono<ServerResponse> deletar(ServerRequest request){
+        Long id = Long.valueOf(request.pathVariable("id"));
+        return comPermissao(request, id, "Lançamento não encontrado na base de dados!", lancamento -> service.deletar(id)
+                .flatMap(deletado -> ServerResponse.noContent().build())
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().bodyValue("Lançamento não encontrado na base de dados!"))));
+    }
+
+    public Mono<ServerResponse> obterSaldo(ServerRequest request){
+        Long id = Long.valueOf(request.pathVariable("id"));
+        Long idAutenticado = idAutenticado(request);
+        if(idAutenticado != null && !idAutenticado.equals(id)){
+            return ServerResponse.status(HttpStatus.FORBIDDEN).build();
+        }
+        return service.existeUsuario(id).flatMap(existe -> {
+            if(!existe){
+                return ServerResponse.status(HttpStatus.NOT_FOUND).build();
+            }
+            return service.obterSaldoPorUsuario(id).flatMap(saldo -> ServerResponse.ok().bodyValue(saldo));
+        });
+    }
+
+    //mesmaOrdemDoLancamentoResourceLeODonoAntesDeMexerNoLancamento
+    private Mono<ServerResponse> comPermissao(ServerRequest request, Long id, String naoEncontrado,
+                                              Function<Lancamento, Mono<ServerResponse>> acao){
+        Long idAutenticado = idAutenticado(request);
+        return service.obterPorId(id)
+                .flatMap(lancamento -> semPermissao(lancamento.getUsuario().getId(), idAutenticado) ? proibido()
+                        : acao.apply(lancamento))
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.badRequest().bodyValue(naoEncontrado)));
+    }
+
+    private Long idAutenticado(ServerRequest request){
+        return (Long) request.attribute(TokenFilter.USUARIO_AUTENTICADO).orElse(null);
+    }
+
+    private boolean semPermissao(Long idInformado, Long idAutenticado){
+        return idAutenticado != null && idInformado != null && !idInformado.equals(idAutenticado);
+    }
+
+    private Mono<ServerResponse> proibido(){
+        return ServerResponse.status(HttpStatus.FORBIDDEN).bodyValue(SEM_PERMISSAO);
+    }
+
+    private Lancamento converter(LancamentoDto dto, Long idAutenticado){
+        Lancamento lancamento = new Lancamento();
+        lancamento.setDescricao(dto.getDescricao());
+        lancamento.setAno(dto.getAno());
+        lancamento.setMes(dto.getMes());
+        lancamento.setValor(dto.getValor());
+        Long idUsuario = idAutenticado != null ? idAutenticado : dto.getUsuario();
+        if(idUsuario != null){
+            lancamento.setUsuario(Usuario.builder().id(idUsuario).build());
+        }
+        if(dto.getTipo() != null){
+            lancamento.setTipoLancamento(TipoLancamento.valueOf(dto.getTipo()));
+        }
+        return lancamento;
+    }
+
+    private LancamentoDto converterParaDto(Lancamento lancamento){
+        return new LancamentoDto(lancamento.getId(), lancamento.getDescricao(), lancamento.getMes(), lancamento.getAno(),
+                lancamento.getValor(), lancamento.getUsuario().getId(), lancamento.getTipoLancamento(),
+                lancamento.getStatusLancamento());
+    }
+}
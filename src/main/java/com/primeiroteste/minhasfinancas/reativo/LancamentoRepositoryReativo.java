@@ -0,0 +1,199 @@
+package com.primeiroteste.minhasfinancas.reativo;
+
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.model.entity.ChaveResumoMensal;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.repository.PadraoLike;
+import io.r2dbc.spi.Row;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//mesmasTabelasDoLadoJpaAcessadasComSqlPeloDatabaseClient
+public class LancamentoRepositoryReativo {
+
+    //aSequenceTemIncrement50PorCausaDoPooledDoHibernateQueUsaOValorComoTopoDoBloco
+    private static final int BLOCO_SEQUENCE = 50;
+
+    private static final String COLUNAS_DTO =
+            "select id, descricao, mes, ano, valor, id_usuario, tipo, status from financas.lancamento";
+
+    private final DatabaseClient client;
+
+    public LancamentoRepositoryReativo(DatabaseClient client){
+        this.client = client;
+    }
+
+    public Mono<Lancamento> inserir(Lancamento lancamento){
+        //pegaUmBlocoInteiroDaSequenceParaNaoColidirComOsIdsQueOHibernateDistribui
+        //comoOPooledDoHibernateOValorInicialDaSequenceNaoETopoDeBlocoEValeSoEle
+        return client.sql("select nextval('financas.lancamento_seq')")
+                .map(row -> {
+                    long topo = row.get(0, Long.class);
+                    return topo < BLOCO_SEQUENCE ? topo : topo - (BLOCO_SEQUENCE - 1);
+                })
+                .one()
+                .flatMap(id -> {
+                    lancamento.setId(id);
+                    return client.sql("insert into financas.lancamento " +
+                                    "(id, descricao, mes, ano, valor, id_usuario, data_cadastro, tipo, status, versao) " +
+                                    "values (:id, :descricao, :mes, :ano, :valor, :idUsuario, :dataCadastro, :tipo, :status, 0)")
+                            .bind("id", id)
+                            .bind("descricao", lancamento.getDescricao())
+                            .bind("mes", lancamento.getMes())
+                            .bind("ano", lancamento.getAno())
+                            .bind("valor", lancamento.getValor())
+                            .bind("idUsuario", lancamento.getUsuario().getId())
+                            .bind("dataCadastro", lancamento.getDataCadastro())
+                            .bind("tipo", lancamento.getTipoLancamento().name())
+                            .bind("status", lancamento.getStatusLancamento().name())
+                            .fetch().rowsUpdated()
+                            .thenReturn(lancamento);
+                });
+    }
+
+    public Flux<LancamentoDto> buscar(Lancamento filtro){
+        StringBuilder sql = new StringBuilder(COLUNAS_DTO).append(" where id_usuario = :idUsuario and deleted_at is null");
+        Map<String, Object> parametros = new LinkedHashMap<>();
+        parametros.put("idUsuario", filtro.getUsuario().getId());
+        if(filtro.getAno() != null){
+            sql.append(" and ano = :ano");
+            parametros.put("ano", filtro.getAno());
+        }
+        if(filtro.getMes() != null){
+            sql.append(" and mes = :mes");
+            parametros.put("mes", filtro.getMes());
+        }
+        if(filtro.getDescricao() != null){
+            sql.append(" and lower(descricao) like :descricao escape '").append(PadraoLike.ESCAPE).append("'");
+            parametros.put("descricao", PadraoLike.contendo(filtro.getDescricao()));
+        }
+        sql.append(" order by ano, mes, id");
+
+        DatabaseClient.GenericExecuteSpec consulta = client.sql(sql.toString());
+        for (Map.Entry<String, Object> parametro : parametros.entrySet()) {
+            consulta = consulta.bind(parametro.getKey(), parametro.getValue());
+        }
+        return consulta.map(LancamentoRepositoryReativo::paraDto).all();
+    }
+
+    public Mono<Lancamento> obterPorId(Long id){
+        return obterPorId(id, "");
+    }
+
+    //travaALinhaAteOFimDaTransacaoParaOStatusLidoSerOQueOResumoVaiMover
+    public Mono<Lancamento> travar(Long id){
+        return obterPorId(id, " for update");
+    }
+
+    private Mono<Lancamento> obterPorId(Long id, String trava){
+        return client.sql(COLUNAS_DTO + " where id = :id and deleted_at is null" + trava)
+                .bind("id", id)
+                .map(row -> {
+                    LancamentoDto dto = paraDto(row);
+                    return Lancamento.builder().id(dto.getId()).descricao(dto.getDescricao())
+                            .mes(dto.getMes()).ano(dto.getAno()).valor(dto.getValor())
+                            .usuario(Usuario.builder().id(dto.getUsuario()).build())
+                            .tipoLancamento(TipoLancamento.valueOf(dto.getTipo()))
+                            .statusLancamento(StatusLancamento.valueOf(dto.getStatus())).build();
+                })
+                .one();
+    }
+
+    public Mono<Integer> atualizarStatus(Long id, StatusLancamento status){
+        return client.sql("update financas.lancamento set status = :status, versao = versao + 1 where id = :id")
+                .bind("status", status.name())
+                .bind("id", id)
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> deletar(Long id){
+        //mesmaExclusaoLogicaDoLadoJpaOExpurgoAgendadoApagaDepois
+        return client.sql("update financas.lancamento set deleted_at = current_timestamp, versao = versao + 1 " +
+                        "where id = :id and deleted_at is null")
+                .bind("id", id)
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Boolean> existeUsuario(Long idUsuario){
+        return client.sql("select 1 from financas.usuario where id = :id")
+                .bind("id", idUsuario)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Mono<BigDecimal> somarPorTipo(Long idUsuario, TipoLancamento tipo){
+        return client.sql("select coalesce(sum(valor), 0) from financas.lancamento where id_usuario = :idUsuario and tipo = :tipo " +
+                        "and deleted_at is null")
+                .bind("idUsuario", idUsuario)
+                .bind("tipo", tipo.name())
+                .map(row -> row.get(0, BigDecimal.class))
+                .one();
+    }
+
+    public Mono<BigDecimal> obterSaldo(Long idUsuario){
+        return client.sql("select total_receitas - total_despesas from financas.saldo_usuario where id_usuario = :idUsuario")
+                .bind("idUsuario", idUsuario)
+                .map(row -> row.get(0, BigDecimal.class))
+                .one();
+    }
+
+    public Mono<Integer> somarSaldo(Long idUsuario, BigDecimal receitas, BigDecimal despesas){
+        return client.sql("update financas.saldo_usuario set total_receitas = total_receitas + :receitas, " +
+                        "total_despesas = total_despesas + :despesas where id_usuario = :idUsuario")
+                .bind("receitas", receitas)
+                .bind("despesas", despesas)
+                .bind("idUsuario", idUsuario)
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> inserirSaldo(Long idUsuario, BigDecimal receitas, BigDecimal despesas){
+        return client.sql("insert into financas.saldo_usuario (id_usuario, total_receitas, total_despesas) " +
+                        "values (:idUsuario, :receitas, :despesas) on conflict do nothing")
+                .bind("idUsuario", idUsuario)
+                .bind("receitas", receitas)
+                .bind("despesas", despesas)
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> somarResumo(ChaveResumoMensal chave, BigDecimal valor, long quantidade){
+        return chave(client.sql("update financas.lancamento_resumo_mensal set valor_total = valor_total + :valor, " +
+                        "quantidade = quantidade + :quantidade where id_usuario = :idUsuario and ano = :ano and mes = :mes " +
+                        "and tipo = :tipo and status = :status"), chave)
+                .bind("valor", valor)
+                .bind("quantidade", quantidade)
+                .fetch().rowsUpdated();
+    }
+
+    public Mono<Integer> inserirResumo(ChaveResumoMensal chave, BigDecimal valor, long quantidade){
+        return chave(client.sql("insert into financas.lancamento_resumo_mensal " +
+                        "(id_usuario, ano, mes, tipo, status, valor_total, quantidade) " +
+                        "values (:idUsuario, :ano, :mes, :tipo, :status, :valor, :quantidade) on conflict do nothing"), chave)
+                .bind("valor", valor)
+                .bind("quantidade", quantidade)
+                .fetch().rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec chave(DatabaseClient.GenericExecuteSpec consulta, ChaveResumoMensal chave){
+        return consulta.bind("idUsuario", chave.getIdUsuario())
+                .bind("ano", chave.getAno())
+                .bind("mes", chave.getMes())
+                .bind("tipo", chave.getTipoLancamento().name())
+                .bind("status", chave.getStatusLancamento().name());
+    }
+
+    private static LancamentoDto paraDto(Row row){
+        return new LancamentoDto(row.get("id", Long.class), row.get("descricao", String.class),
+                row.get("mes", Integer.class), row.get("ano", Integer.class), row.get("valor", BigDecimal.class),
+                row.get("id_usuario", Long.class), TipoLancamento.valueOf(row.get("tipo", String.class)),
+                StatusLancamento.valueOf(row.get("status", String.class)));
+    }
+}
@@ -0,0 +1,26 @@
+package com.primeiroteste.minhasfinancas.reativo;
+
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+public interface LancamentoServiceReativo {
+
+    Mono<Lancamento> salvar(Lancamento lancamento);
+
+    Flux<LancamentoDto> buscar(Lancamento lancamentoFiltro);
+
+    Mono<Lancamento> obterPorId(Long id);
+
+    Mono<Lancamento> atualizarStatus(Long id, StatusLancamento status);
+
+    Mono<Lancamento> deletar(Long id);
+
+    Mono<BigDecimal> obterSaldoPorUsuario(Long id);
+
+    Mono<Boolean> existeUsuario(Long id);
+}
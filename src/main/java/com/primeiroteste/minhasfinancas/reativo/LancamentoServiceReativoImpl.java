@@ -0,0 +1,130 @@
+package com.primeiroteste.minhasfinancas.reativo;
+
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.ChaveResumoMensal;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.service.impl.ValidadorLancamento;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class LancamentoServiceReativoImpl implements LancamentoServiceReativo {
+
+    private final LancamentoRepositoryReativo repository;
+
+    public LancamentoServiceReativoImpl(LancamentoRepositoryReativo repository){
+        this.repository = repository;
+    }
+
+    @Override
+    @Transactional
+    public Mono<Lancamento> salvar(Lancamento lancamento) {
+        //oDeferMontaAConsultaSoDepoisDaValidacaoSemUsuarioOGetIdDavaNullPointerAntesDoValidarRodar
+        return Mono.fromRunnable(() -> ValidadorLancamento.validar(lancamento))
+                .then(Mono.defer(() -> repository.existeUsuario(lancamento.getUsuario().getId())))
+                .flatMap(existe -> {
+                    if(!existe){
+                        return Mono.error(new RegraNegocioException("Usuário não encontrado para o id informado!"));
+                    }
+                    lancamento.setStatusLancamento(StatusLancamento.PENDENTE);
+                    if(lancamento.getDataCadastro() == null){
+                        lancamento.setDataCadastro(LocalDate.now());
+                    }
+                    return somarSaldo(lancamento.getUsuario().getId(), lancamento.getTipoLancamento(), lancamento.getValor())
+                            .then(somarResumo(lancamento, StatusLancamento.PENDENTE, lancamento.getValor(), 1))
+                            .then(repository.inserir(lancamento));
+                });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Flux<LancamentoDto> buscar(Lancamento lancamentoFiltro) {
+        return repository.buscar(lancamentoFiltro);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<Lancamento> obterPorId(Long id) {
+        return repository.obterPorId(id);
+    }
+
+    //soOStatusMudaEntaoOSaldoNaoPrecisaDeEstornoComoNoAtualizarCompletoMasNoResumoOValorPassaDeUmStatusProOutro
+    @Override
+    @Transactional
+    public Mono<Lancamento> atualizarStatus(Long id, StatusLancamento status) {
+        return repository.travar(id)
+                .flatMap(lancamento -> {
+                    StatusLancamento anterior = lancamento.getStatusLancamento();
+                    ValidadorLancamento.validarMudancaDeStatus(anterior, status);
+                    Mono<Void> resumo = anterior == status ? Mono.empty()
+                            : somarResumo(lancamento, anterior, lancamento.getValor().negate(), -1)
+                            .then(somarResumo(lancamento, status, lancamento.getValor(), 1));
+                    return repository.atualizarStatus(id, status).then(resumo).then(Mono.fromCallable(() -> {
+                        lancamento.setStatusLancamento(status);
+                        return lancamento;
+                    }));
+                });
+    }
+
+    @Override
+    @Transactional
+    public Mono<Lancamento> deletar(Long id) {
+        return repository.travar(id)
+                .flatMap(lancamento -> somarSaldo(lancamento.getUsuario().getId(), lancamento.getTipoLancamento(),
+                        lancamento.getValor().negate())
+                        .then(somarResumo(lancamento, lancamento.getStatusLancamento(), lancamento.getValor().negate(), -1))
+                        .then(repository.deletar(id))
+                        .thenReturn(lancamento));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<BigDecimal> obterSaldoPorUsuario(Long id) {
+        return repository.obterSaldo(id)
+                .switchIfEmpty(Mono.defer(() -> calcularSaldo(id).map(saldo -> saldo[0].subtract(saldo[1]))));
+    }
+
+    @Override
+    public Mono<Boolean> existeUsuario(Long id) {
+        return repository.existeUsuario(id);
+    }
+
+    //mesmaRegraDoSaldoServiceImplSeAindaNaoTemLinhaMontaPelosLancamentosJaGravadosESoma
+    private Mono<Void> somarSaldo(Long idUsuario, TipoLancamento tipo, BigDecimal valor){
+        BigDecimal receitas = tipo == TipoLancamento.RECEITA ? valor : BigDecimal.ZERO;
+        BigDecimal despesas = tipo == TipoLancamento.DESPESA ? valor : BigDecimal.ZERO;
+        return repository.somarSaldo(idUsuario, receitas, despesas)
+                .flatMap(atualizados -> {
+                    if(atualizados > 0){
+                        return Mono.empty();
+                    }
+                    //quemPerdeACorridaDoPrimeiroInsertSomaNaLinhaQueOOutroCriou
+                    return calcularSaldo(idUsuario)
+                            .flatMap(saldo -> repository.inserirSaldo(idUsuario, saldo[0].add(receitas), saldo[1].add(despesas)))
+                            .flatMap(inseridos -> inseridos > 0 ? Mono.just(inseridos) : repository.somarSaldo(idUsuario, receitas, despesas));
+                })
+                .then();
+    }
+
+    //mesmaRegraDoResumoMensalServiceImplUpdateNaChaveEInsertSoNoPrimeiroLancamentoDela
+    private Mono<Void> somarResumo(Lancamento lancamento, StatusLancamento status, BigDecimal valor, long quantidade){
+        ChaveResumoMensal chave = new ChaveResumoMensal(lancamento.getUsuario().getId(), lancamento.getAno(),
+                lancamento.getMes(), lancamento.getTipoLancamento(), status);
+        return repository.somarResumo(chave, valor, quantidade)
+                .flatMap(atualizados -> atualizados > 0 ? Mono.just(atualizados) : repository.inserirResumo(chave, valor, quantidade)
+                        .flatMap(inseridos -> inseridos > 0 ? Mono.just(inseridos) : repository.somarResumo(chave, valor, quantidade)))
+                .then();
+    }
+
+    private Mono<BigDecimal[]> calcularSaldo(Long idUsuario){
+        return Mono.zip(repository.somarPorTipo(idUsuario, TipoLancamento.RECEITA),
+                        repository.somarPorTipo(idUsuario, TipoLancamento.DESPESA))
+                .map(totais -> new BigDecimal[]{totais.getT1(), totais.getT2()});
+    }
+}
@@ -0,0 +1,79 @@
+package com.primeiroteste.minhasfinancas.reativo;
+
+import com.primeiroteste.minhasfinancas.service.TokenService;
+import com.primeiroteste.minhasfinancas.service.impl.TokenServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.*;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+//subirCom: mvn spring-boot:run -Dspring-boot.run.profiles=reativo
+//osBeansSaoDeclaradosAquiENaoComoComponentParaOScanDaAplicacaoServletNaoPegarNenhum
+@Profile(MinhasfinancasReativoApplication.PERFIL)
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class})
+public class MinhasfinancasReativoApplication {
+
+    public static final String PERFIL = "reativo";
+
+    @Bean
+    public TokenService tokenService(@Value("${minhasfinancas.token.segredo:}") String segredo,
+                                     @Value("${minhasfinancas.token.validade:8h}") Duration validade){
+        return new TokenServiceImpl(segredo, validade);
+    }
+
+    @Bean
+    public TokenWebFilter tokenWebFilter(TokenService tokenService,
+                                         @Value("${minhasfinancas.token.obrigatorio:true}") boolean obrigatorio){
+        return new TokenWebFilter(tokenService, obrigatorio);
+    }
+
+    @Bean
+    public LancamentoRepositoryReativo lancamentoRepositoryReativo(DatabaseClient client){
+        return new LancamentoRepositoryReativo(client);
+    }
+
+    @Bean
+    public LancamentoServiceReativo lancamentoServiceReativo(LancamentoRepositoryReativo repository){
+        return new LancamentoServiceReativoImpl(repository);
+    }
+
+    @Bean
+    public LancamentoHandler lancamentoHandler(LancamentoServiceReativo service){
+        return new LancamentoHandler(service);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> rotasLancamento(LancamentoHandler handler){
+        return route(POST("/api/lancamentos"), handler::salvar)
+                .andRoute(GET("/api/lancamentos"), handler::buscar)
+                .andRoute(PUT("/api/lancamentos/{id}/atualiza-status"), handler::atualizarStatus)
+                .andRoute(DELETE("/api/lancamentos/{id}"), handler::deletar)
+                .andRoute(GET("/api/usuarios/{id}/saldo"), handler::obterSaldo);
+    }
+
+    public static boolean perfilAtivo(String[] args){
+        StandardEnvironment ambiente = new StandardEnvironment();
+        ambiente.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+        return Arrays.asList(ambiente.getActiveProfiles()).contains(PERFIL);
+    }
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(MinhasfinancasReativoApplication.class).profiles(PERFIL).run(args);
+    }
+}
@@ -0,0 +1,60 @@
+package com.primeiroteste.minhasfinancas.reativo;
+
+import com.primeiroteste.minhasfinancas.api.filter.TokenFilter;
+import com.primeiroteste.minhasfinancas.service.TokenService;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+//mesmaRegraDoTokenFilterOIdDoUsuarioVaiNosAtributosDoExchangeComOMesmoNome
+public class TokenWebFilter implements WebFilter {
+
+    private static final String PREFIXO = "Bearer ";
+    private static final MediaType TEXTO = MediaType.parseMediaType("text/plain;charset=UTF-8");
+
+    private final TokenService tokenService;
+    private final boolean obrigatorio;
+
+    public TokenWebFilter(TokenService tokenService, boolean obrigatorio){
+        this.tokenService = tokenService;
+        this.obrigatorio = obrigatorio;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String cabecalho = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if(cabecalho != null && cabecalho.startsWith(PREFIXO)){
+            Optional<Long> idUsuario = tokenService.validar(cabecalho.substring(PREFIXO.length()));
+            if(!idUsuario.isPresent()){
+                return negar(exchange.getResponse(), "Token inválido ou expirado!");
+            }
+            exchange.getAttributes().put(TokenFilter.USUARIO_AUTENTICADO, idUsuario.get());
+        }else if(obrigatorio && !publico(exchange)){
+            return negar(exchange.getResponse(), "Informe o token de autenticação!");
+        }
+        return chain.filter(exchange);
+    }
+
+    //aquiNaoTemCadastroNemLoginEntaoSoOPreflightPassaSemToken
+    private boolean publico(ServerWebExchange exchange){
+        return HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod())
+                || !exchange.getRequest().getPath().pathWithinApplication().value().startsWith("/api/");
+    }
+
+    private Mono<Void> negar(ServerHttpResponse response, String mensagem){
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(TEXTO);
+        DataBuffer corpo = response.bufferFactory().wrap(mensagem.getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(corpo));
+    }
+}
@@ -0,0 +1,15 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotenciaService {
+
+    String CHAVE = "Idempotency-Key";
+    String REPETIDA = "Idempotent-Replayed";
+
+    ResponseEntity executar(String escopo, String chave, Object requisicao, Supplier<ResponseEntity> execucao);
+
+    int expurgar();
+}
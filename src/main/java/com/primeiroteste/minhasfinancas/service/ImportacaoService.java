@@ -0,0 +1,16 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.Importacao;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+public interface ImportacaoService {
+
+    Importacao importar(Usuario usuario, String formato, InputStream conteudo);
+
+    Importacao retomar(Importacao importacao, Usuario usuario, InputStream conteudo);
+
+    Optional<Importacao> obterPorId(Long id);
+}
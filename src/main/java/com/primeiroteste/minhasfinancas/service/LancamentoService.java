@@ -1,27 +1,57 @@
 package com.primeiroteste.minhasfinancas.service;
 
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
 import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import com.primeiroteste.minhasfinancas.model.enums.FrequenciaRecorrencia;
 import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoRecorrencia;
+import com.primeiroteste.minhasfinancas.model.repository.CursorLancamento;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface LancamentoService {
 
     Lancamento salvar(Lancamento lancamento);
 
+    List<Lancamento> salvarLote(List<Lancamento> lancamentos);
+
     Lancamento atualizar(Lancamento lancamento);
 
     void deletar(Lancamento lancamento);
 
     List<Lancamento>buscar(Lancamento lancamentoFiltro);
 
+    List<LancamentoDto> buscar(Lancamento lancamentoFiltro, CursorLancamento cursor, int tamanho);
+
+    void exportar(Long idUsuario, Consumer<Lancamento> consumidor);
+
     void atualizarStatus(Lancamento lancamento, StatusLancamento status);
 
+    int atualizarStatus(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status);
+
+    List<Lancamento> salvarSerie(Lancamento modelo, TipoRecorrencia tipo, FrequenciaRecorrencia frequencia, Integer quantidade);
+
+    int atualizarSerie(Lancamento lancamentoFiltro, Lancamento alteracao);
+
+    int cancelarSerie(Lancamento lancamentoFiltro);
+
+    Optional<Lancamento> atualizarStatusNaVersao(Long id, Long versao, Long idUsuario, StatusLancamento status);
+
     void validar(Lancamento lancamento);
 
     Optional<Lancamento> obterPorId(Long id);
 
     BigDecimal obterSaldoPorUsuario(Long id);
+
+    List<ResumoMensal> obterResumoPorAno(Long idUsuario, Integer ano);
+
+    BigDecimal recalcularSaldoPorUsuario(Long id);
+
+    int expurgarExcluidos(LocalDateTime limite, int tamanhoLote);
 }
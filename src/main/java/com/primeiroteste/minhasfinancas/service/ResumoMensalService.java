@@ -0,0 +1,13 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ResumoMensalService {
+
+    void somar(Collection<ResumoMensal> parcelas);
+
+    List<ResumoMensal> obterPorAno(Long idUsuario, Integer ano);
+}
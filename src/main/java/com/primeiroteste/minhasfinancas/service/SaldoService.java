@@ -0,0 +1,17 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.SaldoUsuario;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+
+import java.math.BigDecimal;
+
+public interface SaldoService {
+
+    void registrar(Long idUsuario, TipoLancamento tipo, BigDecimal valor);
+
+    void estornar(Long idUsuario, TipoLancamento tipo, BigDecimal valor);
+
+    BigDecimal obterSaldo(Long idUsuario);
+
+    SaldoUsuario recalcular(Long idUsuario);
+}
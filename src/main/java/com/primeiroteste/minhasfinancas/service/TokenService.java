@@ -0,0 +1,15 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface TokenService {
+
+    String gerarToken(Usuario usuario);
+
+    Instant obterExpiracao(String token);
+
+    Optional<Long> validar(String token);
+}
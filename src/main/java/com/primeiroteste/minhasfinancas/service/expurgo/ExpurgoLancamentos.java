@@ -0,0 +1,38 @@
+package com.primeiroteste.minhasfinancas.service.expurgo;
+
+import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+//apagaDeVerdadeOsLancamentosExcluidosEmLotesPequenosForaDoHorarioDePico
+@Slf4j
+@Component
+public class ExpurgoLancamentos {
+
+    private final LancamentoService lancamentoService;
+    private final int tamanhoLote;
+
+    public ExpurgoLancamentos(LancamentoService lancamentoService,
+                              @Value("${minhasfinancas.lancamento.expurgo.tamanho-lote:1000}") int tamanhoLote){
+        this.lancamentoService = lancamentoService;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    @Scheduled(cron = "${minhasfinancas.lancamento.expurgo.cron:0 0 3 * * *}")
+    public int expurgar(){
+        //soOQueJaEstavaExcluidoQuandoComecouParaNaoCorrerAtrasDoQueForSendoExcluidoDuranteOExpurgo
+        LocalDateTime limite = LocalDateTime.now();
+        int total = 0;
+        int expurgados;
+        do {
+            expurgados = lancamentoService.expurgarExcluidos(limite, tamanhoLote); //cadaLoteEmUmaTransacao
+            total += expurgados;
+        } while (expurgados == tamanhoLote);
+        log.info("expurgo de lancamentos excluidos: {} removidos", total);
+        return total;
+    }
+}
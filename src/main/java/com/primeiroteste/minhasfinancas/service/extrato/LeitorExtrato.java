@@ -0,0 +1,23 @@
+package com.primeiroteste.minhasfinancas.service.extrato;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+
+import java.io.IOException;
+import java.io.Reader;
+
+public interface LeitorExtrato {
+
+    //retornaNullNoFimDoArquivoELinhaMalFormadaLancaRegraNegocioExceptionJaConsumida
+    LinhaExtrato proxima() throws IOException;
+
+    static void validarFormato(String formato){
+        if(!"csv".equalsIgnoreCase(formato) && !"ofx".equalsIgnoreCase(formato)){
+            throw new RegraNegocioException("Formato de extrato inválido, use csv ou ofx!");
+        }
+    }
+
+    static LeitorExtrato para(String formato, Reader reader){
+        validarFormato(formato);
+        return "csv".equalsIgnoreCase(formato) ? new LeitorExtratoCsv(reader) : new LeitorExtratoOfx(reader);
+    }
+}
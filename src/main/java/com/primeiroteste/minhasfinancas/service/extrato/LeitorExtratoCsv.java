@@ -0,0 +1,96 @@
+package com.primeiroteste.minhasfinancas.service.extrato;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class LeitorExtratoCsv implements LeitorExtrato {
+
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final BufferedReader reader;
+    private char separador;
+
+    public LeitorExtratoCsv(Reader reader){
+        this.reader = new BufferedReader(reader);
+    }
+
+    @Override
+    public LinhaExtrato proxima() throws IOException {
+        if(separador == 0){
+            //cabecalhoDataDescricaoValorDefineOSeparador
+            String cabecalho = reader.readLine();
+            if(cabecalho == null){
+                return null;
+            }
+            separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+        }
+
+        String linha;
+        do {
+            linha = reader.readLine();
+            if(linha == null){
+                return null;
+            }
+        } while (linha.trim().isEmpty());
+
+        List<String> campos = separar(linha);
+        if(campos.size() < 3){
+            throw new RegraNegocioException("Linha do extrato com colunas faltando!");
+        }
+        return new LinhaExtrato(data(campos.get(0)), campos.get(1).trim(), valor(campos.get(2)));
+    }
+
+    private List<String> separar(String linha){
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if(c == '"'){
+                if(entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"'){
+                    campo.append('"');
+                    i++;
+                }else{
+                    entreAspas = !entreAspas;
+                }
+            }else if(c == separador && !entreAspas){
+                campos.add(campo.toString());
+                campo.setLength(0);
+            }else{
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private LocalDate data(String texto){
+        try {
+            String data = texto.trim();
+            return data.contains("/") ? LocalDate.parse(data, DATA_BR) : LocalDate.parse(data);
+        }catch (DateTimeParseException e){
+            throw new RegraNegocioException("Data inválida no extrato: " + texto);
+        }
+    }
+
+    private BigDecimal valor(String texto){
+        String valor = texto.trim();
+        if(separador == ';' && valor.indexOf(',') >= 0){ //formatoBrasileiro1.234,56
+            valor = valor.replace(".", "").replace(',', '.');
+        }
+        try {
+            return new BigDecimal(valor);
+        }catch (NumberFormatException e){
+            throw new RegraNegocioException("Valor inválido no extrato: " + texto);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.primeiroteste.minhasfinancas.service.extrato;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+public class LeitorExtratoOfx implements LeitorExtrato {
+
+    private final BufferedReader reader;
+
+    public LeitorExtratoOfx(Reader reader){
+        this.reader = new BufferedReader(reader);
+    }
+
+    @Override
+    public LinhaExtrato proxima() throws IOException {
+        String dataPostagem = null;
+        String valor = null;
+        String memo = null;
+        String nome = null;
+        boolean dentroDaTransacao = false;
+
+        //leTagPorTagParaFuncionarComOfxSgmlSemFechamentoEComOfxXml
+        String tag;
+        while ((tag = proximaTag()) != null) {
+            if(tag.equalsIgnoreCase("STMTTRN")){
+                dentroDaTransacao = true;
+            }else if(tag.equalsIgnoreCase("/STMTTRN") && dentroDaTransacao){
+                return montar(dataPostagem, valor, memo != null ? memo : nome);
+            }else if(dentroDaTransacao){
+                String conteudo = conteudo();
+                if(tag.equalsIgnoreCase("DTPOSTED")){
+                    dataPostagem = conteudo;
+                }else if(tag.equalsIgnoreCase("TRNAMT")){
+                    valor = conteudo;
+                }else if(tag.equalsIgnoreCase("MEMO")){
+                    memo = conteudo;
+                }else if(tag.equalsIgnoreCase("NAME")){
+                    nome = conteudo;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String proximaTag() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            //ignoraOTextoForaDasTagsDeInteresse
+        }
+        if(c == -1){
+            return null;
+        }
+        StringBuilder tag = new StringBuilder();
+        while ((c = reader.read()) != -1 && c != '>') {
+            tag.append((char) c);
+        }
+        return tag.toString().trim();
+    }
+
+    private String conteudo() throws IOException {
+        StringBuilder conteudo = new StringBuilder();
+        reader.mark(1);
+        int c;
+        while ((c = reader.read()) != -1 && c != '<') {
+            conteudo.append((char) c);
+            reader.mark(1);
+        }
+        if(c == '<'){
+            reader.reset(); //devolveOInicioDaProximaTag
+        }
+        return conteudo.toString().trim();
+    }
+
+    private LinhaExtrato montar(String dataPostagem, String valor, String descricao){
+        if(dataPostagem == null || dataPostagem.length() < 8 || valor == null){
+            throw new RegraNegocioException("Transação do extrato sem data ou valor!");
+        }
+        try {
+            LocalDate data = LocalDate.parse(dataPostagem.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+            return new LinhaExtrato(data, descricao, new BigDecimal(valor.replace(',', '.')));
+        }catch (DateTimeParseException | NumberFormatException e){
+            throw new RegraNegocioException("Transação do extrato com data ou valor inválido!");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.primeiroteste.minhasfinancas.service.extrato;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class LinhaExtrato {
+
+    private LocalDate data;
+    private String descricao;
+    private BigDecimal valor;
+}
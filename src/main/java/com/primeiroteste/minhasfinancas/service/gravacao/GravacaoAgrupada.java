@@ -0,0 +1,183 @@
+package com.primeiroteste.minhasfinancas.service.gravacao;
+
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+//umaThreadSoJuntaOsLancamentosDeVariasRequisicoesENumCommitSoGravaTodosComInsertEmBatch
+//cadaRequisicaoSoRecebeOIdDepoisQueOCommitDoLoteDelaTerminou
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "minhasfinancas.lancamento.gravacao-agrupada.habilitada", havingValue = "true")
+public class GravacaoAgrupada implements Closeable {
+
+    static final String TAMANHO_LOTE = "minhasfinancas.gravacao.lote";
+    static final String COMMIT = "minhasfinancas.gravacao.commit";
+    static final String FILA = "minhasfinancas.gravacao.fila";
+
+    private static final String FILA_CHEIA = "Muitos lançamentos sendo gravados, tente novamente em instantes!";
+    private static final String GRAVADOR_PARADO = "A gravação de lançamentos está indisponível, tente novamente em instantes!";
+
+    private final LancamentoService lancamentoService;
+    private final int tamanhoLote;
+    private final long intervalo;
+    private final long esperaFila;
+    private final long esperaCommit;
+    private final BlockingQueue<Pendente> fila;
+    private final DistributionSummary tamanhos;
+    private final Timer tempoCommit;
+    private final Thread gravador;
+    private volatile boolean executando = true;
+
+    public GravacaoAgrupada(LancamentoService lancamentoService, MeterRegistry registry,
+                            @Value("${minhasfinancas.lancamento.gravacao-agrupada.tamanho-lote:200}") int tamanhoLote,
+                            @Value("${minhasfinancas.lancamento.gravacao-agrupada.intervalo:5ms}") Duration intervalo,
+                            @Value("${minhasfinancas.lancamento.gravacao-agrupada.capacidade-fila:10000}") int capacidadeFila,
+                            @Value("${minhasfinancas.lancamento.gravacao-agrupada.espera-fila:100ms}") Duration esperaFila,
+                            @Value("${minhasfinancas.lancamento.gravacao-agrupada.espera-commit:30s}") Duration esperaCommit){
+        this.lancamentoService = lancamentoService;
+        this.tamanhoLote = tamanhoLote;
+        this.intervalo = intervalo.toNanos();
+        this.esperaFila = esperaFila.toNanos();
+        this.esperaCommit = esperaCommit.toNanos();
+        this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+        this.tamanhos = DistributionSummary.builder(TAMANHO_LOTE).publishPercentileHistogram().register(registry);
+        this.tempoCommit = Timer.builder(COMMIT).publishPercentileHistogram().register(registry);
+        Gauge.builder(FILA, fila, BlockingQueue::size).register(registry);
+        this.gravador = new Thread(this::gravar, "gravacao-agrupada");
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    //validaNaThreadDaRequisicaoParaOErroDeNegocioVoltarNaHoraSemPassarPelaFila
+    //seOCommitNaoVoltaNaEsperaOFuturoFalhaComTimeoutEmVezDePrenderAThreadDaRequisicaoParaSempre
+    public CompletableFuture<Lancamento> enfileirar(Lancamento lancamento){
+        lancamentoService.validar(lancamento);
+        Pendente pendente = new Pendente(lancamento);
+        if(!executando){
+            pendente.futuro.completeExceptionally(new RejectedExecutionException(GRAVADOR_PARADO));
+            return pendente.futuro;
+        }
+        try {
+            //filaCheiaSeguraARequisicaoUmPoucoEDepoisDesisteEmVezDeAcumularMemoria
+            if(!fila.offer(pendente, esperaFila, TimeUnit.NANOSECONDS)){
+                pendente.futuro.completeExceptionally(new RejectedExecutionException(FILA_CHEIA));
+            }
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            pendente.futuro.completeExceptionally(new RejectedExecutionException(FILA_CHEIA));
+        }
+        return pendente.futuro.orTimeout(esperaCommit, TimeUnit.NANOSECONDS);
+    }
+
+    private void gravar(){
+        List<Pendente> lote = new ArrayList<>(tamanhoLote);
+        while (executando || !fila.isEmpty()) {
+            try {
+                Pendente primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if(primeiro == null){
+                    continue;
+                }
+                lote.add(primeiro);
+                //fechaOLoteQuandoEncheOuQuandoOIntervaloContadoDoPrimeiroAcaba
+                long limite = System.nanoTime() + intervalo;
+                while (lote.size() < tamanhoLote) {
+                    fila.drainTo(lote, tamanhoLote - lote.size());
+                    long resta = limite - System.nanoTime();
+                    if(lote.size() >= tamanhoLote || resta <= 0){
+                        break;
+                    }
+                    Pendente proximo = fila.poll(resta, TimeUnit.NANOSECONDS);
+                    if(proximo == null){
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+                comitar(lote);
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                break;
+            }catch (RuntimeException e){
+                log.error("gravacao agrupada: erro inesperado no lote", e);
+                lote.forEach(pendente -> pendente.futuro.completeExceptionally(e));
+            }catch (Throwable e){
+                //umErroDaJvmMataOGravadorEntaoParaDeAceitarParaAsProximasRequisicoesFalharemNaHoraCom503
+                log.error("gravacao agrupada: gravador parado por erro inesperado", e);
+                executando = false;
+                lote.forEach(pendente -> pendente.futuro.completeExceptionally(e));
+                break;
+            }finally {
+                lote.clear();
+            }
+        }
+        Pendente pendente;
+        while ((pendente = fila.poll()) != null) {
+            pendente.futuro.completeExceptionally(new RejectedExecutionException(GRAVADOR_PARADO));
+        }
+    }
+
+    private void comitar(List<Pendente> lote){
+        tamanhos.record(lote.size());
+        List<Lancamento> lancamentos = lote.stream().map(pendente -> pendente.lancamento).collect(Collectors.toList());
+        List<Lancamento> salvos;
+        try {
+            salvos = tempoCommit.recordCallable(() -> lancamentoService.salvarLote(lancamentos)); //cadaLoteEmUmaTransacao
+        }catch (Exception e){
+            if(lote.size() == 1){
+                lote.get(0).futuro.completeExceptionally(e);
+                return;
+            }
+            //umLancamentoRuimNaoDerrubaOsOutrosDoLoteEntaoRefazUmPorUm
+            log.warn("gravacao agrupada: lote de {} falhou, gravando um por um", lote.size(), e);
+            for (Pendente pendente : lote) {
+                pendente.lancamento.setId(null); //oRollbackNaoDesfazOIdEAVersaoQueOHibernateJaTinhaPreenchido
+                pendente.lancamento.setVersao(null);
+                comitar(Collections.singletonList(pendente));
+            }
+            return;
+        }
+        for (int i = 0; i < lote.size(); i++) {
+            lote.get(i).futuro.complete(salvos.get(i));
+        }
+    }
+
+    //paraDeAceitarEEsperaOQueJaEstaNaFilaSerGravado
+    @Override
+    public void close(){
+        executando = false;
+        try {
+            gravador.join(TimeUnit.SECONDS.toMillis(30));
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Pendente {
+
+        private final Lancamento lancamento;
+        private final CompletableFuture<Lancamento> futuro = new CompletableFuture<>();
+
+        Pendente(Lancamento lancamento){
+            this.lancamento = lancamento;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.primeiroteste.minhasfinancas.service.impl;
+
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.repository.UsuarioRepository;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+//foraDoServiceParaOCacheablePassarPeloProxyQuandoOServiceChama
+@Component
+public class CacheUsuarios {
+
+    public static final String POR_ID = "usuarios";
+    public static final String POR_EMAIL = "usuariosPorEmail";
+
+    private final UsuarioRepository repository;
+
+    public CacheUsuarios(UsuarioRepository repository){
+        this.repository = repository;
+    }
+
+    //oVazioNaoEntraNoCacheSenaoUmaBuscaAntesDoCadastroEscondeOUsuarioDepoisDele
+    @Cacheable(cacheNames = POR_ID, unless = "#result == null")
+    public Optional<UsuarioCacheado> porId(Long id){
+        return repository.findById(id).map(UsuarioCacheado::de);
+    }
+
+    @Cacheable(cacheNames = POR_EMAIL, unless = "#result == null")
+    public Optional<UsuarioCacheado> porEmail(String email){
+        return repository.findByEmail(email).map(UsuarioCacheado::de);
+    }
+
+    //asBuscasSaoReadOnlyEPodemCairNumaReplicaAtrasadaEntaoOUsuarioGravadoJaEntraNoCacheNoCommit
+    @Caching(put = {
+            @CachePut(cacheNames = POR_ID, key = "#usuario.id"),
+            @CachePut(cacheNames = POR_EMAIL, key = "#usuario.email")
+    })
+    public Optional<UsuarioCacheado> guardar(Usuario usuario){
+        return Optional.of(UsuarioCacheado.de(usuario));
+    }
+}
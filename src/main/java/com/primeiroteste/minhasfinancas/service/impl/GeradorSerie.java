@@ -0,0 +1,59 @@
+package com.primeiroteste.minhasfinancas.service.impl;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.enums.FrequenciaRecorrencia;
+import com.primeiroteste.minhasfinancas.model.enums.TipoRecorrencia;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+//expandeARecorrenciaEmUmLancamentoPorOcorrenciaTodosComOMesmoIdDeSerie
+public final class GeradorSerie {
+
+    static final int MAXIMO_LANCAMENTOS = 120;
+
+    private GeradorSerie(){
+    }
+
+    public static List<Lancamento> gerar(Lancamento modelo, TipoRecorrencia tipo, FrequenciaRecorrencia frequencia,
+                                         Integer quantidade){
+        if(tipo == null || frequencia == null){
+            throw new RegraNegocioException("Informe o tipo e a frequência da recorrência!");
+        }
+        if(quantidade == null || quantidade < 1 || quantidade > MAXIMO_LANCAMENTOS){
+            throw new RegraNegocioException("Informe uma quantidade de lançamentos entre 1 e " + MAXIMO_LANCAMENTOS + "!");
+        }
+        ValidadorLancamento.validar(modelo);
+
+        //osCentavosQueNaoDividemCertoFicamNaPrimeiraParcela
+        BigDecimal valor = modelo.getValor();
+        BigDecimal primeiro = valor;
+        if(tipo == TipoRecorrencia.PARCELADO){
+            valor = modelo.getValor().divide(BigDecimal.valueOf(quantidade), 2, RoundingMode.DOWN);
+            primeiro = modelo.getValor().subtract(valor.multiply(BigDecimal.valueOf(quantidade - 1)));
+        }
+
+        String idSerie = UUID.randomUUID().toString();
+        int mesesDesdeZero = modelo.getAno() * 12 + modelo.getMes() - 1;
+        List<Lancamento> lancamentos = new ArrayList<>(quantidade);
+        for (int parcela = 1; parcela <= quantidade; parcela++) {
+            int mes = mesesDesdeZero + (parcela - 1) * frequencia.getMeses();
+            lancamentos.add(Lancamento.builder()
+                    .descricao(modelo.getDescricao())
+                    .usuario(modelo.getUsuario())
+                    .tipoLancamento(modelo.getTipoLancamento())
+                    .valor(parcela == 1 ? primeiro : valor)
+                    .mes(mes % 12 + 1)
+                    .ano(mes / 12)
+                    .dataCadastro(modelo.getDataCadastro())
+                    .idSerie(idSerie)
+                    .parcela(parcela)
+                    .build());
+        }
+        return lancamentos;
+    }
+}
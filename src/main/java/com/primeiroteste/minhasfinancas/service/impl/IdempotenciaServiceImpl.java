@@ -0,0 +1,237 @@
+package com.primeiroteste.minhasfinancas.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.primeiroteste.minhasfinancas.model.entity.Idempotencia;
+import com.primeiroteste.minhasfinancas.model.repository.IdempotenciaRepository;
+import com.primeiroteste.minhasfinancas.service.IdempotenciaService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+//aRespostaFicaNaMemoriaParaARetentativaRapidaENaTabelaParaQuandoCaiEmOutraInstanciaOuDepoisDeReiniciar
+//aLinhaDaTabelaEReservadaAntesDeExecutarParaDuasInstanciasNaoExecutaremAMesmaChave
+@Slf4j
+@Service
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+
+    private static final int TAMANHO_MAXIMO_CHAVE = 255;
+    private static final int TAMANHO_MAXIMO_ID = 300; //colunaChaveDaTabelaIdempotencia
+    private static final Duration INTERVALO_CONSULTA = Duration.ofMillis(100);
+    private static final String EM_ANDAMENTO = "Já existe uma requisição com esta Idempotency-Key em andamento!";
+    private static final String CHAVE_REUTILIZADA = "Esta Idempotency-Key já foi usada com outra requisição!";
+
+    private final IdempotenciaRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration validade;
+    private final Duration espera;
+    private final Cache<String, CompletableFuture<Idempotencia>> respostas;
+
+    public IdempotenciaServiceImpl(IdempotenciaRepository repository, ObjectMapper objectMapper,
+                                   @Value("${minhasfinancas.idempotencia.capacidade:100000}") long capacidade,
+                                   @Value("${minhasfinancas.idempotencia.validade:24h}") Duration validade,
+                                   @Value("${minhasfinancas.idempotencia.espera:30s}") Duration espera){
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.validade = validade;
+        this.espera = espera;
+        this.respostas = Caffeine.newBuilder().maximumSize(capacidade).expireAfterWrite(validade).build();
+    }
+
+    @Override
+    public ResponseEntity executar(String escopo, String chave, Object requisicao, Supplier<ResponseEntity> execucao) {
+        if(chave == null || chave.isEmpty()){
+            return execucao.get();
+        }
+        if(chave.length() > TAMANHO_MAXIMO_CHAVE){
+            return ResponseEntity.badRequest().body("Informe uma Idempotency-Key de até " + TAMANHO_MAXIMO_CHAVE + " caracteres!");
+        }
+        String id = id(escopo, chave);
+        String hash = hash(requisicao);
+
+        //quemChegaDepoisComAMesmaChaveEsperaAPrimeiraTerminarEmVezDeExecutarDeNovo
+        CompletableFuture<Idempotencia> emAndamento = new CompletableFuture<>();
+        CompletableFuture<Idempotencia> anterior = respostas.asMap().putIfAbsent(id, emAndamento);
+        if(anterior != null){
+            return aguardar(anterior, escopo, chave, requisicao, hash, execucao);
+        }
+        try {
+            //entreInstanciasQuemReservaALinhaExecutaOsOutrosEsperamARespostaDelaSerGravada
+            if(!reservar(id, hash)){
+                Idempotencia gravada = aguardarGravacao(id);
+                if(gravada == null){
+                    respostas.asMap().remove(id, emAndamento); //aReservaFoiDesfeitaAChaveEstaLivreDeNovo
+                    emAndamento.completeExceptionally(new IllegalStateException(id));
+                    return executar(escopo, chave, requisicao, execucao);
+                }
+                emAndamento.complete(gravada);
+                return repetir(gravada, hash);
+            }
+            ResponseEntity resposta = execucao.get();
+            Idempotencia idempotencia = guardar(id, hash, resposta);
+            if(resposta.getStatusCode().is5xxServerError()){
+                respostas.asMap().remove(id, emAndamento); //erroDoServidorNaoFicaGuardadoARetentativaExecutaDeNovo
+            }
+            emAndamento.complete(idempotencia);
+            return resposta;
+        }catch (TimeoutException e){
+            respostas.asMap().remove(id, emAndamento);
+            emAndamento.completeExceptionally(e);
+            return new ResponseEntity(EM_ANDAMENTO, HttpStatus.CONFLICT);
+        }catch (RuntimeException e){
+            liberar(id);
+            respostas.asMap().remove(id, emAndamento);
+            emAndamento.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    @Scheduled(cron = "${minhasfinancas.idempotencia.expurgo.cron:0 30 3 * * *}")
+    public int expurgar() {
+        int expurgados = repository.expurgar(LocalDateTime.now().minus(validade));
+        log.info("expurgo de chaves de idempotencia vencidas: {} removidas", expurgados);
+        return expurgados;
+    }
+
+    private ResponseEntity aguardar(CompletableFuture<Idempotencia> anterior, String escopo, String chave,
+                                    Object requisicao, String hash, Supplier<ResponseEntity> execucao){
+        try {
+            return repetir(anterior.get(espera.toMillis(), TimeUnit.MILLISECONDS), hash);
+        }catch (ExecutionException e){
+            return executar(escopo, chave, requisicao, execucao); //aPrimeiraFalhouSemResposta
+        }catch (TimeoutException e){
+            return new ResponseEntity(EM_ANDAMENTO, HttpStatus.CONFLICT);
+        }catch (InterruptedException e){
+            Thread.currentThread().interrupt();
+            return new ResponseEntity(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    private boolean reservar(String id, String hash){
+        LocalDateTime agora = LocalDateTime.now();
+        return repository.reservar(id, hash, agora) == 1
+                || repository.assumir(id, hash, agora, agora.minus(espera), agora.minus(validade)) == 1;
+    }
+
+    //consultaATabelaAteAOutraInstanciaGravarARespostaNuloSeElaDesistiuEApagouAReserva
+    private Idempotencia aguardarGravacao(String id) throws TimeoutException {
+        long limite = System.nanoTime() + espera.toNanos();
+        while (true) {
+            Optional<Idempotencia> gravada = repository.obterNoPrimario(id);
+            if(!gravada.isPresent() || gravada.get().getStatus() != null){
+                return gravada.orElse(null);
+            }
+            if(System.nanoTime() - limite > 0){
+                throw new TimeoutException();
+            }
+            try {
+                Thread.sleep(INTERVALO_CONSULTA.toMillis());
+            }catch (InterruptedException e){
+                Thread.currentThread().interrupt();
+                throw new TimeoutException();
+            }
+        }
+    }
+
+    private void liberar(String id){
+        try {
+            repository.liberar(id);
+        }catch (DataAccessException e){
+            log.warn("nao foi possivel liberar a reserva da chave de idempotencia {}, fica ate a espera vencer", id, e);
+        }
+    }
+
+    private Idempotencia guardar(String id, String hash, ResponseEntity resposta){
+        Object corpo = resposta.getBody();
+        MediaType tipo = resposta.getHeaders().getContentType();
+        if(tipo == null && corpo != null){
+            tipo = corpo instanceof String ? new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8) : MediaType.APPLICATION_JSON;
+        }
+        Idempotencia idempotencia = Idempotencia.builder()
+                .chave(id)
+                .status(resposta.getStatusCodeValue())
+                .tipoConteudo(tipo != null ? tipo.toString() : null)
+                .corpo(serializar(corpo))
+                .hashRequisicao(hash)
+                .dataCriacao(LocalDateTime.now())
+                .build();
+        if(resposta.getStatusCode().is5xxServerError()){
+            liberar(id);
+            return idempotencia;
+        }
+        try {
+            repository.save(idempotencia);
+        }catch (DataAccessException e){
+            log.warn("nao foi possivel gravar a resposta da chave de idempotencia {}, fica so na memoria", id, e);
+        }
+        return idempotencia;
+    }
+
+    private String serializar(Object corpo){
+        if(corpo == null || corpo instanceof String){
+            return (String) corpo;
+        }
+        try {
+            return objectMapper.writeValueAsString(corpo);
+        }catch (JsonProcessingException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //oEscopoTemOEmailDoCadastroSemLimiteDeTamanhoEntaoOIdQueNaoCabeNaColunaViraOHashDele
+    private static String id(String escopo, String chave){
+        String id = escopo + ":" + chave;
+        return id.length() <= TAMANHO_MAXIMO_ID ? id : "sha256:" + sha256(id.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String hash(Object requisicao){
+        try {
+            return sha256(objectMapper.writeValueAsBytes(requisicao));
+        }catch (JsonProcessingException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sha256(byte[] conteudo){
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(conteudo));
+        }catch (NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //aMesmaChaveComOutroCorpoEErroDoClienteNaoDevolveARespostaDeOutraRequisicao
+    private static ResponseEntity repetir(Idempotencia idempotencia, String hash){
+        if(idempotencia.getHashRequisicao() != null && !idempotencia.getHashRequisicao().equals(hash)){
+            return new ResponseEntity(CHAVE_REUTILIZADA, HttpStatus.UNPROCESSABLE_ENTITY);
+        }
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.status(idempotencia.getStatus()).header(REPETIDA, "true");
+        if(idempotencia.getTipoConteudo() != null){
+            resposta.contentType(MediaType.parseMediaType(idempotencia.getTipoConteudo()));
+        }
+        return resposta.body(idempotencia.getCorpo());
+    }
+}
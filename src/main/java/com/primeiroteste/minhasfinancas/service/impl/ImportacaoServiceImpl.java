@@ -0,0 +1,194 @@
+package com.primeiroteste.minhasfinancas.service.impl;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Importacao;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusImportacao;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.repository.ImportacaoRepository;
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoRepository;
+import com.primeiroteste.minhasfinancas.service.ImportacaoService;
+import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import com.primeiroteste.minhasfinancas.service.extrato.LeitorExtrato;
+import com.primeiroteste.minhasfinancas.service.extrato.LinhaExtrato;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Service
+public class ImportacaoServiceImpl implements ImportacaoService {
+
+    private ImportacaoRepository repository;
+    private LancamentoService lancamentoService;
+    private LancamentoRepository lancamentoRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${minhasfinancas.importacao.tamanho-bloco:500}")
+    private int tamanhoBloco = 500;
+
+    //cadaBlocoGravadoAtualizaADataEntaoEmAndamentoParadoHaMaisTempoQueIssoFoiDeUmProcessoQueMorreu
+    @Value("${minhasfinancas.importacao.abandonada-apos:10m}")
+    private Duration abandonadaApos = Duration.ofMinutes(10);
+
+    public ImportacaoServiceImpl(ImportacaoRepository repository,
+                                 LancamentoService lancamentoService,
+                                 LancamentoRepository lancamentoRepository,
+                                 PlatformTransactionManager transactionManager){
+        this.repository = repository;
+        this.lancamentoService = lancamentoService;
+        this.lancamentoRepository = lancamentoRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Importacao importar(Usuario usuario, String formato, InputStream conteudo) {
+        LeitorExtrato.validarFormato(formato);
+        Importacao importacao = Importacao.builder()
+                .idUsuario(usuario.getId())
+                .formato(formato.toLowerCase())
+                .status(StatusImportacao.EM_ANDAMENTO)
+                .linhasProcessadas(0l)
+                .linhasImportadas(0l)
+                .linhasComErro(0l)
+                .dataInicio(LocalDateTime.now())
+                .dataAtualizacao(LocalDateTime.now())
+                .build();
+        importacao = repository.save(importacao);
+        return processar(importacao, usuario, conteudo);
+    }
+
+    @Override
+    public Importacao retomar(Importacao importacao, Usuario usuario, InputStream conteudo) {
+        if(!importacao.getIdUsuario().equals(usuario.getId())){
+            throw new RegraNegocioException("A importação não pertence ao usuário informado!");
+        }
+        if(importacao.getStatus() == StatusImportacao.CONCLUIDA){
+            throw new RegraNegocioException("A importação já foi concluída!");
+        }
+        //duasRetomadasAoMesmoTempoReimportariamOsMesmosBlocosEntaoSoQuemMudaOStatusNoBancoProcessa
+        Long id = importacao.getId();
+        LocalDateTime agora = LocalDateTime.now();
+        Importacao assumida = transactionTemplate.execute(status -> repository.assumir(id, agora, agora.minus(abandonadaApos)) == 1
+                ? repository.findById(id).orElse(null) : null);
+        if(assumida == null){
+            throw new RegraNegocioException("A importação já está em andamento ou foi concluída!");
+        }
+        return processar(assumida, usuario, conteudo);
+    }
+
+    @Override
+    public Optional<Importacao> obterPorId(Long id) {
+        return repository.findById(id);
+    }
+
+    private Importacao processar(Importacao importacao, Usuario usuario, InputStream conteudo){
+        LeitorExtrato leitor = LeitorExtrato.para(importacao.getFormato(),
+                new InputStreamReader(conteudo, StandardCharsets.UTF_8));
+        long jaProcessadas = importacao.getLinhasProcessadas();
+        long linha = 0;
+        List<Lancamento> bloco = new ArrayList<>(tamanhoBloco);
+        int errosNoBloco = 0;
+
+        try {
+            while (true) {
+                Lancamento lancamento = null;
+                try {
+                    LinhaExtrato linhaExtrato = leitor.proxima();
+                    if(linhaExtrato == null){
+                        break;
+                    }
+                    lancamento = converter(linhaExtrato, usuario);
+                }catch (RegraNegocioException e){
+                    //linhaMalFormadaContaComoErroEALeituraContinua
+                }
+                if(linha++ < jaProcessadas){
+                    continue; //linhasDeBlocosJaGravadosNaExecucaoAnterior
+                }
+
+                if(lancamento != null && valido(lancamento)){
+                    bloco.add(lancamento);
+                }else{
+                    errosNoBloco++;
+                }
+                if(bloco.size() + errosNoBloco >= tamanhoBloco){
+                    importacao = gravarBloco(importacao, bloco, errosNoBloco);
+                    errosNoBloco = 0;
+                }
+            }
+            importacao = gravarBloco(importacao, bloco, errosNoBloco);
+            importacao.setStatus(StatusImportacao.CONCLUIDA);
+            return repository.save(importacao);
+        }catch (IOException | RuntimeException e){
+            //oQueJaFoiGravadoFicaEAImportacaoPodeSerRetomadaDoUltimoBloco
+            importacao.setStatus(StatusImportacao.FALHOU);
+            importacao.setMensagem(e.getMessage());
+            importacao.setDataAtualizacao(LocalDateTime.now());
+            return repository.save(importacao);
+        }
+    }
+
+    private boolean valido(Lancamento lancamento){
+        try {
+            lancamentoService.validar(lancamento);
+            return true;
+        }catch (RegraNegocioException e){
+            return false;
+        }
+    }
+
+    private Importacao gravarBloco(Importacao importacao, List<Lancamento> bloco, int erros){
+        long processadas = importacao.getLinhasProcessadas();
+        long importadas = importacao.getLinhasImportadas();
+        long comErro = importacao.getLinhasComErro();
+        Importacao gravada;
+        try {
+            //oBlocoEOProgressoSaoGravadosNaMesmaTransacaoEntaoORetomarSempreComecaDoUltimoBlocoCompleto
+            gravada = transactionTemplate.execute(status -> {
+                if(!bloco.isEmpty()){
+                    lancamentoService.salvarLote(bloco);
+                }
+                importacao.setLinhasProcessadas(processadas + bloco.size() + erros);
+                importacao.setLinhasImportadas(importadas + bloco.size());
+                importacao.setLinhasComErro(comErro + erros);
+                importacao.setDataAtualizacao(LocalDateTime.now());
+                return repository.save(importacao);
+            });
+        }catch (RuntimeException e){
+            importacao.setLinhasProcessadas(processadas);
+            importacao.setLinhasImportadas(importadas);
+            importacao.setLinhasComErro(comErro);
+            throw e;
+        }
+        bloco.forEach(lancamentoRepository::desanexar); //naoDeixaAsEntidadesAcumularemNaSessaoDaRequisicao
+        bloco.clear();
+        return gravada;
+    }
+
+    private Lancamento converter(LinhaExtrato linha, Usuario usuario){
+        BigDecimal valor = linha.getValor();
+        LocalDate data = linha.getData();
+        return Lancamento.builder()
+                .descricao(linha.getDescricao())
+                .mes(data.getMonthValue())
+                .ano(data.getYear())
+                .valor(valor.abs())
+                .tipoLancamento(valor.signum() < 0 ? TipoLancamento.DESPESA : TipoLancamento.RECEITA)
+                .usuario(usuario)
+                .dataCadastro(LocalDate.now())
+                .build();
+    }
+}
@@ -1,28 +1,66 @@
 package com.primeiroteste.minhasfinancas.service.impl;
 
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.config.LeituraAposEscrita;
 import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.ChaveResumoMensal;
 import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import com.primeiroteste.minhasfinancas.model.enums.FrequenciaRecorrencia;
 import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
 import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoRecorrencia;
+import com.primeiroteste.minhasfinancas.model.repository.CursorLancamento;
 import com.primeiroteste.minhasfinancas.model.repository.LancamentoRepository;
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoValor;
 import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import com.primeiroteste.minhasfinancas.service.ResumoMensalService;
+import com.primeiroteste.minhasfinancas.service.SaldoService;
+import com.primeiroteste.minhasfinancas.service.indice.IndiceDescricao;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class LancamentoServiceImpl implements LancamentoService {
 
+    //acimaDissoOInComOsIdsFicaPiorQueOLikeNoBanco
+    private static final int MAXIMO_IDS_DO_INDICE = 1000;
+
+    //lancamentoCanceladoNaoVoltaAFicarPendenteNemEfetivado
     private LancamentoRepository respository;
+    private SaldoService saldoService;
+    private IndiceDescricao indiceDescricao;
+    private LeituraAposEscrita leituraAposEscrita;
+    private ResumoMensalService resumoMensalService;
 
-    public LancamentoServiceImpl(LancamentoRepository respository){
+    public LancamentoServiceImpl(LancamentoRepository respository, SaldoService saldoService,
+                                 IndiceDescricao indiceDescricao, LeituraAposEscrita leituraAposEscrita,
+                                 ResumoMensalService resumoMensalService){
         this.respository = respository;
+        this.saldoService = saldoService;
+        this.indiceDescricao = indiceDescricao;
+        this.leituraAposEscrita = leituraAposEscrita;
+        this.resumoMensalService = resumoMensalService;
     }
 
     @Override
@@ -30,7 +68,35 @@ public class LancamentoServiceImpl implements LancamentoService {
     public Lancamento salvar(Lancamento lancamento) {
         validar(lancamento);
         lancamento.setStatusLancamento(StatusLancamento.PENDENTE);
-        return respository.save(lancamento);
+        saldoService.registrar(lancamento.getUsuario().getId(), lancamento.getTipoLancamento(), lancamento.getValor());
+        resumoMensalService.somar(Collections.singletonList(parcela(lancamento)));
+        Lancamento lancamentoSalvo = respository.save(lancamento);
+        indiceDescricao.indexar(lancamento.getUsuario().getId(), lancamentoSalvo.getId(), lancamentoSalvo.getDescricao());
+        leituraAposEscrita.registrarEscrita(lancamento.getUsuario().getId());
+        return lancamentoSalvo;
+    }
+
+    @Override
+    @Transactional
+    public List<Lancamento> salvarLote(List<Lancamento> lancamentos) {
+        lancamentos.forEach(this::validar);
+
+        //somaOSaldoUmaVezPorUsuarioETipoEmVezDeUmUpdatePorLancamento
+        Map<Long, Map<TipoLancamento, BigDecimal>> totais = new HashMap<>();
+        for (Lancamento lancamento : lancamentos) {
+            lancamento.setStatusLancamento(StatusLancamento.PENDENTE);
+            totais.computeIfAbsent(lancamento.getUsuario().getId(), id -> new EnumMap<>(TipoLancamento.class))
+                    .merge(lancamento.getTipoLancamento(), lancamento.getValor(), BigDecimal::add);
+        }
+        totais.forEach((idUsuario, porTipo) ->
+                porTipo.forEach((tipo, valor) -> saldoService.registrar(idUsuario, tipo, valor)));
+        resumoMensalService.somar(lancamentos.stream().map(LancamentoServiceImpl::parcela).collect(Collectors.toList()));
+
+        List<Lancamento> salvos = respository.saveAll(lancamentos);
+        respository.flush(); //osInsertsSaemEmBatchNoFlush
+        salvos.forEach(salvo -> indiceDescricao.indexar(salvo.getUsuario().getId(), salvo.getId(), salvo.getDescricao()));
+        totais.keySet().forEach(leituraAposEscrita::registrarEscrita);
+        return salvos;
     }
 
     @Override
@@ -38,13 +104,35 @@ public class LancamentoServiceImpl implements LancamentoService {
     public Lancamento atualizar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId()); //garanteQueVaiPedirOIdAntesDeAtualizarESalvar
         validar(lancamento);
-        return respository.save(lancamento);
+        List<ResumoMensal> resumo = new ArrayList<>();
+        respository.obterValorPersistido(lancamento.getId()).ifPresent(anterior -> {
+            if(lancamento.getStatusLancamento() == null){
+                lancamento.setStatusLancamento(anterior.getStatusLancamento()); //semStatusNoCorpoMantemOQueJaEstavaGravado
+            }
+            ValidadorLancamento.validarMudancaDeStatus(anterior.getStatusLancamento(), lancamento.getStatusLancamento());
+            saldoService.estornar(anterior.getIdUsuario(), anterior.getTipoLancamento(), anterior.getValor());
+            indiceDescricao.remover(anterior.getIdUsuario(), lancamento.getId());
+            resumo.add(estorno(anterior));
+        });
+        saldoService.registrar(lancamento.getUsuario().getId(), lancamento.getTipoLancamento(), lancamento.getValor());
+        resumo.add(parcela(lancamento));
+        resumoMensalService.somar(resumo);
+        Lancamento lancamentoAtualizado = respository.save(lancamento);
+        indiceDescricao.indexar(lancamento.getUsuario().getId(), lancamento.getId(), lancamento.getDescricao());
+        leituraAposEscrita.registrarEscrita(lancamento.getUsuario().getId());
+        return lancamentoAtualizado;
     }
 
     @Override
     @Transactional
     public void deletar(Lancamento lancamento) {
         Objects.requireNonNull(lancamento.getId()); //MesmaCoisaPrecisaPassarUmIdAntesDeDeletar
+        respository.obterValorPersistido(lancamento.getId()).ifPresent(anterior -> {
+            saldoService.estornar(anterior.getIdUsuario(), anterior.getTipoLancamento(), anterior.getValor());
+            indiceDescricao.remover(anterior.getIdUsuario(), lancamento.getId());
+            resumoMensalService.somar(Collections.singletonList(estorno(anterior)));
+            leituraAposEscrita.registrarEscrita(anterior.getIdUsuario());
+        });
         respository.delete(lancamento);
 
     }
@@ -52,6 +140,9 @@ public class LancamentoServiceImpl implements LancamentoService {
     @Override
     @Transactional(readOnly = true)
     public List<Lancamento> buscar(Lancamento lancamentoFiltro) {
+        if(lancamentoFiltro.getUsuario() != null){
+            leituraAposEscrita.prepararLeitura(lancamentoFiltro.getUsuario().getId());
+        }
         Example example = Example.of(lancamentoFiltro, ExampleMatcher.matching()
                 .withIgnoreCase() //ignoraOTamanhoDoStringNaBusca
                 .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING)); //seDigitarUmPedacoDaDescricaoEleJaBusca
@@ -59,6 +150,44 @@ public class LancamentoServiceImpl implements LancamentoService {
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<LancamentoDto> buscar(Lancamento lancamentoFiltro, CursorLancamento cursor, int tamanho) {
+        if(lancamentoFiltro.getUsuario() != null){
+            leituraAposEscrita.prepararLeitura(lancamentoFiltro.getUsuario().getId());
+        }
+        if(lancamentoFiltro.getDescricao() == null){
+            return respository.buscarPagina(lancamentoFiltro, cursor, tamanho);
+        }
+
+        Set<Long> ids = indiceDescricao.buscar(lancamentoFiltro.getUsuario().getId(), lancamentoFiltro.getDescricao());
+        if(ids.isEmpty()){
+            return Collections.emptyList();
+        }
+        if(ids.size() > MAXIMO_IDS_DO_INDICE){
+            return respository.buscarPagina(lancamentoFiltro, cursor, tamanho);
+        }
+        Lancamento filtroSemDescricao = Lancamento.builder()
+                .usuario(lancamentoFiltro.getUsuario())
+                .ano(lancamentoFiltro.getAno())
+                .mes(lancamentoFiltro.getMes())
+                .build();
+        return respository.buscarPagina(filtroSemDescricao, ids, cursor, tamanho);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(Long idUsuario, Consumer<Lancamento> consumidor) {
+        leituraAposEscrita.prepararLeitura(idUsuario);
+        try (Stream<Lancamento> lancamentos = respository.streamPorUsuario(idUsuario)) {
+            lancamentos.forEach(lancamento -> {
+                consumidor.accept(lancamento);
+                respository.desanexar(lancamento); //tiraDaSessaoParaAMemoriaNaoCrescerComOTotalDeLinhas
+            });
+        }
+    }
+
+    @Override
+    @Transactional
     public void atualizarStatus(Lancamento lancamento, StatusLancamento status) {
         lancamento.setStatusLancamento(status); //SetaOStatus
         atualizar(lancamento);
@@ -66,28 +195,141 @@ public class LancamentoServiceImpl implements LancamentoService {
     }
 
     @Override
-    public void validar(Lancamento lancamento) {
-        if(lancamento.getDescricao() == null || lancamento.getDescricao().trim().equals("")){
-            throw new RegraNegocioException("Informe descrição válida!");
+    @Transactional
+    public int atualizarStatus(Lancamento lancamentoFiltro, Collection<Long> ids, StatusLancamento status) {
+        Objects.requireNonNull(status);
+        //soOsIdsSemUsuarioAlcancariaLancamentosDeQualquerUsuario
+        if(lancamentoFiltro.getUsuario() == null && lancamentoFiltro.getIdSerie() == null){
+            throw new RegraNegocioException("Informe o usuário para atualizar o status!");
         }
-        if(lancamento.getMes() == null || lancamento.getMes() < 1 || lancamento.getMes() >12){
-            throw new RegraNegocioException("Informe um mês válido!");
+        //travaAsLinhasAntesDeLerParaOResumoNaoDivergirDeUmaAtualizacaoConcorrente
+        respository.travar(lancamentoFiltro, ids);
+        //seAlgumNaoPodeMudarNenhumMudaAntesDeFazerOUpdate
+        Set<StatusLancamento> origensInvalidas = EnumSet.copyOf(ValidadorLancamento.STATUS_FINAIS);
+        origensInvalidas.remove(status);
+        if(!origensInvalidas.isEmpty() && respository.contarPorStatus(lancamentoFiltro, ids, origensInvalidas) > 0){
+            throw new RegraNegocioException("Não é possível alterar o status de lançamentos cancelados!");
         }
-        if (lancamento.getAno() == null || lancamento.getAno().toString().length() != 4){
-            throw new RegraNegocioException("Informe um ano válido!");
+        if(lancamentoFiltro.getUsuario() != null){
+            leituraAposEscrita.registrarEscrita(lancamentoFiltro.getUsuario().getId());
         }
-        if (lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null){
-            throw new RegraNegocioException("Informe um usuário!");
+        //oStatusNaoEntraNoSaldoNemNoIndiceMasNoResumoOValorPassaDoStatusAntigoProNovo
+        List<ResumoMensal> resumo = new ArrayList<>();
+        for (ResumoMensal antes : respository.resumir(lancamentoFiltro, ids, status)) {
+            ChaveResumoMensal chave = antes.getChave();
+            resumo.add(parcela(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipoLancamento(),
+                    chave.getStatusLancamento(), antes.getValorTotal().negate(), -antes.getQuantidade()));
+            resumo.add(parcela(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipoLancamento(),
+                    status, antes.getValorTotal(), antes.getQuantidade()));
+        }
+        int atualizados = respository.atualizarStatus(lancamentoFiltro, ids, status);
+        resumoMensalService.somar(resumo);
+        return atualizados;
+    }
+
+    @Override
+    @Transactional
+    public List<Lancamento> salvarSerie(Lancamento modelo, TipoRecorrencia tipo, FrequenciaRecorrencia frequencia,
+                                        Integer quantidade) {
+        return salvarLote(GeradorSerie.gerar(modelo, tipo, frequencia, quantidade));
+    }
+
+    //soOsPendentesDaSerieMudamOQueJaFoiEfetivadoOuCanceladoFicaComoEsta
+    @Override
+    @Transactional
+    public int atualizarSerie(Lancamento lancamentoFiltro, Lancamento alteracao) {
+        Objects.requireNonNull(lancamentoFiltro.getIdSerie());
+        if(alteracao.getDescricao() == null && alteracao.getValor() == null && alteracao.getTipoLancamento() == null){
+            throw new RegraNegocioException("Informe a descrição, o valor ou o tipo para alterar a série!");
+        }
+        if(alteracao.getDescricao() != null && alteracao.getDescricao().trim().equals("")){
+            throw new RegraNegocioException("Informe descrição válida!");
         }
-        if(lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1){
+        if(alteracao.getValor() != null && alteracao.getValor().compareTo(BigDecimal.ZERO) < 1){
             throw new RegraNegocioException("Informe um valor válido!");
         }
-        if(lancamento.getTipoLancamento() == null){
-            throw new RegraNegocioException("Informe um tipo de lançamento!");
+        Lancamento pendentes = pendentesDaSerie(lancamentoFiltro);
+        respository.travar(pendentes, null);
+        List<ResumoMensal> antes = respository.resumir(pendentes, null, null);
+        if(antes.isEmpty()){
+            return 0;
         }
+        List<Long> ids = alteracao.getDescricao() != null ? respository.listarIds(pendentes) : Collections.emptyList();
+        int atualizados = respository.atualizarSerie(pendentes, alteracao);
+
+        //saldoEResumoSaemPelosTotaisDeAntesEEntramComOValorEOTipoNovosVezesAQuantidade
+        Map<Long, Map<TipoLancamento, BigDecimal>> saldo = new HashMap<>();
+        List<ResumoMensal> resumo = new ArrayList<>();
+        for (ResumoMensal grupo : antes) {
+            ChaveResumoMensal chave = grupo.getChave();
+            TipoLancamento tipo = alteracao.getTipoLancamento() != null ? alteracao.getTipoLancamento() : chave.getTipoLancamento();
+            BigDecimal valor = alteracao.getValor() != null
+                    ? alteracao.getValor().multiply(BigDecimal.valueOf(grupo.getQuantidade()))
+                    : grupo.getValorTotal();
+            Map<TipoLancamento, BigDecimal> porTipo = saldo.computeIfAbsent(chave.getIdUsuario(), id -> new EnumMap<>(TipoLancamento.class));
+            porTipo.merge(chave.getTipoLancamento(), grupo.getValorTotal().negate(), BigDecimal::add);
+            porTipo.merge(tipo, valor, BigDecimal::add);
+            resumo.add(parcela(chave.getIdUsuario(), chave.getAno(), chave.getMes(), chave.getTipoLancamento(),
+                    chave.getStatusLancamento(), grupo.getValorTotal().negate(), -grupo.getQuantidade()));
+            resumo.add(parcela(chave.getIdUsuario(), chave.getAno(), chave.getMes(), tipo,
+                    chave.getStatusLancamento(), valor, grupo.getQuantidade()));
+        }
+        saldo.forEach((idUsuario, porTipo) -> porTipo.forEach((tipo, valor) -> {
+            if(valor.signum() != 0){
+                saldoService.registrar(idUsuario, tipo, valor);
+            }
+        }));
+        resumoMensalService.somar(resumo);
+
+        Long idUsuario = antes.get(0).getChave().getIdUsuario(); //aSerieEDeUmUsuarioSo
+        for (Long id : ids) {
+            indiceDescricao.remover(idUsuario, id);
+            indiceDescricao.indexar(idUsuario, id, alteracao.getDescricao());
+        }
+        leituraAposEscrita.registrarEscrita(idUsuario);
+        return atualizados;
+    }
+
+    @Override
+    @Transactional
+    public int cancelarSerie(Lancamento lancamentoFiltro) {
+        Objects.requireNonNull(lancamentoFiltro.getIdSerie());
+        return atualizarStatus(pendentesDaSerie(lancamentoFiltro), null, StatusLancamento.CANCELADO);
     }
 
     @Override
+    @Transactional
+    public Optional<Lancamento> atualizarStatusNaVersao(Long id, Long versao, Long idUsuario, StatusLancamento status) {
+        leituraAposEscrita.registrarEscrita(idUsuario);
+        Optional<LancamentoValor> anterior = respository.obterValorPersistido(id); //pelaChavePrimariaSoParaOResumo
+        //deOutroUsuarioNaoDizOStatusDeixaOUpdateNaoAcharALinha
+        anterior.filter(valor -> idUsuario == null || idUsuario.equals(valor.getIdUsuario()))
+                .ifPresent(valor -> ValidadorLancamento.validarMudancaDeStatus(valor.getStatusLancamento(), status));
+        if(respository.atualizarStatusNaVersao(id, versao, idUsuario, status) != 1){
+            return Optional.empty();
+        }
+        anterior.filter(valor -> valor.getStatusLancamento() != status).ifPresent(valor -> resumoMensalService.somar(Arrays.asList(
+                estorno(valor),
+                parcela(valor.getIdUsuario(), valor.getAno(), valor.getMes(), valor.getTipoLancamento(), status, valor.getValor(), 1))));
+        //oLancamentoNaoFoiCarregadoAntesNaSessaoEntaoOFindByIdJaLeOQueOUpdateGravou
+        return respository.findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensal> obterResumoPorAno(Long idUsuario, Integer ano) {
+        leituraAposEscrita.prepararLeitura(idUsuario);
+        return resumoMensalService.obterPorAno(idUsuario, ano);
+    }
+
+    @Override
+    public void validar(Lancamento lancamento) {
+        ValidadorLancamento.validar(lancamento);
+    }
+
+    //lidoAntesDoAtualizarEDoDeletarEntaoVemDoPrimarioSemReadOnlyComoAEscritaQueVemDepois
+    @Override
+    @Transactional
     public Optional<Lancamento> obterPorId(Long id) {
         return respository.findById(id);
     }
@@ -95,17 +337,51 @@ public class LancamentoServiceImpl implements LancamentoService {
     @Override
     @Transactional(readOnly = true)
     public BigDecimal obterSaldoPorUsuario(Long id){
-        BigDecimal receitas = respository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.RECEITA);
-        BigDecimal despesas = respository.obterSaldoPorTipoLancamentoEUsuario(id, TipoLancamento.DESPESA);
+        leituraAposEscrita.prepararLeitura(id);
+        return saldoService.obterSaldo(id);
+    }
 
-        if(receitas == null){
-            receitas = BigDecimal.ZERO;
-        }
-        if(despesas == null){
-            despesas = BigDecimal.ZERO;
+    @Override
+    @Transactional
+    public BigDecimal recalcularSaldoPorUsuario(Long id){
+        return saldoService.recalcular(id).getSaldo();
+    }
+
+    //oSaldoEOIndiceJaForamAjustadosNoDeleteAquiSoSaiALinha
+    @Override
+    @Transactional
+    public int expurgarExcluidos(LocalDateTime limite, int tamanhoLote) {
+        List<Long> ids = respository.listarIdsExcluidosAntesDe(limite, tamanhoLote);
+        if(ids.isEmpty()){
+            return 0;
         }
-        return receitas.subtract(despesas);
+        return respository.expurgar(ids);
     }
 
+    private static Lancamento pendentesDaSerie(Lancamento lancamentoFiltro){
+        return Lancamento.builder()
+                .usuario(lancamentoFiltro.getUsuario())
+                .idSerie(lancamentoFiltro.getIdSerie())
+                .statusLancamento(StatusLancamento.PENDENTE)
+                .build();
+    }
 
+    private static ResumoMensal parcela(Lancamento lancamento){
+        return parcela(lancamento.getUsuario().getId(), lancamento.getAno(), lancamento.getMes(),
+                lancamento.getTipoLancamento(), lancamento.getStatusLancamento(), lancamento.getValor(), 1);
+    }
+
+    private static ResumoMensal estorno(LancamentoValor anterior){
+        return parcela(anterior.getIdUsuario(), anterior.getAno(), anterior.getMes(), anterior.getTipoLancamento(),
+                anterior.getStatusLancamento(), anterior.getValor().negate(), -1);
+    }
+
+    private static ResumoMensal parcela(Long idUsuario, Integer ano, Integer mes, TipoLancamento tipo,
+                                        StatusLancamento status, BigDecimal valor, long quantidade){
+        return ResumoMensal.builder()
+                .chave(new ChaveResumoMensal(idUsuario, ano, mes, tipo, status))
+                .valorTotal(valor)
+                .quantidade(quantidade)
+                .build();
+    }
 }
@@ -0,0 +1,57 @@
+package com.primeiroteste.minhasfinancas.service.impl;
+
+import com.primeiroteste.minhasfinancas.model.entity.ChaveResumoMensal;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import com.primeiroteste.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.primeiroteste.minhasfinancas.service.ResumoMensalService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class ResumoMensalServiceImpl implements ResumoMensalService {
+
+    private ResumoMensalRepository repository;
+
+    public ResumoMensalServiceImpl(ResumoMensalRepository repository){
+        this.repository = repository;
+    }
+
+    //estornoEParcelaNegativaOLoteJuntaAsParcelasDaMesmaChaveEFazUmUpdatePorChave
+    @Override
+    @Transactional
+    public void somar(Collection<ResumoMensal> parcelas) {
+        Map<ChaveResumoMensal, ResumoMensal> porChave = new LinkedHashMap<>();
+        for (ResumoMensal parcela : parcelas) {
+            porChave.merge(parcela.getChave(), parcela, (atual, nova) -> ResumoMensal.builder()
+                    .chave(atual.getChave())
+                    .valorTotal(atual.getValorTotal().add(nova.getValorTotal()))
+                    .quantidade(atual.getQuantidade() + nova.getQuantidade())
+                    .build());
+        }
+        porChave.values().forEach(this::somar);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ResumoMensal> obterPorAno(Long idUsuario, Integer ano) {
+        return repository.obterPorAno(idUsuario, ano);
+    }
+
+    private void somar(ResumoMensal parcela){
+        if(parcela.getQuantidade() == 0 && parcela.getValorTotal().signum() == 0){
+            return; //estornoERegistroNaMesmaChaveSeAnularam
+        }
+        if(repository.somarValores(parcela.getChave(), parcela.getValorTotal(), parcela.getQuantidade()) == 1){
+            return;
+        }
+        //primeiroLancamentoDaChaveSeOutraTransacaoInseriuAntesOInsertNaoFazNadaESomaNaLinhaDela
+        if(repository.inserir(parcela.getChave(), parcela.getValorTotal(), parcela.getQuantidade()) == 0){
+            repository.somarValores(parcela.getChave(), parcela.getValorTotal(), parcela.getQuantidade());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.primeiroteste.minhasfinancas.service.impl;
+
+import com.primeiroteste.minhasfinancas.model.entity.SaldoUsuario;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoRepository;
+import com.primeiroteste.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.primeiroteste.minhasfinancas.service.SaldoService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+@Service
+public class SaldoServiceImpl implements SaldoService {
+
+    private SaldoUsuarioRepository repository;
+    private LancamentoRepository lancamentoRepository;
+
+    public SaldoServiceImpl(SaldoUsuarioRepository repository, LancamentoRepository lancamentoRepository){
+        this.repository = repository;
+        this.lancamentoRepository = lancamentoRepository;
+    }
+
+    @Override
+    @Transactional
+    public void registrar(Long idUsuario, TipoLancamento tipo, BigDecimal valor) {
+        somar(idUsuario, tipo, valor);
+    }
+
+    @Override
+    @Transactional
+    public void estornar(Long idUsuario, TipoLancamento tipo, BigDecimal valor) {
+        somar(idUsuario, tipo, valor.negate());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal obterSaldo(Long idUsuario) {
+        return repository.findById(idUsuario)
+                .map(SaldoUsuario::getSaldo)
+                .orElseGet(() -> calcular(idUsuario).getSaldo()); //usuarioSemSaldoAindaCalculaSemGravar
+    }
+
+    @Override
+    @Transactional
+    public SaldoUsuario recalcular(Long idUsuario) {
+        //travaALinhaAntesDeSomarOsLancamentosSenaoUmRegistrarNoMeioDoCalculoSePerdeNoSave
+        repository.inserir(idUsuario, BigDecimal.ZERO, BigDecimal.ZERO);
+        repository.travar(idUsuario);
+        return repository.save(calcular(idUsuario));
+    }
+
+    private void somar(Long idUsuario, TipoLancamento tipo, BigDecimal valor){
+        BigDecimal receitas = tipo == TipoLancamento.RECEITA ? valor : BigDecimal.ZERO;
+        BigDecimal despesas = tipo == TipoLancamento.DESPESA ? valor : BigDecimal.ZERO;
+        if(repository.somarValores(idUsuario, receitas, despesas) == 1){
+            return;
+        }
+        //primeiraVezMontaOSaldoAPartirDosLancamentosJaGravadosESomaAAlteracao
+        //seOutraTransacaoInseriuAntesOInsertNaoFazNadaEAAlteracaoEntraNaLinhaDela
+        SaldoUsuario saldo = calcular(idUsuario);
+        if(repository.inserir(idUsuario, saldo.getTotalReceitas().add(receitas), saldo.getTotalDespesas().add(despesas)) == 0){
+            repository.somarValores(idUsuario, receitas, despesas);
+        }
+    }
+
+    private SaldoUsuario calcular(Long idUsuario){
+        BigDecimal receitas = lancamentoRepository.obterSaldoPorTipoLancamentoEUsuario(idUsuario, TipoLancamento.RECEITA);
+        BigDecimal despesas = lancamentoRepository.obterSaldoPorTipoLancamentoEUsuario(idUsuario, TipoLancamento.DESPESA);
+
+        if(receitas == null){
+            receitas = BigDecimal.ZERO;
+        }
+        if(despesas == null){
+            despesas = BigDecimal.ZERO;
+        }
+        return SaldoUsuario.builder()
+                .idUsuario(idUsuario)
+                .totalReceitas(receitas)
+                .totalDespesas(despesas)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.primeiroteste.minhasfinancas.service.impl;
+
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+//tokenIdUsuarioMaisExpiracaoAssinadoComHmacSha256ValidadoSoComCpuSemIrAoBanco
+@Service
+public class TokenServiceImpl implements TokenService {
+
+    private static final String ALGORITMO = "HmacSHA256";
+
+    //oHmacSha256UsaChaveDe256BitsComMenosQueIssoDaParaAdivinharOSegredoPorForcaBruta
+    private static final int TAMANHO_MINIMO_SEGREDO = 32;
+    private static final String SEGREDO_DE_EXEMPLO = "troque-este-segredo-em-producao";
+
+    private final SecretKeySpec chave;
+    private final Duration validade;
+
+    public TokenServiceImpl(@Value("${minhasfinancas.token.segredo:}") String segredo,
+                            @Value("${minhasfinancas.token.validade:8h}") Duration validade){
+        if(segredo == null || segredo.trim().isEmpty() || segredo.contains(SEGREDO_DE_EXEMPLO)
+                || segredo.getBytes(StandardCharsets.UTF_8).length < TAMANHO_MINIMO_SEGREDO){
+            throw new IllegalStateException("Configure em MINHASFINANCAS_TOKEN_SEGREDO um segredo próprio de pelo menos "
+                    + TAMANHO_MINIMO_SEGREDO + " bytes para assinar os tokens!");
+        }
+        this.chave = new SecretKeySpec(segredo.getBytes(StandardCharsets.UTF_8), ALGORITMO);
+        this.validade = validade;
+    }
+
+    @Override
+    public String gerarToken(Usuario usuario) {
+        long expiraEm = Instant.now().plus(validade).getEpochSecond();
+        String conteudo = codificar((usuario.getId() + ":" + expiraEm).getBytes(StandardCharsets.UTF_8));
+        return conteudo + "." + codificar(assinar(conteudo));
+    }
+
+    @Override
+    public Instant obterExpiracao(String token) {
+        return Instant.ofEpochSecond(Long.parseLong(partes(token)[1]));
+    }
+
+    @Override
+    public Optional<Long> validar(String token) {
+        try {
+            int ponto = token.indexOf('.');
+            if(ponto < 0){
+                return Optional.empty();
+            }
+            String conteudo = token.substring(0, ponto);
+            byte[] assinatura = Base64.getUrlDecoder().decode(token.substring(ponto + 1));
+            if(!MessageDigest.isEqual(assinar(conteudo), assinatura)){ //comparacaoEmTempoConstante
+                return Optional.empty();
+            }
+            String[] partes = partes(token);
+            if(Instant.now().getEpochSecond() >= Long.parseLong(partes[1])){
+                return Optional.empty();
+            }
+            return Optional.of(Long.valueOf(partes[0]));
+        }catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e){
+            return Optional.empty();
+        }
+    }
+
+    private String[] partes(String token){
+        String conteudo = token.substring(0, token.indexOf('.'));
+        return new String(Base64.getUrlDecoder().decode(conteudo), StandardCharsets.UTF_8).split(":");
+    }
+
+    private byte[] assinar(String conteudo){
+        try {
+            Mac mac = Mac.getInstance(ALGORITMO);
+            mac.init(chave);
+            return mac.doFinal(conteudo.getBytes(StandardCharsets.US_ASCII));
+        }catch (GeneralSecurityException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String codificar(byte[] bytes){
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,42 @@
+package com.primeiroteste.minhasfinancas.service.impl;
+
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+//copiaImutavelDoUsuarioParaOCacheSoOHashDaSenhaFicaNaMemoria
+@Value
+public class UsuarioCacheado {
+
+    Long id;
+    String nome;
+    String email;
+    byte[] hashSenha;
+
+    static UsuarioCacheado de(Usuario usuario){
+        return new UsuarioCacheado(usuario.getId(), usuario.getNome(), usuario.getEmail(), hash(usuario.getSenha()));
+    }
+
+    boolean senhaConfere(String senha){
+        return senha != null && MessageDigest.isEqual(hashSenha, hash(senha));
+    }
+
+    //cadaChamadaRecebeUmaEntidadeNovaEntaoQuemAlteraNaoMexeNoQueEstaNoCache
+    Usuario paraUsuario(){
+        return Usuario.builder().id(id).nome(nome).email(email).build();
+    }
+
+    private static byte[] hash(String senha){
+        if(senha == null){
+            return new byte[0];
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(senha.getBytes(StandardCharsets.UTF_8));
+        }catch (NoSuchAlgorithmException e){
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -5,7 +5,10 @@ import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
 import com.primeiroteste.minhasfinancas.model.entity.Usuario;
 import com.primeiroteste.minhasfinancas.model.repository.UsuarioRepository;
 import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import com.primeiroteste.minhasfinancas.service.indice.FiltroEmails;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,44 +17,100 @@ import java.util.Optional;
 @Service
 public class UsuarioServiceImpl implements UsuarioService {
 
+    private static final String EMAIL_JA_CADASTRADO = "Já existe um usuário cadastrado com este email";
+    private static final String CONSTRAINT_EMAIL = "uk_usuario_email";
+
+    //mesmosTamanhosDasColunasDaTabelaUsuario
+    private static final int TAMANHO_MAXIMO_NOME = 150;
+    private static final int TAMANHO_MAXIMO_EMAIL = 100;
+    private static final int TAMANHO_MAXIMO_SENHA = 20;
+
     @Autowired
     private UsuarioRepository repository;
 
-    public UsuarioServiceImpl(UsuarioRepository repository){
+    private final FiltroEmails filtroEmails;
+    private final CacheUsuarios cacheUsuarios;
+
+    public UsuarioServiceImpl(UsuarioRepository repository, FiltroEmails filtroEmails, CacheUsuarios cacheUsuarios){
         super();
         this.repository = repository;
+        this.filtroEmails = filtroEmails;
+        this.cacheUsuarios = cacheUsuarios;
     }
 
+    //oLoginLogoDepoisDoCadastroAchaOUsuarioNoCacheQueOSalvarPreencheuSemDependerDaReplica
     @Override
+    @Transactional(readOnly = true)
     public Usuario autenticar(String email, String senha) {
-        Optional<Usuario> usuario = repository.findByEmail(email);
+        Optional<UsuarioCacheado> usuario = cacheUsuarios.porEmail(email);
         if(!usuario.isPresent()){
             throw new ErroAutenticacao("Usuario não encontrado para o email informado!");
         }
-        if(!usuario.get().getSenha().equals(senha)){
+        if(!usuario.get().senhaConfere(senha)){
             throw new ErroAutenticacao("Senha inválida!");
         }
-        return usuario.get();
+        return usuario.get().paraUsuario();
     }
 
     @Override
     @Transactional //comitarNoBanco
     public Usuario salvarUsuario(Usuario usuario) {
+        validarTamanhos(usuario);
         validarEmail(usuario.getEmail());
-        return repository.save(usuario);
+        Usuario salvo;
+        try {
+            salvo = repository.save(usuario);
+        }catch (DataIntegrityViolationException e){
+            //oFiltroSoEvitaAConsultaQuemGaranteOEmailUnicoEAConstraintDoBanco
+            if(violouEmailUnico(e)){
+                throw new RegraNegocioException(EMAIL_JA_CADASTRADO);
+            }
+            throw e;
+        }
+        filtroEmails.adicionar(salvo.getEmail()); //seDerRollbackSoViraUmFalsoPositivo
+        cacheUsuarios.guardar(salvo); //umUsuarioRegravadoNaoPodeSeguirComOsDadosAntigosNoCache
+        return salvo;
     }
 
     @Override
     public void validarEmail(String email) {
+        if(!filtroEmails.talvezContenha(email)){
+            return;
+        }
         boolean existe = repository.existsByEmail(email);
         if(existe){
-            throw new RegraNegocioException("Já existe um usuário cadastrado com este email");
+            throw new RegraNegocioException(EMAIL_JA_CADASTRADO);
         }
-
+        filtroEmails.registrarFalsoPositivo();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Usuario> obterPorId(Long id) {
-        return repository.findById(id);
+        return cacheUsuarios.porId(id).map(UsuarioCacheado::paraUsuario);
+    }
+
+    //semIssoOValorMaiorQueAColunaSoEstouravaNoInsertComoErroDoBanco
+    private static void validarTamanhos(Usuario usuario){
+        if(usuario.getNome() != null && usuario.getNome().length() > TAMANHO_MAXIMO_NOME){
+            throw new RegraNegocioException("Informe um nome de até " + TAMANHO_MAXIMO_NOME + " caracteres!");
+        }
+        if(usuario.getEmail() != null && usuario.getEmail().length() > TAMANHO_MAXIMO_EMAIL){
+            throw new RegraNegocioException("Informe um email de até " + TAMANHO_MAXIMO_EMAIL + " caracteres!");
+        }
+        if(usuario.getSenha() != null && usuario.getSenha().length() > TAMANHO_MAXIMO_SENHA){
+            throw new RegraNegocioException("Informe uma senha de até " + TAMANHO_MAXIMO_SENHA + " caracteres!");
+        }
+    }
+
+    //oPostgresDevolveSoONomeDaConstraintEOH2ONomeComATabelaEOValorPorIssoOContains
+    private static boolean violouEmailUnico(DataIntegrityViolationException e){
+        for (Throwable causa = e; causa != null; causa = causa.getCause()) {
+            if(causa instanceof ConstraintViolationException){
+                String constraint = ((ConstraintViolationException) causa).getConstraintName();
+                return constraint != null && constraint.toLowerCase().contains(CONSTRAINT_EMAIL);
+            }
+        }
+        return false;
     }
 }
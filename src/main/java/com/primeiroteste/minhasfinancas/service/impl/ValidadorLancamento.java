@@ -0,0 +1,46 @@
+package com.primeiroteste.minhasfinancas.service.impl;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+//mesmaValidacaoParaOServicoJpaEOReativo
+public final class ValidadorLancamento {
+
+    public static final Set<StatusLancamento> STATUS_FINAIS = Collections.unmodifiableSet(EnumSet.of(StatusLancamento.CANCELADO));
+
+    private ValidadorLancamento(){
+    }
+
+    public static void validar(Lancamento lancamento) {
+        if(lancamento.getDescricao() == null || lancamento.getDescricao().trim().equals("")){
+            throw new RegraNegocioException("Informe descrição válida!");
+        }
+        if(lancamento.getMes() == null || lancamento.getMes() < 1 || lancamento.getMes() >12){
+            throw new RegraNegocioException("Informe um mês válido!");
+        }
+        if (lancamento.getAno() == null || lancamento.getAno().toString().length() != 4){
+            throw new RegraNegocioException("Informe um ano válido!");
+        }
+        if (lancamento.getUsuario() == null || lancamento.getUsuario().getId() == null){
+            throw new RegraNegocioException("Informe um usuário!");
+        }
+        if(lancamento.getValor() == null || lancamento.getValor().compareTo(BigDecimal.ZERO) < 1){
+            throw new RegraNegocioException("Informe um valor válido!");
+        }
+        if(lancamento.getTipoLancamento() == null){
+            throw new RegraNegocioException("Informe um tipo de lançamento!");
+        }
+    }
+
+    public static void validarMudancaDeStatus(StatusLancamento anterior, StatusLancamento novo){
+        if(anterior != novo && STATUS_FINAIS.contains(anterior)){
+            throw new RegraNegocioException("Não é possível alterar o status de lançamentos cancelados!");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.primeiroteste.minhasfinancas.service.indice;
+
+import com.primeiroteste.minhasfinancas.model.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+//filtroDeBloomDosEmailsCadastradosParaOCadastroSoIrAoBancoQuandoOEmailTalvezExista
+@Component
+public class FiltroEmails {
+
+    private static final String METRICA = "minhasfinancas.usuario.filtro.emails";
+
+    private final UsuarioRepository repository;
+    private final AtomicLongArray bits;
+    private final long tamanho;
+    private final int funcoes;
+    private final AtomicLong elementos = new AtomicLong();
+    private final Counter ausentes;
+    private final Counter talvez;
+    private final Counter falsosPositivos;
+    private volatile boolean carregado;
+
+    public FiltroEmails(UsuarioRepository repository, MeterRegistry registry,
+                        @Value("${minhasfinancas.usuario.filtro-emails.capacidade:1000000}") long capacidade,
+                        @Value("${minhasfinancas.usuario.filtro-emails.taxa-falso-positivo:0.01}") double taxaFalsoPositivo){
+        if(capacidade < 1 || taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1){
+            throw new IllegalArgumentException("Capacidade e taxa de falso positivo do filtro de emails inválidas!");
+        }
+        this.repository = repository;
+
+        //m = -n*ln(p)/ln(2)^2 e k = m/n*ln(2)
+        long bitsNecessarios = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((bitsNecessarios + 63) / 64));
+        this.tamanho = this.bits.length() * 64L;
+        this.funcoes = Math.max(1, (int) Math.round((double) tamanho / capacidade * Math.log(2)));
+
+        Gauge.builder(METRICA.concat(".capacidade"), () -> capacidade).register(registry);
+        Gauge.builder(METRICA.concat(".bits"), () -> tamanho).register(registry);
+        Gauge.builder(METRICA.concat(".funcoes.hash"), () -> funcoes).register(registry);
+        Gauge.builder(METRICA.concat(".elementos"), elementos, AtomicLong::get).register(registry);
+        Gauge.builder(METRICA.concat(".taxa.falso.positivo.configurada"), () -> taxaFalsoPositivo).register(registry);
+        Gauge.builder(METRICA.concat(".taxa.falso.positivo.estimada"), this, FiltroEmails::taxaFalsoPositivoEstimada)
+                .register(registry);
+        this.ausentes = registry.counter(METRICA.concat(".consultas"), "resultado", "ausente");
+        this.talvez = registry.counter(METRICA.concat(".consultas"), "resultado", "talvez");
+        this.falsosPositivos = registry.counter(METRICA.concat(".consultas"), "resultado", "falso_positivo");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar(){
+        //quemCadastraDuranteACargaJaMarcaOsBitsEntaoNaoPerdeNada
+        try (Stream<String> emails = repository.streamEmails()) {
+            emails.forEach(this::adicionar);
+        }
+        carregado = true;
+    }
+
+    public boolean talvezContenha(String email){
+        //antesDeCarregarNaoDaParaAfirmarQueNaoExisteEntaoVaiAoBanco
+        if(!carregado || email == null){
+            talvez.increment();
+            return true;
+        }
+        long[] hashes = hashes(email);
+        for (int i = 0; i < funcoes; i++) {
+            long posicao = posicao(hashes, i);
+            if((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0){
+                ausentes.increment();
+                return false;
+            }
+        }
+        talvez.increment();
+        return true;
+    }
+
+    public void adicionar(String email){
+        if(email == null){
+            return;
+        }
+        long[] hashes = hashes(email);
+        for (int i = 0; i < funcoes; i++) {
+            long posicao = posicao(hashes, i);
+            long mascara = 1L << posicao;
+            bits.accumulateAndGet((int) (posicao >>> 6), mascara, (atual, bit) -> atual | bit);
+        }
+        elementos.incrementAndGet();
+    }
+
+    public void registrarFalsoPositivo(){
+        falsosPositivos.increment();
+    }
+
+    public boolean isCarregado(){
+        return carregado;
+    }
+
+    double taxaFalsoPositivoEstimada(){
+        long ligados = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            ligados += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) ligados / tamanho, funcoes);
+    }
+
+    //duploHashingKirschMitzenmacherComFnv1aEMistura64Bits
+    private long posicao(long[] hashes, int i){
+        return Long.remainderUnsigned(hashes[0] + i * hashes[1], tamanho);
+    }
+
+    private static long[] hashes(String email){
+        long h1 = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            h1 ^= b;
+            h1 *= 0x100000001b3L;
+        }
+        long h2 = h1;
+        h2 ^= h2 >>> 33;
+        h2 *= 0xff51afd7ed558ccdL;
+        h2 ^= h2 >>> 33;
+        h2 *= 0xc4ceb9fe1a85ec53L;
+        h2 ^= h2 >>> 33;
+        return new long[]{h1, h2 | 1};
+    }
+}
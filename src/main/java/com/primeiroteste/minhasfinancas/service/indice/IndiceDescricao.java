@@ -0,0 +1,217 @@
+package com.primeiroteste.minhasfinancas.service.indice;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoDescricao;
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+//indiceDeTrigramasDaDescricaoPorUsuarioParaOContainingNaoVirarLikeComPorcentagemNoBanco
+//limitadoEmUsuariosECadaUmRecarregadoDoBancoDepoisDaValidadeParaPegarOQueOutraInstanciaGravou
+@Component
+public class IndiceDescricao {
+
+    private final LancamentoRepository repository;
+    private final Cache<Long, IndiceUsuario> indices;
+    private final Map<Long, Carga> cargas = new ConcurrentHashMap<>();
+
+    public IndiceDescricao(LancamentoRepository repository,
+                           @Value("${minhasfinancas.indice-descricao.capacidade:10000}") long capacidade,
+                           @Value("${minhasfinancas.indice-descricao.validade:1h}") Duration validade){
+        this.repository = repository;
+        this.indices = Caffeine.newBuilder()
+                .maximumSize(capacidade)
+                .expireAfter(new ValidadeDesdeACarga(validade))
+                .build();
+    }
+
+    public Set<Long> buscar(Long idUsuario, String trecho){
+        IndiceUsuario indice = indices.getIfPresent(idUsuario);
+        if(indice == null){
+            indice = carregar(idUsuario);
+        }
+        return indice.buscar(normalizar(trecho));
+    }
+
+    public void indexar(Long idUsuario, Long id, String descricao){
+        aposCommit(() -> aplicar(idUsuario, indice -> indice.indexar(id, normalizar(descricao))));
+    }
+
+    public void remover(Long idUsuario, Long id){
+        aposCommit(() -> aplicar(idUsuario, indice -> indice.remover(id)));
+    }
+
+    public void limpar(){
+        indices.invalidateAll();
+    }
+
+    //aConsultaRodaForaDeQualquerLockDoMapaQuemGravaDuranteElaFicaNaFilaDaCargaEEReaplicadoNoFim
+    private IndiceUsuario carregar(Long idUsuario){
+        Carga carga = new Carga();
+        Carga emAndamento = cargas.putIfAbsent(idUsuario, carga);
+        if(emAndamento != null){
+            return emAndamento.indice.join(); //outraRequisicaoJaEstaCarregandoEsteUsuario
+        }
+        try {
+            IndiceUsuario indice = new IndiceUsuario();
+            for (LancamentoDescricao lancamento : repository.listarDescricoesPorUsuario(idUsuario)) {
+                indice.indexar(lancamento.getId(), normalizar(lancamento.getDescricao()));
+            }
+            synchronized (carga) {
+                carga.pendentes.forEach(alteracao -> alteracao.accept(indice));
+                indices.put(idUsuario, indice);
+                carga.concluida = true;
+            }
+            carga.indice.complete(indice);
+            return indice;
+        }catch (RuntimeException e){
+            carga.indice.completeExceptionally(e);
+            throw e;
+        }finally {
+            cargas.remove(idUsuario, carga);
+        }
+    }
+
+    //usuarioQueNuncaBuscouNaoTemIndiceEntaoNaoCarregaNadaAoGravar
+    private void aplicar(Long idUsuario, Consumer<IndiceUsuario> alteracao){
+        Carga carga = cargas.get(idUsuario);
+        if(carga != null){
+            synchronized (carga) {
+                if(!carga.concluida){
+                    carga.pendentes.add(alteracao);
+                    return;
+                }
+            }
+        }
+        indices.asMap().computeIfPresent(idUsuario, (chave, indice) -> {
+            alteracao.accept(indice);
+            return indice;
+        });
+    }
+
+    //soMexeNoIndiceDepoisDoCommitParaUmRollbackNaoDeixarOIndiceDiferenteDoBanco
+    private void aposCommit(Runnable acao){
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        }else{
+            acao.run();
+        }
+    }
+
+    private static String normalizar(String texto){
+        return texto == null ? "" : texto.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Carga {
+
+        private final CompletableFuture<IndiceUsuario> indice = new CompletableFuture<>();
+        private final List<Consumer<IndiceUsuario>> pendentes = new ArrayList<>();
+        private boolean concluida;
+    }
+
+    //aValidadeContaDaCargaEAsGravacoesNoIndiceNaoEmpurramARecargaPraFrente
+    private static class ValidadeDesdeACarga implements Expiry<Long, IndiceUsuario> {
+
+        private final long validade;
+
+        ValidadeDesdeACarga(Duration validade){
+            this.validade = validade.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long idUsuario, IndiceUsuario indice, long agora) {
+            return validade;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long idUsuario, IndiceUsuario indice, long agora, long restante) {
+            return restante;
+        }
+
+        @Override
+        public long expireAfterRead(Long idUsuario, IndiceUsuario indice, long agora, long restante) {
+            return restante;
+        }
+    }
+
+    static class IndiceUsuario {
+
+        private final Map<String, Set<Long>> trigramas = new HashMap<>();
+        private final Map<Long, String> descricoes = new HashMap<>();
+
+        synchronized void indexar(Long id, String descricao){
+            remover(id);
+            descricoes.put(id, descricao);
+            for (String trigrama : trigramas(descricao)) {
+                trigramas.computeIfAbsent(trigrama, t -> new HashSet<>()).add(id);
+            }
+        }
+
+        synchronized void remover(Long id){
+            String anterior = descricoes.remove(id);
+            if(anterior == null){
+                return;
+            }
+            for (String trigrama : trigramas(anterior)) {
+                Set<Long> ids = trigramas.get(trigrama);
+                if(ids != null && ids.remove(id) && ids.isEmpty()){
+                    trigramas.remove(trigrama);
+                }
+            }
+        }
+
+        synchronized Set<Long> buscar(String trecho){
+            Set<Long> candidatos;
+            if(trecho.length() < 3){
+                candidatos = descricoes.keySet(); //trechoCurtoNaoTemTrigramaEntaoConfereTodas
+            }else{
+                candidatos = null;
+                for (String trigrama : trigramas(trecho)) {
+                    Set<Long> ids = trigramas.getOrDefault(trigrama, Collections.emptySet());
+                    if(candidatos == null || ids.size() < candidatos.size()){
+                        candidatos = ids; //comecaPeloMenorConjunto
+                    }
+                }
+            }
+
+            //osTrigramasPodemAparecerForaDeOrdemEntaoConfirmaOTrechoInteiro
+            Set<Long> encontrados = new HashSet<>();
+            for (Long id : candidatos) {
+                if(descricoes.get(id).contains(trecho)){
+                    encontrados.add(id);
+                }
+            }
+            return encontrados;
+        }
+
+        private static Set<String> trigramas(String texto){
+            Set<String> trigramas = new HashSet<>();
+            for (int i = 0; i + 3 <= texto.length(); i++) {
+                trigramas.add(texto.substring(i, i + 3));
+            }
+            return trigramas;
+        }
+    }
+}
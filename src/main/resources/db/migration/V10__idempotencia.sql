@@ -0,0 +1,10 @@
+-- respostas ja dadas por Idempotency-Key para a retentativa do cliente nao gravar de novo
+create table if not exists financas.idempotencia (
+    chave varchar(300) not null primary key,
+    status integer not null,
+    tipo_conteudo varchar(100),
+    corpo text,
+    data_criacao timestamp not null
+);
+
+create index if not exists idx_idempotencia_data_criacao on financas.idempotencia (data_criacao);
@@ -0,0 +1,5 @@
+-- a chave e reservada antes de executar: linha sem status e requisicao em andamento
+alter table financas.idempotencia alter column status drop not null;
+
+-- hash do corpo para recusar a mesma chave com outra requisicao
+alter table financas.idempotencia add column if not exists hash_requisicao varchar(64);
@@ -0,0 +1,6 @@
+-- total de receitas e despesas por usuario, somado a cada escrita de lancamento
+create table if not exists financas.saldo_usuario (
+    id_usuario bigint primary key,
+    total_receitas numeric(16,2) not null,
+    total_despesas numeric(16,2) not null
+);
@@ -0,0 +1,2 @@
+-- o hibernate reserva 50 ids por chamada para o insert em lote; no postgres o db/postgresql/V3_1 pula os ids que ja existem
+create sequence if not exists financas.lancamento_seq start with 1 increment by 50;
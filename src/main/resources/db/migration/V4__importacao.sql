@@ -0,0 +1,13 @@
+-- acompanhamento das importacoes de extrato em blocos
+create table if not exists financas.importacao (
+    id bigint generated by default as identity primary key,
+    id_usuario bigint,
+    formato varchar(10),
+    status varchar(20),
+    linhas_processadas bigint,
+    linhas_importadas bigint,
+    linhas_com_erro bigint,
+    mensagem varchar(1000),
+    data_inicio timestamp,
+    data_atualizacao timestamp
+);
@@ -0,0 +1,2 @@
+-- trava otimista do lancamento, vira o etag da api
+alter table financas.lancamento add column if not exists versao bigint not null default 0;
@@ -0,0 +1,2 @@
+-- lancamento excluido fica marcado ate o expurgo apagar de vez
+alter table financas.lancamento add column if not exists deleted_at timestamp;
@@ -0,0 +1,10 @@
+-- login e cadastro: findByEmail / existsByEmail
+create unique index if not exists uk_usuario_email on financas.usuario (email);
+
+-- saldo por tipo: filtra (id_usuario, tipo) e o deleted_at do @Where e soma valor sem ir na tabela
+create index if not exists idx_lancamento_usuario_tipo_valor on financas.lancamento (id_usuario, tipo, deleted_at, valor);
+
+-- buscar paginado: filtra (id_usuario, ano, mes) e ordena por ano, mes, id pro cursor
+create index if not exists idx_lancamento_usuario_ano_mes on financas.lancamento (id_usuario, ano, mes, id);
+
+create index if not exists idx_importacao_usuario on financas.importacao (id_usuario);
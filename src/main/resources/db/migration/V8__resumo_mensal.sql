@@ -0,0 +1,17 @@
+-- uma linha por usuario, mes, tipo e status; a chave ja e o indice da leitura do ano
+create table if not exists financas.lancamento_resumo_mensal (
+    id_usuario bigint not null,
+    ano integer not null,
+    mes integer not null,
+    tipo varchar(20) not null,
+    status varchar(20) not null,
+    valor_total numeric(16,2) not null,
+    quantidade bigint not null,
+    primary key (id_usuario, ano, mes, tipo, status)
+);
+
+insert into financas.lancamento_resumo_mensal (id_usuario, ano, mes, tipo, status, valor_total, quantidade)
+select id_usuario, ano, mes, tipo, status, sum(valor), count(*)
+from financas.lancamento
+where deleted_at is null
+group by id_usuario, ano, mes, tipo, status;
@@ -0,0 +1,5 @@
+-- lancamentos gerados juntos por uma recorrencia ou parcelamento
+alter table financas.lancamento add column if not exists id_serie varchar(36);
+alter table financas.lancamento add column if not exists parcela integer;
+
+create index if not exists idx_lancamento_serie on financas.lancamento (id_serie, parcela);
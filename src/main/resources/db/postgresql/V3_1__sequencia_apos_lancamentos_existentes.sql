@@ -0,0 +1,2 @@
+-- o proximo nextval devolve max(id) + 50 e o hibernate usa de max(id) + 1 ate ele
+select setval('financas.lancamento_seq', coalesce((select max(id) from financas.lancamento), 0) + 50, false);
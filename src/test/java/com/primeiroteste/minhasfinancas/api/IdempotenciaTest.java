@@ -0,0 +1,56 @@
+package com.primeiroteste.minhasfinancas.api;
+
+import com.primeiroteste.minhasfinancas.model.repository.IdempotenciaRepository;
+import com.primeiroteste.minhasfinancas.model.repository.UsuarioRepository;
+import com.primeiroteste.minhasfinancas.service.IdempotenciaService;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class IdempotenciaTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    IdempotenciaRepository idempotenciaRepository;
+
+    @Test
+    public void deveCadastrarOUsuarioUmaVezSoNaRetentativaComAMesmaChave() throws Exception{
+        String json = "{\"nome\":\"idempotente\",\"email\":\"idempotente@email.com\",\"senha\":\"senha\"}";
+
+        String primeira = mvc.perform(MockMvcRequestBuilders.post("/api/usuarios")
+                .header(IdempotenciaService.CHAVE, "cadastro-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String repetida = mvc.perform(MockMvcRequestBuilders.post("/api/usuarios")
+                .header(IdempotenciaService.CHAVE, "cadastro-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string(IdempotenciaService.REPETIDA, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertThat(repetida).isEqualTo(primeira);
+        Assertions.assertThat(usuarioRepository.existsByEmail("idempotente@email.com")).isTrue();
+        Assertions.assertThat(idempotenciaRepository.findById("usuarios:idempotente@email.com:cadastro-1")).isPresent();
+    }
+}
@@ -0,0 +1,71 @@
+package com.primeiroteste.minhasfinancas.api.resource;
+
+import com.primeiroteste.minhasfinancas.api.filter.TokenFilter;
+import com.primeiroteste.minhasfinancas.model.entity.Importacao;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusImportacao;
+import com.primeiroteste.minhasfinancas.service.ImportacaoService;
+import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = ImportacaoResource.class)
+@AutoConfigureMockMvc
+public class ImportacaoResourceTest {
+
+    static final String API = "/api/importacoes";
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    ImportacaoService service;
+
+    @MockBean
+    UsuarioService usuarioService;
+
+    @Test
+    public void deveImportarParaOUsuarioDoTokenSemConsultarOBanco() throws Exception{
+        Mockito.when(service.importar(Mockito.argThat(usuario -> usuario.getId() == 1l), Mockito.eq("csv"), Mockito.any(InputStream.class)))
+                .thenReturn(Importacao.builder().id(9l).idUsuario(1l).status(StatusImportacao.CONCLUIDA).build());
+
+        mvc.perform(MockMvcRequestBuilders.post(API.concat("?formato=csv"))
+                .requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l)
+                .content("data;descricao;valor"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value(9));
+        mvc.perform(MockMvcRequestBuilders.post(API.concat("?formato=csv&usuario=2"))
+                .requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l)
+                .content("data;descricao;valor"))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        Mockito.verify(usuarioService, Mockito.never()).obterPorId(Mockito.anyLong());
+        Mockito.verify(service, Mockito.never()).importar(Mockito.argThat(usuario -> usuario.getId() == 2l),
+                Mockito.anyString(), Mockito.any(InputStream.class));
+    }
+
+    @Test
+    public void deveRetornarForbiddenAoAcompanharImportacaoDeOutroUsuario() throws Exception{
+        Mockito.when(service.obterPorId(9l)).thenReturn(Optional.of(Importacao.builder().id(9l).idUsuario(2l).build()));
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/9")).requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/9")).requestAttr(TokenFilter.USUARIO_AUTENTICADO, 2l))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+}
@@ -0,0 +1,355 @@
+package com.primeiroteste.minhasfinancas.api.resource;
+
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.api.filter.TokenFilter;
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.FrequenciaRecorrencia;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoRecorrencia;
+import com.primeiroteste.minhasfinancas.model.repository.CursorLancamento;
+import com.primeiroteste.minhasfinancas.service.IdempotenciaService;
+import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.Consumer;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = LancamentoResource.class, properties = "minhasfinancas.lancamento.lote.tamanho-maximo=2")
+@AutoConfigureMockMvc
+public class LancamentoResourceTest {
+
+    static final String API = "/api/lancamentos";
+    static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    LancamentoService service;
+
+    @MockBean
+    UsuarioService usuarioService;
+
+    @MockBean
+    IdempotenciaService idempotenciaService;
+
+    @Before
+    public void setUp(){
+        Mockito.when(idempotenciaService.executar(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ResponseEntity>>getArgument(3).get());
+    }
+
+    @Test
+    public void deveBuscarUmaPaginaDeLancamentosComOIdDoUsuario() throws Exception{
+        Usuario usuario = Usuario.builder().id(1l).senha("senha").build();
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(usuario));
+        LancamentoDto primeiro = new LancamentoDto(5l, "Aluguel", 1, 2020, BigDecimal.TEN, 1l,
+                TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+        LancamentoDto segundo = new LancamentoDto(6l, "Luz", 2, 2020, BigDecimal.ONE, 1l,
+                TipoLancamento.DESPESA, StatusLancamento.PENDENTE);
+        Mockito.when(service.buscar(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.eq(2)))
+                .thenReturn(new ArrayList<>(Arrays.asList(primeiro, segundo)));
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=1&tamanho=1")).accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("itens.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("itens[0].usuario").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("itens[0].tipo").value("DESPESA"))
+                .andExpect(MockMvcResultMatchers.jsonPath("proximoCursor")
+                        .value(CursorLancamento.de(primeiro).toToken()));
+    }
+
+    @Test
+    public void deveSalvarUmLoteInformandoOErroDeCadaItem() throws Exception{
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(usuario));
+        Mockito.doThrow(new RegraNegocioException("Informe um valor válido!"))
+                .when(service).validar(Mockito.argThat(lancamento -> lancamento.getValor() == null));
+        Mockito.when(service.salvarLote(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Lancamento> lancamentos = invocation.getArgument(0);
+            lancamentos.get(0).setId(100l);
+            return lancamentos;
+        });
+
+        String json = "[{\"descricao\":\"Mercado\",\"mes\":1,\"ano\":2020,\"valor\":10,\"usuario\":1,\"tipo\":\"DESPESA\"}," +
+                "{\"descricao\":\"Sem valor\",\"mes\":1,\"ano\":2020,\"usuario\":1,\"tipo\":\"DESPESA\"}]";
+
+        mvc.perform(MockMvcRequestBuilders.post(API.concat("/lote"))
+                .accept(JSON)
+                .contentType(JSON)
+                .content(json))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].id").value(100))
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].erro").value("Informe um valor válido!"));
+
+        Mockito.verify(usuarioService, Mockito.times(1)).obterPorId(1l);
+    }
+
+    @Test
+    public void deveRecusarUmLoteAcimaDoTamanhoMaximo() throws Exception{
+        String item = "{\"descricao\":\"Mercado\",\"mes\":1,\"ano\":2020,\"valor\":10,\"usuario\":1,\"tipo\":\"DESPESA\"}";
+
+        mvc.perform(MockMvcRequestBuilders.post(API.concat("/lote"))
+                .contentType(JSON)
+                .content("[" + item + "," + item + "," + item + "]"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.verify(service, Mockito.never()).salvarLote(Mockito.anyList());
+    }
+
+    @Test
+    public void deveExportarOsLancamentosEmCsv() throws Exception{
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Lancamento lancamento = Lancamento.builder().id(10l).descricao("Aluguel").mes(1).ano(2020)
+                .valor(BigDecimal.valueOf(900)).usuario(usuario)
+                .tipoLancamento(TipoLancamento.DESPESA).statusLancamento(StatusLancamento.PENDENTE).build();
+
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(usuario));
+        Mockito.doAnswer(invocation -> {
+            Consumer<Lancamento> consumidor = invocation.getArgument(1);
+            consumidor.accept(lancamento);
+            return null;
+        }).when(service).exportar(Mockito.eq(1l), Mockito.any());
+
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export?usuario=1&format=csv")))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        Assertions.assertThat(resultado.getRequest().getAsyncContext().getTimeout()).isEqualTo(TimeUnit.MINUTES.toMillis(30));
+
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(
+                        "id,descricao,mes,ano,valor,tipo,status,data_cadastro\n" +
+                        "10,\"Aluguel\",1,2020,900,DESPESA,PENDENTE,\n"));
+    }
+
+    @Test
+    public void deveRetornarBadRequestAoExportarEmFormatoInvalido() throws Exception{
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+
+        MvcResult resultado = mvc.perform(MockMvcRequestBuilders.get(API.concat("/export?usuario=1&format=xml")))
+                .andReturn();
+
+        mvc.perform(MockMvcRequestBuilders.asyncDispatch(resultado))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        Mockito.verify(service, Mockito.never()).exportar(Mockito.anyLong(), Mockito.any());
+    }
+
+    @Test
+    public void deveUsarOUsuarioDoTokenSemConsultarOBanco() throws Exception{
+        Mockito.when(service.buscar(Mockito.any(Lancamento.class), Mockito.isNull(), Mockito.anyInt()))
+                .thenReturn(new ArrayList<>());
+
+        mvc.perform(MockMvcRequestBuilders.get(API).requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Mockito.verify(usuarioService, Mockito.never()).obterPorId(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveRetornarForbiddenAoBuscarLancamentosDeOutroUsuario() throws Exception{
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("?usuario=2")).requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        Mockito.verify(service, Mockito.never()).buscar(Mockito.any(Lancamento.class), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    public void deveRetornarForbiddenAoDeletarLancamentoDeOutroUsuario() throws Exception{
+        Lancamento lancamento = Lancamento.builder().id(10l).usuario(Usuario.builder().id(2l).build()).build();
+        Mockito.when(service.obterPorId(10l)).thenReturn(Optional.of(lancamento));
+
+        mvc.perform(MockMvcRequestBuilders.delete(API.concat("/10")).requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l))
+                .andExpect(MockMvcResultMatchers.status().isForbidden());
+
+        Mockito.verify(service, Mockito.never()).deletar(Mockito.any(Lancamento.class));
+    }
+
+    @Test
+    public void deveAtualizarOStatusEmLoteRetornandoAQuantidadeAlterada() throws Exception{
+        Mockito.when(service.atualizarStatus(Mockito.any(Lancamento.class), Mockito.anyList(), Mockito.eq(StatusLancamento.EFETIVADO)))
+                .thenReturn(3);
+
+        String json = "{\"status\":\"EFETIVADO\",\"ids\":[1,2,3]}";
+
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/atualiza-status"))
+                .requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l)
+                .accept(JSON)
+                .contentType(JSON)
+                .content(json))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("3"));
+
+        //comTokenOsIdsFicamRestritosAoUsuarioAutenticado
+        Mockito.verify(service).atualizarStatus(Mockito.argThat(filtro -> filtro.getUsuario().getId().equals(1l)),
+                Mockito.eq(Arrays.asList(1l, 2l, 3l)), Mockito.eq(StatusLancamento.EFETIVADO));
+    }
+
+    @Test
+    public void deveRetornarBadRequestAoAtualizarEmLoteLancamentosCancelados() throws Exception{
+        Mockito.when(service.atualizarStatus(Mockito.any(Lancamento.class), Mockito.any(), Mockito.any(StatusLancamento.class)))
+                .thenThrow(new RegraNegocioException("Não é possível alterar o status de lançamentos cancelados!"));
+
+        String json = "{\"status\":\"EFETIVADO\",\"usuario\":1,\"ano\":2020,\"mes\":1}";
+
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/atualiza-status"))
+                .accept(JSON)
+                .contentType(JSON)
+                .content(json))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void deveResponderNotModifiedQuandoAVersaoNaoMudou() throws Exception{
+        Lancamento lancamento = Lancamento.builder().id(10l).descricao("Aluguel").versao(3l)
+                .usuario(Usuario.builder().id(1l).build()).build();
+        Mockito.when(service.obterPorId(10l)).thenReturn(Optional.of(lancamento));
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/10")).accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("versao").value(3));
+
+        mvc.perform(MockMvcRequestBuilders.get(API.concat("/10")).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    public void deveAtualizarOStatusComIfMatchSemLerOLancamentoAntes() throws Exception{
+        Lancamento atualizado = Lancamento.builder().id(10l).versao(6l).statusLancamento(StatusLancamento.EFETIVADO)
+                .usuario(Usuario.builder().id(1l).build()).build();
+        Mockito.when(service.atualizarStatusNaVersao(10l, 5l, 1l, StatusLancamento.EFETIVADO)).thenReturn(Optional.of(atualizado));
+
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/10/atualiza-status"))
+                .requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l)
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .contentType(JSON)
+                .content("{\"status\":\"EFETIVADO\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"6\""))
+                .andExpect(MockMvcResultMatchers.jsonPath("status").value("EFETIVADO"));
+
+        Mockito.verify(service, Mockito.never()).obterPorId(Mockito.anyLong());
+    }
+
+    @Test
+    public void deveRetornarBadRequestComStatusInvalidoOuCanceladoNoIfMatch() throws Exception{
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/10/atualiza-status"))
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .contentType(JSON)
+                .content("{\"status\":\"INEXISTENTE\"}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        Mockito.when(service.atualizarStatusNaVersao(10l, 5l, null, StatusLancamento.PENDENTE))
+                .thenThrow(new RegraNegocioException("Não é possível alterar o status de lançamentos cancelados!"));
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/10/atualiza-status"))
+                .header(HttpHeaders.IF_MATCH, "\"5\"")
+                .contentType(JSON)
+                .content("{\"status\":\"PENDENTE\"}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void deveRetornarPreconditionFailedAoDeletarUmaVersaoDesatualizada() throws Exception{
+        Lancamento lancamento = Lancamento.builder().id(10l).versao(4l).usuario(Usuario.builder().id(1l).build()).build();
+        Mockito.when(service.obterPorId(10l)).thenReturn(Optional.of(lancamento));
+
+        mvc.perform(MockMvcRequestBuilders.delete(API.concat("/10")).header(HttpHeaders.IF_MATCH, "\"3\""))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        Mockito.verify(service, Mockito.never()).deletar(Mockito.any(Lancamento.class));
+    }
+
+    @Test
+    public void deveSalvarUmaSerieParceladaComecandoNoMesDaRecorrencia() throws Exception{
+        Mockito.when(usuarioService.obterPorId(1l)).thenReturn(Optional.of(Usuario.builder().id(1l).build()));
+        Mockito.when(service.salvarSerie(Mockito.argThat(modelo -> modelo.getMes() == 11 && modelo.getAno() == 2020),
+                Mockito.eq(TipoRecorrencia.PARCELADO), Mockito.eq(FrequenciaRecorrencia.MENSAL), Mockito.eq(2)))
+                .thenReturn(Arrays.asList(
+                        Lancamento.builder().id(1l).mes(11).ano(2020).idSerie("s1").parcela(1).usuario(Usuario.builder().id(1l).build()).build(),
+                        Lancamento.builder().id(2l).mes(12).ano(2020).idSerie("s1").parcela(2).usuario(Usuario.builder().id(1l).build()).build()));
+
+        String json = "{\"descricao\":\"Geladeira\",\"mes\":1,\"ano\":2020,\"valor\":100,\"usuario\":1,\"tipo\":\"DESPESA\"," +
+                "\"recorrencia\":{\"tipo\":\"PARCELADO\",\"quantidade\":2,\"mesInicio\":11,\"anoInicio\":2020}}";
+
+        mvc.perform(MockMvcRequestBuilders.post(API)
+                .accept(JSON)
+                .contentType(JSON)
+                .content(json))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].serie").value("s1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].parcela").value(2));
+
+        Mockito.verify(service, Mockito.never()).salvar(Mockito.any(Lancamento.class));
+    }
+
+    @Test
+    public void deveAlterarECancelarASerieSoDoUsuarioDoToken() throws Exception{
+        Mockito.when(service.atualizarSerie(Mockito.argThat(filtro -> "s1".equals(filtro.getIdSerie())
+                && filtro.getUsuario().getId() == 1l), Mockito.argThat(alteracao -> alteracao.getTipoLancamento() == null)))
+                .thenReturn(3);
+        Mockito.when(service.cancelarSerie(Mockito.argThat(filtro -> filtro.getUsuario().getId() == 1l))).thenReturn(2);
+
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/serie/s1"))
+                .requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l)
+                .contentType(JSON)
+                .content("{\"valor\":80}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("3"));
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/serie/s1/cancela"))
+                .requestAttr(TokenFilter.USUARIO_AUTENTICADO, 1l))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string("2"));
+        mvc.perform(MockMvcRequestBuilders.put(API.concat("/serie/s1"))
+                .contentType(JSON)
+                .content("{\"tipo\":\"OUTRO\"}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void deveSepararAIdempotencyKeyPorUsuarioERecusarSemUsuario() throws Exception{
+        mvc.perform(MockMvcRequestBuilders.post(API)
+                .header(IdempotenciaService.CHAVE, "chave-1")
+                .contentType(JSON)
+                .content("{\"descricao\":\"Aluguel\",\"mes\":1,\"ano\":2020,\"valor\":100,\"tipo\":\"DESPESA\"}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.post(API)
+                .header(IdempotenciaService.CHAVE, "chave-1")
+                .contentType(JSON)
+                .content("{\"descricao\":\"Aluguel\",\"mes\":1,\"ano\":2020,\"valor\":100,\"usuario\":2,\"tipo\":\"DESPESA\"}"));
+
+        Mockito.verify(idempotenciaService).executar(Mockito.eq("lancamentos:2"), Mockito.eq("chave-1"), Mockito.any(), Mockito.any());
+        Mockito.verify(idempotenciaService, Mockito.times(1)).executar(Mockito.anyString(), Mockito.eq("chave-1"), Mockito.any(), Mockito.any());
+    }
+}
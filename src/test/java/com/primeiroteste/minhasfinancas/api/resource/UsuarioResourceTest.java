@@ -4,9 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.primeiroteste.minhasfinancas.api.dto.UsuarioDto;
 import com.primeiroteste.minhasfinancas.exception.ErroAutenticacao;
 import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.ChaveResumoMensal;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
 import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.service.IdempotenciaService;
 import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import com.primeiroteste.minhasfinancas.service.TokenService;
 import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -15,6 +22,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
@@ -22,6 +30,12 @@ import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilde
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Supplier;
+
 @RunWith(SpringRunner.class)
 @ActiveProfiles("test")
 @WebMvcTest(controllers = UsuarioResource.class)
@@ -40,6 +54,18 @@ public class UsuarioResourceTest {
     @MockBean
     LancamentoService lancamentoService;
 
+    @MockBean
+    TokenService tokenService;
+
+    @MockBean
+    IdempotenciaService idempotenciaService;
+
+    @Before
+    public void setUp(){
+        Mockito.when(idempotenciaService.executar(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<ResponseEntity>>getArgument(3).get());
+    }
+
     @Test
     public void deveAutenticarUmUsuario() throws Exception{
         String email = "usuario@email.com";
@@ -49,6 +75,8 @@ public class UsuarioResourceTest {
         Usuario usuario = Usuario.builder().id(1l).email(email).senha(senha).build();
 
         Mockito.when(service.autenticar(email,senha)).thenReturn(usuario);
+        Mockito.when(tokenService.gerarToken(usuario)).thenReturn("token");
+        Mockito.when(tokenService.obterExpiracao("token")).thenReturn(Instant.ofEpochSecond(100));
 
         String json = new ObjectMapper().writeValueAsString(dto);
 
@@ -61,7 +89,9 @@ public class UsuarioResourceTest {
                  .andExpect(MockMvcResultMatchers.status().isOk())
                  .andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
                  .andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-                 .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+                 .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+                 .andExpect(MockMvcResultMatchers.jsonPath("token").value("token"))
+                 .andExpect(MockMvcResultMatchers.jsonPath("expiracao").value(100));
     }
 
     @Test
@@ -103,7 +133,8 @@ public class UsuarioResourceTest {
                 .andExpect(MockMvcResultMatchers.status().isCreated())
                 .andExpect(MockMvcResultMatchers.jsonPath("id").value(usuario.getId()))
                 .andExpect(MockMvcResultMatchers.jsonPath("nome").value(usuario.getNome()))
-                .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()));
+                .andExpect(MockMvcResultMatchers.jsonPath("email").value(usuario.getEmail()))
+                .andExpect(MockMvcResultMatchers.jsonPath("senha").doesNotExist()); //aRespostaFicaGuardadaNaIdempotencia
     }
 
     @Test
@@ -126,6 +157,23 @@ public class UsuarioResourceTest {
 
     }
 
-
-
+    @Test
+    public void deveRetornarOResumoDoAnoNumaUnicaChamada() throws Exception{
+        Usuario usuario = Usuario.builder().id(1l).email("usuario@email.com").build();
+        ResumoMensal resumo = ResumoMensal.builder()
+                .chave(new ChaveResumoMensal(1l, 2020, 3, TipoLancamento.DESPESA, StatusLancamento.PENDENTE))
+                .valorTotal(BigDecimal.valueOf(120))
+                .quantidade(2l)
+                .build();
+        Mockito.when(service.obterPorId(1l)).thenReturn(Optional.of(usuario));
+        Mockito.when(lancamentoService.obterResumoPorAno(1l, 2020)).thenReturn(Arrays.asList(resumo));
+
+        mvc.perform(MockMvcRequestBuilders.get(API + "/1/resumo").param("ano", "2020").accept(JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].mes").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].tipo").value("DESPESA"))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].status").value("PENDENTE"))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].valor").value(120))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].quantidade").value(2));
+    }
 }
@@ -0,0 +1,24 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import org.assertj.core.api.Assertions;
+
+//usoNosTestes: Consultas.assertConsultas(1, () -> repository.buscarPagina(filtro, null, 10));
+public final class Consultas {
+
+    private Consultas(){
+    }
+
+    public static int contar(Runnable operacao){
+        ContadorConsultas.iniciar();
+        try {
+            operacao.run();
+            return ContadorConsultas.obter();
+        }finally {
+            ContadorConsultas.encerrar();
+        }
+    }
+
+    public static void assertConsultas(int esperado, Runnable operacao){
+        Assertions.assertThat(contar(operacao)).as("quantidade de consultas ao banco").isEqualTo(esperado);
+    }
+}
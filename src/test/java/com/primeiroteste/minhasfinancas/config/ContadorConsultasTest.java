@@ -0,0 +1,88 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import com.primeiroteste.minhasfinancas.api.filter.ContadorConsultasFilter;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import com.primeiroteste.minhasfinancas.service.TokenService;
+import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ContadorConsultasTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UsuarioService usuarioService;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    TokenService tokenService;
+
+    @Test
+    public void deveInformarAQuantidadeDeConsultasDaRequisicaoNoCabecalho() throws Exception{
+        Usuario usuario = usuarioService.salvarUsuario(Usuario.builder()
+                .nome("consultas").email("consultas@email.com").senha("senha").build());
+        List<Lancamento> lancamentos = new ArrayList<>();
+        for (int mes = 1; mes <= 5; mes++) {
+            lancamentos.add(Lancamento.builder().usuario(usuario).descricao("Lancamento").mes(mes).ano(2020)
+                    .valor(BigDecimal.TEN).tipoLancamento(TipoLancamento.DESPESA)
+                    .statusLancamento(StatusLancamento.PENDENTE).build());
+        }
+        lancamentoService.salvarLote(lancamentos);
+        String token = tokenService.gerarToken(usuario);
+
+        //soAConsultaDaPaginaOUsuarioVemDoTokenENaoHaNMaisUm
+        mvc.perform(MockMvcRequestBuilders.get("/api/lancamentos").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(ContadorConsultasFilter.CABECALHO, "1"));
+    }
+
+    @Test
+    public void deveSomarNaRequisicaoAsConsultasDaThreadAssincrona() throws Exception{
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        AtomicInteger contador = new AtomicInteger(1);
+        request.setAttribute(ContadorConsultas.ATRIBUTO, contador);
+        ServletWebRequest webRequest = new ServletWebRequest(request);
+        ContadorConsultasAssincrono interceptor = new ContadorConsultasAssincrono();
+
+        Thread executor = new Thread(() -> {
+            interceptor.preProcess(webRequest, () -> null);
+            ContadorConsultas.registrar();
+            ContadorConsultas.registrar();
+            interceptor.postProcess(webRequest, () -> null, null);
+            ContadorConsultas.registrar(); //depoisDoPostProcessNaoContaMais
+        });
+        executor.start();
+        executor.join();
+
+        Assertions.assertThat(contador.get()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,75 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import com.primeiroteste.minhasfinancas.exception.ErroAutenticacao;
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.hamcrest.Matchers.containsString;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("test")
+public class MetricasTest {
+
+    @Autowired
+    UsuarioService service;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Test
+    public void deveMedirAsChamadasDoServicoEDoRepositorioPorResultado(){
+        String email = "metricas@email.com";
+        double antes = contagem(MetricasAspect.REPOSITORIO, "UsuarioRepository", "save", "sucesso");
+
+        service.salvarUsuario(Usuario.builder().nome("metricas").email(email).senha("senha").build());
+        Throwable repetido = Assertions.catchThrowable(() ->
+                service.salvarUsuario(Usuario.builder().nome("metricas").email(email).senha("senha").build()));
+        Throwable senhaErrada = Assertions.catchThrowable(() -> service.autenticar(email, "errada"));
+
+        Assertions.assertThat(repetido).isInstanceOf(RegraNegocioException.class);
+        Assertions.assertThat(senhaErrada).isInstanceOf(ErroAutenticacao.class);
+        Assertions.assertThat(contagem(MetricasAspect.SERVICO, "UsuarioService", "salvarUsuario", "sucesso")).isGreaterThanOrEqualTo(1);
+        Assertions.assertThat(contagem(MetricasAspect.SERVICO, "UsuarioService", "salvarUsuario", "RegraNegocioException")).isGreaterThanOrEqualTo(1);
+        Assertions.assertThat(contagem(MetricasAspect.SERVICO, "UsuarioService", "autenticar", "ErroAutenticacao")).isGreaterThanOrEqualTo(1);
+        Assertions.assertThat(contagem(MetricasAspect.REPOSITORIO, "UsuarioRepository", "save", "sucesso") - antes).isEqualTo(1);
+    }
+
+    @Test
+    public void deveExporAsMetricasNoFormatoDoPrometheus() throws Exception{
+        service.obterPorId(1l);
+
+        mvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(containsString("minhasfinancas_servico_seconds_count")))
+                .andExpect(MockMvcResultMatchers.content().string(containsString("hikaricp_connections_active")))
+                .andExpect(MockMvcResultMatchers.content().string(containsString("hibernate_statements_total")))
+                .andExpect(MockMvcResultMatchers.content().string(containsString("cache_gets_total")));
+    }
+
+    private double contagem(String metrica, String classe, String operacao, String resultado){
+        Timer timer = registry.find(metrica).tag("classe", classe).tag("operacao", operacao)
+                .tag("resultado", resultado).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,166 @@
+package com.primeiroteste.minhasfinancas.config;
+
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import com.primeiroteste.minhasfinancas.service.UsuarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.sql.DataSource;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+//doisH2EmMemoriaFazemAsVezesDeReplicaCadaUmComUmSaldoDiferenteParaDarPraVerDeOndeALeituraVeio
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primario;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "minhasfinancas.datasource.replicas=" + RoteamentoDataSourceTest.REPLICA_1 + "," + RoteamentoDataSourceTest.FORA_DO_AR
+                + "," + RoteamentoDataSourceTest.REPLICA_2,
+        "minhasfinancas.token.obrigatorio=false"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RoteamentoDataSourceTest {
+
+    static final String REPLICA_1 = "jdbc:h2:mem:replica1;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_2 = "jdbc:h2:mem:replica2;DB_CLOSE_DELAY=-1";
+    static final String FORA_DO_AR = "jdbc:h2:tcp://localhost:1/fora-do-ar";
+
+    @Autowired
+    UsuarioService usuarioService;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    MeterRegistry registro;
+
+    @Autowired
+    MockMvc mvc;
+
+    @BeforeClass
+    public static void criarReplicas(){
+        for (String url : new String[]{REPLICA_1, REPLICA_2}) {
+            Flyway.configure().dataSource(url, "sa", "sa").schemas("financas").load().migrate();
+        }
+    }
+
+    @Test
+    public void deveLerDasReplicasEmRodizioPulandoAQueEstaForaDoAr(){
+        Long idUsuario = criarUsuario("rodizio@email.com");
+
+        Set<BigDecimal> saldos = new HashSet<>();
+        for (int i = 0; i < 6; i++) {
+            saldos.add(lancamentoService.obterSaldoPorUsuario(idUsuario));
+        }
+
+        Assertions.assertThat(saldos).usingElementComparator(BigDecimal::compareTo)
+                .containsExactlyInAnyOrder(BigDecimal.valueOf(100), BigDecimal.valueOf(200));
+    }
+
+    @Test
+    public void deveEscreverNoPrimarioELerDeleEnquantoAJanelaDaEscritaEstiverAberta(){
+        Long idUsuario = criarUsuario("escreveu@email.com");
+        Long idOutroUsuario = criarUsuario("naoEscreveu@email.com");
+
+        lancamentoService.salvar(Lancamento.builder().usuario(Usuario.builder().id(idUsuario).build())
+                .descricao("Salario").mes(1).ano(2020).valor(BigDecimal.valueOf(50))
+                .tipoLancamento(TipoLancamento.RECEITA).build());
+
+        Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(idUsuario)).isEqualByComparingTo("50");
+        Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(idOutroUsuario)).isGreaterThanOrEqualTo(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    public void deveLerDoPrimarioOQueVemAntesDeUmaEscritaOuLogoDepoisDoCadastro(){
+        Long idUsuario = criarUsuario("cadastrou@email.com");
+        Lancamento lancamento = lancamentoService.salvar(Lancamento.builder().usuario(Usuario.builder().id(idUsuario).build())
+                .descricao("Aluguel").mes(1).ano(2020).valor(BigDecimal.TEN)
+                .tipoLancamento(TipoLancamento.DESPESA).build());
+
+        Assertions.assertThat(usuarioService.obterPorId(idUsuario)).isPresent();
+        Assertions.assertThat(usuarioService.autenticar("cadastrou@email.com", "senha").getId()).isEqualTo(idUsuario);
+        Assertions.assertThat(lancamentoService.obterPorId(lancamento.getId())).isPresent();
+    }
+
+    //semTokenOResourceConfereOUsuarioNumaLeituraReadOnlyAntesDeGravarOLancamentoNaMesmaRequisicao
+    @Test
+    public void deveGravarNoPrimarioDepoisDeLerDaReplicaNaMesmaRequisicao() throws Exception {
+        Long idUsuario = usuarioReplicado("requisicao@email.com");
+
+        mvc.perform(MockMvcRequestBuilders.post("/api/lancamentos").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"descricao\":\"Mercado\",\"mes\":1,\"ano\":2020,\"valor\":10,\"tipo\":\"DESPESA\",\"usuario\":" + idUsuario + "}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        Assertions.assertThat(lancamentos(new JdbcTemplate(dataSource), idUsuario)).isEqualTo(1);
+        Assertions.assertThat(lancamentos(replica(REPLICA_1), idUsuario)).isZero();
+        Assertions.assertThat(lancamentos(replica(REPLICA_2), idUsuario)).isZero();
+    }
+
+    @Test
+    public void deveRegistrarAsMetricasDoHikariDeCadaPool(){
+        Long idUsuario = criarUsuario("metricas-pool@email.com");
+        for (int i = 0; i < 3; i++) {
+            lancamentoService.obterSaldoPorUsuario(idUsuario);
+        }
+
+        for (String pool : new String[]{"primario", "replica-1", "replica-3"}) {
+            Assertions.assertThat(registro.find("hikaricp.connections.active").tag("pool", pool).gauge()).as(pool).isNotNull();
+        }
+    }
+
+    //oUsuarioGravadoDiretoNosTresBancosFazDeContaQueAReplicacaoJaChegouENaoPassaPeloCacheDoCadastro
+    private Long usuarioReplicado(String email){
+        JdbcTemplate primario = new JdbcTemplate(dataSource);
+        primario.update("insert into financas.usuario (nome, email, senha) values ('replica', ?, 'senha')", email);
+        Long idUsuario = primario.queryForObject("select id from financas.usuario where email = ?", Long.class, email);
+        for (String url : new String[]{REPLICA_1, REPLICA_2}) {
+            replica(url).update("insert into financas.usuario (id, nome, email, senha) values (?, 'replica', ?, 'senha')",
+                    idUsuario, email);
+        }
+        return idUsuario;
+    }
+
+    private int lancamentos(JdbcTemplate banco, Long idUsuario){
+        return banco.queryForObject("select count(*) from financas.lancamento where id_usuario = ?", Integer.class, idUsuario);
+    }
+
+    private JdbcTemplate replica(String url){
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", "sa"));
+    }
+
+    //aReplicaNaoRecebeOUsuarioEntaoCadaUmaGanhaUmSaldoDiferenteDoQueOPrimarioTeria
+    private Long criarUsuario(String email){
+        Long idUsuario = usuarioService.salvarUsuario(Usuario.builder().nome("replica").email(email).senha("senha").build()).getId();
+        saldoNaReplica(REPLICA_1, idUsuario, 100);
+        saldoNaReplica(REPLICA_2, idUsuario, 200);
+        return idUsuario;
+    }
+
+    private void saldoNaReplica(String url, Long idUsuario, int receitas){
+        replica(url).update(
+                "insert into financas.saldo_usuario (id_usuario, total_receitas, total_despesas) values (?, ?, 0)",
+                idUsuario, receitas);
+    }
+}
@@ -1,6 +1,10 @@
 package com.primeiroteste.minhasfinancas.model.repository;
 
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.config.Consultas;
+import com.primeiroteste.minhasfinancas.config.ContadorConsultasConfig;
 import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
 import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
 import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
 import org.assertj.core.api.Assertions;
@@ -10,18 +14,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import javax.swing.text.html.Option;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RunWith(SpringRunner.class)
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @ActiveProfiles("test")
+@Import(ContadorConsultasConfig.class)
 public class LancamentoRepositoryTest {
 
     @Autowired
@@ -83,6 +95,194 @@ public class LancamentoRepositoryTest {
         Assertions.assertThat(lancamentoEncontrado.isPresent()).isTrue();
     }
 
+    @Test
+    public void deveBuscarAProximaPaginaAPartirDoCursor(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        for(int mes = 1; mes <= 5; mes++){
+            Lancamento lancamento = criarLancamento();
+            lancamento.setMes(mes);
+            lancamento.setUsuario(usuario);
+            entityManager.persist(lancamento);
+        }
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+
+        List<LancamentoDto> primeiraPagina = repository.buscarPagina(filtro, null, 2);
+        List<LancamentoDto> segundaPagina = repository.buscarPagina(filtro, CursorLancamento.de(primeiraPagina.get(1)), 2);
+
+        Assertions.assertThat(primeiraPagina).extracting(LancamentoDto::getMes).containsExactly(1, 2);
+        Assertions.assertThat(segundaPagina).extracting(LancamentoDto::getMes).containsExactly(3, 4);
+        Assertions.assertThat(segundaPagina).extracting(LancamentoDto::getUsuario).containsOnly(usuario.getId());
+        Assertions.assertThat(segundaPagina).extracting(LancamentoDto::getTipo).containsOnly("RECEITA");
+    }
+
+    @Test
+    public void deveTratarPorcentagemSublinhadoEBarraDaDescricaoComoTexto(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        for(String descricao : new String[]{"Desconto 50%", "Desconto 500", "conta_luz", "contaXluz", "c:\\pasta"}){
+            Lancamento lancamento = criarLancamento();
+            lancamento.setDescricao(descricao);
+            lancamento.setUsuario(usuario);
+            entityManager.persist(lancamento);
+        }
+
+        Assertions.assertThat(descricoes(usuario, "50%")).containsExactly("Desconto 50%");
+        Assertions.assertThat(descricoes(usuario, "A_L")).containsExactly("conta_luz");
+        Assertions.assertThat(descricoes(usuario, "c:\\")).containsExactly("c:\\pasta");
+    }
+
+    @Test
+    public void deveBuscarAPaginaComOUsuarioEmUmaUnicaConsulta(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        for(int mes = 1; mes <= 5; mes++){
+            Lancamento lancamento = criarLancamento();
+            lancamento.setMes(mes);
+            lancamento.setUsuario(usuario);
+            entityManager.persist(lancamento);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(usuario);
+
+        Consultas.assertConsultas(1, () -> repository.buscarPagina(filtro, null, 5)
+                .forEach(dto -> Assertions.assertThat(dto.getUsuario()).isEqualTo(usuario.getId())));
+    }
+
+    @Test
+    public void naoDeveCarregarOUsuarioAoLerOsLancamentosEmStream(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        for(int mes = 1; mes <= 3; mes++){
+            Lancamento lancamento = criarLancamento();
+            lancamento.setUsuario(usuario);
+            entityManager.persist(lancamento);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Consultas.assertConsultas(1, () -> {
+            try (Stream<Lancamento> lancamentos = repository.streamPorUsuario(usuario.getId())) {
+                lancamentos.forEach(lancamento -> lancamento.getUsuario().getId());
+            }
+        });
+    }
+
+    @Test
+    public void deveLerOsLancamentosDoUsuarioEmStream(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        for(int mes = 3; mes >= 1; mes--){
+            Lancamento lancamento = criarLancamento();
+            lancamento.setMes(mes);
+            lancamento.setUsuario(usuario);
+            entityManager.persist(lancamento);
+        }
+
+        try (Stream<Lancamento> lancamentos = repository.streamPorUsuario(usuario.getId())) {
+            Assertions.assertThat(lancamentos.map(Lancamento::getMes)).containsExactly(1, 2, 3);
+        }
+    }
+
+    @Test
+    public void deveAtualizarOStatusDoMesInteiroEmUmUnicoUpdate(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        for(int mes = 1; mes <= 3; mes++){
+            Lancamento lancamento = criarLancamento();
+            lancamento.setMes(mes == 3 ? 2 : 1);
+            lancamento.setUsuario(usuario);
+            entityManager.persist(lancamento);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        Lancamento filtro = Lancamento.builder().usuario(usuario).ano(2019).mes(1)
+                .statusLancamento(StatusLancamento.PENDENTE).build();
+
+        int[] atualizados = new int[1];
+        Consultas.assertConsultas(1, () -> atualizados[0] = repository.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO));
+
+        Assertions.assertThat(atualizados[0]).isEqualTo(2);
+        Assertions.assertThat(repository.contarPorStatus(Lancamento.builder().usuario(usuario).build(), null,
+                Collections.singleton(StatusLancamento.EFETIVADO))).isEqualTo(2);
+    }
+
+    @Test
+    public void deveTravarSoOsLancamentosDoUsuarioInformadoMesmoComIdsDeOutro(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        Usuario outro = entityManager.persist(Usuario.builder().nome("outro").email("outro@email.com").senha("senha").build());
+        Lancamento doUsuario = criarLancamento();
+        doUsuario.setUsuario(usuario);
+        entityManager.persist(doUsuario);
+        Lancamento doOutro = criarLancamento();
+        doOutro.setUsuario(outro);
+        entityManager.persist(doOutro);
+        entityManager.flush();
+
+        List<Long> travados = repository.travar(Lancamento.builder().usuario(usuario).build(),
+                Arrays.asList(doUsuario.getId(), doOutro.getId()));
+
+        Assertions.assertThat(travados).containsExactly(doUsuario.getId());
+    }
+
+    @Test
+    public void soDeveAtualizarOStatusSeAVersaoForAInformada(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(usuario);
+        entityManager.persist(lancamento);
+        entityManager.flush();
+        entityManager.clear();
+
+        int comVersaoAntiga = repository.atualizarStatusNaVersao(lancamento.getId(), lancamento.getVersao() + 1,
+                usuario.getId(), StatusLancamento.EFETIVADO);
+        int comVersaoAtual = repository.atualizarStatusNaVersao(lancamento.getId(), lancamento.getVersao(),
+                usuario.getId(), StatusLancamento.EFETIVADO);
+
+        Assertions.assertThat(comVersaoAntiga).isZero();
+        Assertions.assertThat(comVersaoAtual).isEqualTo(1);
+        Lancamento atualizado = entityManager.find(Lancamento.class, lancamento.getId());
+        Assertions.assertThat(atualizado.getStatusLancamento()).isEqualTo(StatusLancamento.EFETIVADO);
+        Assertions.assertThat(atualizado.getVersao()).isEqualTo(lancamento.getVersao() + 1);
+    }
+
+    @Test
+    public void deveExcluirLogicamenteEEsconderOLancamentoDasConsultas(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        Lancamento lancamento = criarLancamento();
+        lancamento.setUsuario(usuario);
+        entityManager.persist(lancamento);
+        entityManager.flush();
+
+        repository.delete(lancamento);
+        entityManager.flush();
+        entityManager.clear();
+
+        Assertions.assertThat(repository.findById(lancamento.getId())).isEmpty();
+        Assertions.assertThat(repository.obterSaldoPorTipoLancamentoEUsuario(usuario.getId(), TipoLancamento.RECEITA)).isNull();
+        Assertions.assertThat(repository.buscarPagina(Lancamento.builder().usuario(usuario).build(), null, 10)).isEmpty();
+        Assertions.assertThat(repository.listarIdsExcluidosAntesDe(LocalDateTime.now().plusMinutes(1), 10))
+                .containsExactly(lancamento.getId());
+    }
+
+    @Test
+    public void deveExpurgarSoOsLancamentosExcluidos(){
+        Usuario usuario = entityManager.persist(UsuarioRepositoryTeste.criarUsuario());
+        Lancamento excluido = criarLancamento();
+        excluido.setUsuario(usuario);
+        entityManager.persist(excluido);
+        Lancamento ativo = criarLancamento();
+        ativo.setUsuario(usuario);
+        entityManager.persist(ativo);
+        entityManager.flush();
+        repository.delete(excluido);
+        entityManager.flush();
+
+        int expurgados = repository.expurgar(Arrays.asList(excluido.getId(), ativo.getId()));
+        entityManager.clear();
+
+        Assertions.assertThat(expurgados).isEqualTo(1);
+        Assertions.assertThat(repository.listarIdsExcluidosAntesDe(LocalDateTime.now().plusMinutes(1), 10)).isEmpty();
+        Assertions.assertThat(repository.findById(ativo.getId())).isPresent();
+    }
+
     public static Lancamento criarLancamento() {
         return Lancamento.builder().ano(2019).mes(1)
                 .descricao("Lancamento Qualquer")
@@ -92,6 +292,11 @@ public class LancamentoRepositoryTest {
                 .dataCadastro(LocalDate.now()).build();
     }
 
+    private List<String> descricoes(Usuario usuario, String descricao){
+        Lancamento filtro = Lancamento.builder().usuario(usuario).descricao(descricao).build();
+        return repository.buscarPagina(filtro, null, 10).stream().map(LancamentoDto::getDescricao).collect(Collectors.toList());
+    }
+
     private Lancamento criarEPersistirUmLancamento() {
         Lancamento lancamento = criarLancamento();
         entityManager.persist(lancamento);
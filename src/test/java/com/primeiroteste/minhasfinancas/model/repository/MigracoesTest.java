@@ -0,0 +1,40 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+public class MigracoesTest {
+
+    static final String URL = "jdbc:h2:mem:anterior-ao-flyway;DB_CLOSE_DELAY=-1";
+
+    //oBancoQueJaExistiaEMarcadoComoVersao1EntaoTudoQueVeioDepoisPrecisaEstarDoV2EmDiante
+    @Test
+    public void deveAtualizarUmBancoDeAntesDoFlyway(){
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", "sa"));
+        jdbcTemplate.execute("create schema financas");
+        jdbcTemplate.execute("create table financas.usuario (id bigint generated by default as identity primary key, " +
+                "nome varchar(150), email varchar(100), senha varchar(20))");
+        jdbcTemplate.execute("create table financas.lancamento (id bigint generated by default as identity primary key, " +
+                "descricao varchar(100) not null, mes integer not null, ano integer not null, valor numeric(16,2) not null, " +
+                "id_usuario bigint not null references financas.usuario (id), data_cadastro date, " +
+                "tipo varchar(20) not null, status varchar(20) not null)");
+        jdbcTemplate.update("insert into financas.usuario (id, nome, email, senha) values (1, 'antigo', 'antigo@email.com', 'senha')");
+        jdbcTemplate.update("insert into financas.lancamento (id, descricao, mes, ano, valor, id_usuario, tipo, status) " +
+                "values (7, 'Aluguel', 1, 2020, 900, 1, 'DESPESA', 'PENDENTE')");
+
+        Flyway.configure().dataSource(URL, "sa", "sa").schemas("financas")
+                .locations("classpath:db/migration", "classpath:db/h2")
+                .baselineOnMigrate(true).baselineVersion("1")
+                .load().migrate();
+
+        Assertions.assertThat(jdbcTemplate.queryForObject("select versao from financas.lancamento where id = 7", Long.class)).isZero();
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from financas.lancamento where deleted_at is null", Long.class))
+                .isEqualTo(1);
+        Assertions.assertThat(jdbcTemplate.queryForObject("select valor_total from financas.lancamento_resumo_mensal " +
+                "where id_usuario = 1 and ano = 2020 and mes = 1", Long.class)).isEqualTo(900);
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from financas.saldo_usuario", Long.class)).isZero();
+    }
+}
@@ -0,0 +1,158 @@
+package com.primeiroteste.minhasfinancas.model.repository;
+
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+//oExplainRodaNoSqlQueOHibernateRealmenteGeraSeAlguemMexerNoIndiceNaConsultaOuNoMapeamentoOPlanoDenuncia
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class PlanoConsultasTest {
+
+    static final List<QueryInfo> CAPTURADAS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    LancamentoRepository lancamentoRepository;
+
+    @Autowired
+    UsuarioRepository usuarioRepository;
+
+    @Autowired
+    ResumoMensalRepository resumoMensalRepository;
+
+    List<Long> usuarios;
+
+    //comATabelaVaziaOH2NaoTemEstatisticaEEmpataOCustoDosIndicesEOAnalyzeComitaPorIssoOTesteNaoRodaEmTransacao
+    @Before
+    public void setUp(){
+        for (int usuario = 1; usuario <= 10; usuario++) {
+            jdbcTemplate.update("insert into financas.usuario (nome, email, senha) values ('usuario', ?, 'senha')",
+                    "usuario" + usuario + "@plano.com");
+        }
+        usuarios = jdbcTemplate.queryForList("select id from financas.usuario where email like '%@plano.com'", Long.class);
+        List<Object[]> lancamentos = new ArrayList<>();
+        for (int i = 1; i <= 2400; i++) {
+            lancamentos.add(new Object[]{i % 12 + 1, 2015 + i % 10, usuarios.get(i % usuarios.size()),
+                    i % 2 == 0 ? "RECEITA" : "DESPESA"});
+        }
+        //oIdSaiDaMesmaSequenciaDoHibernateParaNaoColidirComOsLancamentosDosOutrosTestesNoMesmoBanco
+        jdbcTemplate.batchUpdate("insert into financas.lancamento (id, descricao, mes, ano, valor, id_usuario, tipo, status) " +
+                "values (next value for financas.lancamento_seq, 'lancamento', ?, ?, 10, ?, ?, 'PENDENTE')", lancamentos);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @After
+    public void tearDown(){
+        jdbcTemplate.update("delete from financas.lancamento where id_usuario in " +
+                "(select id from financas.usuario where email like '%@plano.com')");
+        jdbcTemplate.update("delete from financas.usuario where email like '%@plano.com'");
+    }
+
+    @Test
+    public void deveSomarOSaldoPorTipoSoPeloIndice(){
+        String plano = explicar(() -> lancamentoRepository.obterSaldoPorTipoLancamentoEUsuario(usuarios.get(0), TipoLancamento.RECEITA));
+
+        Assertions.assertThat(plano).containsIgnoringCase("idx_lancamento_usuario_tipo_valor");
+    }
+
+    @Test
+    public void deveBuscarOsLancamentosDoMesPeloIndice(){
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(usuarios.get(0)).build()).ano(2020).mes(1).build();
+
+        String plano = explicar(() -> lancamentoRepository.buscarPagina(filtro, null, 10));
+
+        Assertions.assertThat(plano).containsIgnoringCase("idx_lancamento_usuario_ano_mes");
+    }
+
+    @Test
+    public void deveLerOResumoDoAnoPeloPrefixoDaChavePrimaria(){
+        String plano = explicar(() -> resumoMensalRepository.obterPorAno(usuarios.get(0), 2020));
+
+        Assertions.assertThat(plano).containsIgnoringCase("primary_key");
+    }
+
+    @Test
+    public void deveBuscarOUsuarioPeloEmailPeloIndiceUnico(){
+        String plano = explicar(() -> usuarioRepository.findByEmail("usuario1@plano.com"));
+
+        Assertions.assertThat(plano).containsIgnoringCase("uk_usuario_email");
+    }
+
+    @Test
+    public void naoDevePermitirDoisUsuariosComOMesmoEmail(){
+        jdbcTemplate.update("insert into financas.usuario (nome, email, senha) values ('um', 'repetido@plano.com', 'senha')");
+
+        Assertions.assertThatThrownBy(() -> jdbcTemplate.update(
+                "insert into financas.usuario (nome, email, senha) values ('dois', 'repetido@plano.com', 'senha')"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    //rodaAOperacaoDoRepositorioEPedeOPlanoDoSelectQueOHibernateMandouComOsMesmosParametros
+    private String explicar(Runnable operacao){
+        CAPTURADAS.clear();
+        operacao.run();
+        List<QueryInfo> selects = CAPTURADAS.stream()
+                .filter(consulta -> consulta.getQuery().trim().toLowerCase().startsWith("select"))
+                .collect(Collectors.toList());
+        Assertions.assertThat(selects).as("selects emitidos").hasSize(1);
+        QueryInfo consulta = selects.get(0);
+        Object[] parametros = consulta.getParametersList().isEmpty() ? new Object[0]
+                : consulta.getParametersList().get(0).stream()
+                .sorted(Comparator.comparingInt(operacaoParametro -> (Integer) operacaoParametro.getArgs()[0]))
+                .map(operacaoParametro -> operacaoParametro.getArgs()[1])
+                .toArray();
+        return jdbcTemplate.queryForObject("explain " + consulta.getQuery(), String.class, parametros);
+    }
+
+    //oProxyDoDataSourceGuardaCadaStatementComOsParametrosQueOHibernateAmarrou
+    @TestConfiguration
+    static class CapturaConsultas {
+
+        @Bean
+        public static BeanPostProcessor capturaConsultasDataSource(){
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if(!(bean instanceof DataSource)){
+                        return bean;
+                    }
+                    return ProxyDataSourceBuilder.create(beanName, (DataSource) bean)
+                            .afterQuery((execucao, consultas) -> CAPTURADAS.addAll(consultas))
+                            .build();
+                }
+            };
+        }
+    }
+}
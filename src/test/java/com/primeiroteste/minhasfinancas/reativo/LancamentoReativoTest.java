@@ -0,0 +1,224 @@
+package com.primeiroteste.minhasfinancas.reativo;
+
+import com.primeiroteste.minhasfinancas.api.dto.AtualizaStatusDto;
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.service.TokenService;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = MinhasfinancasReativoApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reativo;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "minhasfinancas.token.segredo=segredo-dos-testes-com-mais-de-32-bytes",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.schema-locations=classpath:db/migration/V1__esquema_inicial.sql,classpath:db/migration/V2__saldo_usuario.sql,classpath:db/migration/V3__sequencia_lancamento.sql,classpath:db/migration/V4__importacao.sql,classpath:db/migration/V5__versao_lancamento.sql,classpath:db/migration/V6__exclusao_logica_lancamento.sql,classpath:db/migration/V7__indices_consultas.sql,classpath:db/migration/V8__resumo_mensal.sql,classpath:db/migration/V9__serie_lancamento.sql"})
+@ActiveProfiles("reativo")
+public class LancamentoReativoTest {
+
+    @Autowired
+    WebTestClient client;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @Autowired
+    TokenService tokenService;
+
+    Long idUsuario;
+
+    WebTestClient semToken;
+
+    @Before
+    public void setUp(){
+        idUsuario = criarUsuario();
+        semToken = client;
+        client = autenticado(idUsuario);
+    }
+
+    @Test
+    public void deveSalvarUmLancamentoEAtualizarOSaldo(){
+        LancamentoDto salvo = salvar("Salario", BigDecimal.valueOf(1000), "RECEITA");
+        salvar("Aluguel", BigDecimal.valueOf(300), "DESPESA");
+
+        Assertions.assertThat(salvo.getId()).isNotNull();
+        Assertions.assertThat(salvo.getStatus()).isEqualTo("PENDENTE");
+        client.get().uri("/api/usuarios/{id}/saldo", idUsuario).exchange()
+                .expectStatus().isOk()
+                .expectBody(BigDecimal.class).value(saldo -> Assertions.assertThat(saldo).isEqualByComparingTo("700"));
+    }
+
+    @Test
+    public void deveRetornarBadRequestComAMensagemDaValidacao(){
+        LancamentoDto dto = lancamento("Sem valor", null, "RECEITA");
+
+        client.post().uri("/api/lancamentos").bodyValue(dto).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Informe um valor válido!");
+    }
+
+    @Test
+    public void deveTransmitirOsLancamentosEmNdjsonConformeADemanda(){
+        for (int i = 0; i < 5; i++) {
+            salvar("Lancamento " + i, BigDecimal.TEN, "DESPESA");
+        }
+
+        Flux<LancamentoDto> corpo = client.get().uri("/api/lancamentos?usuario={id}&ano=2020", idUsuario)
+                .accept(LancamentoHandler.NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(LancamentoHandler.NDJSON)
+                .returnResult(LancamentoDto.class).getResponseBody();
+
+        StepVerifier.create(corpo, 2)
+                .expectNextMatches(dto -> dto.getDescricao().equals("Lancamento 0"))
+                .expectNextCount(1)
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    public void deveBuscarAPorcentagemDaDescricaoComoTexto(){
+        salvar("Desconto 50%", BigDecimal.TEN, "DESPESA");
+        salvar("Desconto 500", BigDecimal.TEN, "DESPESA");
+
+        client.get().uri("/api/lancamentos?usuario={id}&descricao={descricao}", idUsuario, "50%").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(LancamentoDto.class).value(lancamentos -> Assertions.assertThat(lancamentos)
+                        .extracting(LancamentoDto::getDescricao).containsExactly("Desconto 50%"));
+    }
+
+    @Test
+    public void deveAtualizarOStatusEDeletarEstornandoOSaldo(){
+        LancamentoDto salvo = salvar("Mercado", BigDecimal.valueOf(250), "DESPESA");
+
+        client.put().uri("/api/lancamentos/{id}/atualiza-status", salvo.getId())
+                .bodyValue(new AtualizaStatusDto("EFETIVADO")).exchange()
+                .expectStatus().isOk()
+                .expectBody(LancamentoDto.class).value(dto -> Assertions.assertThat(dto.getStatus()).isEqualTo("EFETIVADO"));
+        Assertions.assertThat(quantidadeNoResumo("PENDENTE")).isZero();
+        Assertions.assertThat(quantidadeNoResumo("EFETIVADO")).isEqualTo(1);
+
+        client.delete().uri("/api/lancamentos/{id}", salvo.getId()).exchange().expectStatus().isNoContent();
+        client.delete().uri("/api/lancamentos/{id}", salvo.getId()).exchange().expectStatus().isBadRequest();
+        client.get().uri("/api/usuarios/{id}/saldo", idUsuario).exchange()
+                .expectBody(BigDecimal.class).value(saldo -> Assertions.assertThat(saldo).isEqualByComparingTo("0"));
+        Assertions.assertThat(quantidadeNoResumo("EFETIVADO")).isZero();
+    }
+
+    @Test
+    public void deveUsarOUsuarioDoTokenERetornarBadRequestSemStatus(){
+        LancamentoDto semUsuario = lancamento("Sem usuario", BigDecimal.TEN, "RECEITA");
+        semUsuario.setUsuario(null);
+        client.post().uri("/api/lancamentos").bodyValue(semUsuario).exchange()
+                .expectStatus().isCreated()
+                .expectBody(LancamentoDto.class).value(dto -> Assertions.assertThat(dto.getUsuario()).isEqualTo(idUsuario));
+
+        LancamentoDto salvo = salvar("Sem status", BigDecimal.TEN, "RECEITA");
+        client.put().uri("/api/lancamentos/{id}/atualiza-status", salvo.getId())
+                .bodyValue(new AtualizaStatusDto(null)).exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Não foi possível atualizar o status do lançamento, envie um status válido!");
+    }
+
+    @Test
+    public void deveRetornarNotFoundNoSaldoDeUsuarioInexistente(){
+        autenticado(-1l).get().uri("/api/usuarios/{id}/saldo", -1).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    public void deveNegarSemTokenOuComTokenInvalido(){
+        semToken.get().uri("/api/lancamentos?usuario={id}", idUsuario).exchange()
+                .expectStatus().isUnauthorized();
+        semToken.get().uri("/api/usuarios/{id}/saldo", idUsuario).header(HttpHeaders.AUTHORIZATION, "Bearer lixo").exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    public void naoDeveDeixarOutroUsuarioVerOuAlterarOsLancamentos(){
+        LancamentoDto salvo = salvar("Mercado", BigDecimal.valueOf(250), "DESPESA");
+        WebTestClient outro = autenticado(criarUsuario());
+
+        outro.get().uri("/api/lancamentos?usuario={id}", idUsuario).exchange().expectStatus().isForbidden();
+        outro.get().uri("/api/usuarios/{id}/saldo", idUsuario).exchange().expectStatus().isForbidden();
+        outro.post().uri("/api/lancamentos").bodyValue(lancamento("Alheio", BigDecimal.TEN, "DESPESA")).exchange()
+                .expectStatus().isForbidden();
+        outro.put().uri("/api/lancamentos/{id}/atualiza-status", salvo.getId())
+                .bodyValue(new AtualizaStatusDto("EFETIVADO")).exchange()
+                .expectStatus().isForbidden();
+        outro.delete().uri("/api/lancamentos/{id}", salvo.getId()).exchange().expectStatus().isForbidden();
+
+        Assertions.assertThat(quantidadeNoResumo("PENDENTE")).isEqualTo(1);
+        client.get().uri("/api/usuarios/{id}/saldo", idUsuario).exchange()
+                .expectBody(BigDecimal.class).value(saldo -> Assertions.assertThat(saldo).isEqualByComparingTo("-250"));
+    }
+
+    @Test
+    public void naoDeveAlterarOStatusDeUmLancamentoCancelado(){
+        LancamentoDto salvo = salvar("Cancelado", BigDecimal.TEN, "DESPESA");
+        client.put().uri("/api/lancamentos/{id}/atualiza-status", salvo.getId())
+                .bodyValue(new AtualizaStatusDto("CANCELADO")).exchange()
+                .expectStatus().isOk();
+
+        client.put().uri("/api/lancamentos/{id}/atualiza-status", salvo.getId())
+                .bodyValue(new AtualizaStatusDto("EFETIVADO")).exchange()
+                .expectStatus().isBadRequest();
+
+        Assertions.assertThat(quantidadeNoResumo("CANCELADO")).isEqualTo(1);
+    }
+
+    private Long criarUsuario(){
+        String email = "reativo" + System.nanoTime() + "@email.com";
+        databaseClient.sql("insert into financas.usuario (nome, email, senha) values ('reativo', :email, 'senha')")
+                .bind("email", email).fetch().rowsUpdated().block();
+        return databaseClient.sql("select id from financas.usuario where email = :email")
+                .bind("email", email).map(row -> row.get(0, Long.class)).one().block();
+    }
+
+    private WebTestClient autenticado(Long id){
+        String token = tokenService.gerarToken(Usuario.builder().id(id).build());
+        return semToken.mutate().defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token).build();
+    }
+
+    private Long quantidadeNoResumo(String status){
+        return databaseClient.sql("select quantidade from financas.lancamento_resumo_mensal where id_usuario = :idUsuario " +
+                        "and ano = 2020 and mes = 1 and tipo = 'DESPESA' and status = :status")
+                .bind("idUsuario", idUsuario)
+                .bind("status", status)
+                .map(row -> row.get(0, Long.class)).one().block();
+    }
+
+    private LancamentoDto salvar(String descricao, BigDecimal valor, String tipo){
+        LancamentoDto salvo = client.post().uri("/api/lancamentos").bodyValue(lancamento(descricao, valor, tipo)).exchange()
+                .expectStatus().isCreated()
+                .expectBody(LancamentoDto.class).returnResult().getResponseBody();
+        Assertions.assertThat(salvo.getId()).isPositive(); //oPrimeiroDaSequenceNovaNaoPodeSairNegativo
+        return salvo;
+    }
+
+    private LancamentoDto lancamento(String descricao, BigDecimal valor, String tipo){
+        LancamentoDto dto = new LancamentoDto();
+        dto.setDescricao(descricao);
+        dto.setMes(1);
+        dto.setAno(2020);
+        dto.setValor(valor);
+        dto.setUsuario(idUsuario);
+        dto.setTipo(tipo);
+        return dto;
+    }
+}
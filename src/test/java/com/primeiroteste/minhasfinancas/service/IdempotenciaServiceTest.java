@@ -0,0 +1,157 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.primeiroteste.minhasfinancas.api.dto.UsuarioDto;
+import com.primeiroteste.minhasfinancas.model.entity.Idempotencia;
+import com.primeiroteste.minhasfinancas.model.repository.IdempotenciaRepository;
+import com.primeiroteste.minhasfinancas.service.impl.IdempotenciaServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IdempotenciaServiceTest {
+
+    IdempotenciaRepository repository = Mockito.mock(IdempotenciaRepository.class);
+    IdempotenciaService service = new IdempotenciaServiceImpl(repository, new ObjectMapper(), 100,
+            Duration.ofHours(24), Duration.ofSeconds(5));
+    AtomicInteger execucoes = new AtomicInteger();
+
+    static final UsuarioDto REQUISICAO = UsuarioDto.builder().email("usuario@email.com").nome("usuario").senha("senha").build();
+
+    @Before
+    public void setUp(){
+        Mockito.when(repository.reservar(Mockito.anyString(), Mockito.anyString(), Mockito.any())).thenReturn(1);
+    }
+
+    @Test
+    public void deveRepetirARespostaGuardadaSemExecutarDeNovo(){
+        ResponseEntity primeira = service.executar("usuarios", "chave-1", REQUISICAO, this::criar);
+        ResponseEntity repetida = service.executar("usuarios", "chave-1", REQUISICAO, this::criar);
+
+        Assertions.assertThat(execucoes.get()).isEqualTo(1);
+        Assertions.assertThat(primeira.getHeaders().containsKey(IdempotenciaService.REPETIDA)).isFalse();
+        Assertions.assertThat(repetida.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(repetida.getHeaders().getFirst(IdempotenciaService.REPETIDA)).isEqualTo("true");
+        Assertions.assertThat(repetida.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        Assertions.assertThat(repetida.getBody()).isEqualTo("{\"email\":\"usuario@email.com\",\"nome\":\"usuario\",\"senha\":null}");
+        Mockito.verify(repository, Mockito.times(1)).save(Mockito.argThat(idempotencia ->
+                idempotencia.getChave().equals("usuarios:chave-1") && idempotencia.getStatus() == 201));
+    }
+
+    @Test
+    public void deveFazerADuplicataConcorrenteEsperarAPrimeiraEmVezDeExecutarDuasVezes() throws Exception{
+        CountDownLatch executando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity> primeira = CompletableFuture.supplyAsync(() ->
+                service.executar("usuarios", "chave-2", REQUISICAO, () -> {
+                    executando.countDown();
+                    try {
+                        liberar.await();
+                    }catch (InterruptedException e){
+                        throw new IllegalStateException(e);
+                    }
+                    return criar();
+                }));
+        executando.await();
+        CompletableFuture<ResponseEntity> duplicata = CompletableFuture.supplyAsync(() ->
+                service.executar("usuarios", "chave-2", REQUISICAO, this::criar));
+        liberar.countDown();
+
+        Assertions.assertThat(duplicata.get().getHeaders().getFirst(IdempotenciaService.REPETIDA)).isEqualTo("true");
+        Assertions.assertThat(primeira.get().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(execucoes.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void deveBuscarNaTabelaQuandoAChaveNaoEstaNaMemoria(){
+        Mockito.when(repository.reservar(Mockito.eq("usuarios:chave-3"), Mockito.anyString(), Mockito.any())).thenReturn(0);
+        Mockito.when(repository.obterNoPrimario("usuarios:chave-3")).thenReturn(Optional.of(Idempotencia.builder()
+                .chave("usuarios:chave-3").status(400).tipoConteudo("text/plain;charset=UTF-8")
+                .corpo("Já existe um usuário cadastrado com este email.").dataCriacao(LocalDateTime.now()).build()));
+
+        ResponseEntity resposta = service.executar("usuarios", "chave-3", REQUISICAO, this::criar);
+
+        Assertions.assertThat(execucoes.get()).isZero();
+        Assertions.assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        Assertions.assertThat(resposta.getBody()).isEqualTo("Já existe um usuário cadastrado com este email.");
+    }
+
+    @Test
+    public void deveEsperarAOutraInstanciaQueReservouAChaveGravarAResposta(){
+        Idempotencia reservada = Idempotencia.builder().chave("usuarios:chave-5").dataCriacao(LocalDateTime.now()).build();
+        Idempotencia respondida = Idempotencia.builder().chave("usuarios:chave-5").status(201)
+                .tipoConteudo("application/json").corpo("{}").dataCriacao(LocalDateTime.now()).build();
+        Mockito.when(repository.reservar(Mockito.eq("usuarios:chave-5"), Mockito.anyString(), Mockito.any())).thenReturn(0);
+        Mockito.when(repository.obterNoPrimario("usuarios:chave-5"))
+                .thenReturn(Optional.of(reservada), Optional.of(reservada), Optional.of(respondida));
+
+        ResponseEntity resposta = service.executar("usuarios", "chave-5", REQUISICAO, this::criar);
+
+        Assertions.assertThat(execucoes.get()).isZero();
+        Assertions.assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(resposta.getHeaders().getFirst(IdempotenciaService.REPETIDA)).isEqualTo("true");
+    }
+
+    @Test
+    public void deveRecusarAMesmaChaveComOutraRequisicao(){
+        service.executar("usuarios", "chave-6", REQUISICAO, this::criar);
+        ResponseEntity outra = service.executar("usuarios", "chave-6",
+                UsuarioDto.builder().email("outro@email.com").nome("outro").senha("senha").build(), this::criar);
+
+        Assertions.assertThat(execucoes.get()).isEqualTo(1);
+        Assertions.assertThat(outra.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    public void naoDeveGuardarErroDoServidorParaARetentativaExecutarDeNovo(){
+        service.executar("lancamentos", "chave-4", REQUISICAO, () -> {
+            execucoes.incrementAndGet();
+            return new ResponseEntity("Muitos lançamentos sendo gravados, tente novamente em instantes!", HttpStatus.SERVICE_UNAVAILABLE);
+        });
+        ResponseEntity retentativa = service.executar("lancamentos", "chave-4", REQUISICAO, this::criar);
+
+        Assertions.assertThat(execucoes.get()).isEqualTo(2);
+        Assertions.assertThat(retentativa.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Mockito.verify(repository).liberar("lancamentos:chave-4");
+        Mockito.verify(repository, Mockito.times(1)).save(Mockito.any(Idempotencia.class));
+    }
+
+    @Test
+    public void deveGuardarOHashDoIdQuandoOEscopoComAChaveNaoCabeNaColuna(){
+        String escopo = "usuarios:" + "x".repeat(200) + "@email.com";
+        String chave = "c".repeat(255);
+
+        service.executar(escopo, chave, REQUISICAO, this::criar);
+        ResponseEntity repetida = service.executar(escopo, chave, REQUISICAO, this::criar);
+
+        Assertions.assertThat(execucoes.get()).isEqualTo(1);
+        Assertions.assertThat(repetida.getHeaders().getFirst(IdempotenciaService.REPETIDA)).isEqualTo("true");
+        Mockito.verify(repository).save(Mockito.argThat(idempotencia ->
+                idempotencia.getChave().startsWith("sha256:") && idempotencia.getChave().length() <= 300));
+    }
+
+    @Test
+    public void deveExecutarNormalmenteSemAChave(){
+        service.executar("usuarios", null, REQUISICAO, this::criar);
+        service.executar("usuarios", null, REQUISICAO, this::criar);
+
+        Assertions.assertThat(execucoes.get()).isEqualTo(2);
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    private ResponseEntity criar(){
+        execucoes.incrementAndGet();
+        return new ResponseEntity(UsuarioDto.builder().email("usuario@email.com").nome("usuario").build(), HttpStatus.CREATED);
+    }
+}
@@ -0,0 +1,152 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Importacao;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusImportacao;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.repository.ImportacaoRepository;
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoRepository;
+import com.primeiroteste.minhasfinancas.service.impl.ImportacaoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = ImportacaoServiceImpl.class) //paraOValueConverterODurationDoAbandonadaApos
+@ActiveProfiles("test")
+public class ImportacaoServiceTest {
+
+    static final String CSV = "data;descricao;valor\n" +
+            "05/01/2020;Salário;3.500,00\n" +
+            "10/01/2020;Aluguel;-1.200,50\n" +
+            "data errada;Mercado;-100\n" +
+            "2020-02-01;Padaria;-15,30\n";
+
+    @SpyBean
+    ImportacaoServiceImpl service;
+
+    @MockBean
+    ImportacaoRepository repository;
+
+    @MockBean
+    LancamentoService lancamentoService;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    List<Lancamento> gravados = new ArrayList<>();
+
+    @Before
+    public void setUp(){
+        ReflectionTestUtils.setField(service, "tamanhoBloco", 2);
+        Mockito.when(repository.save(Mockito.any(Importacao.class))).thenAnswer(invocation -> {
+            Importacao importacao = invocation.getArgument(0);
+            importacao.setId(1l);
+            return importacao;
+        });
+        Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Lancamento> bloco = invocation.getArgument(0);
+            gravados.addAll(bloco);
+            return bloco;
+        });
+    }
+
+    @Test
+    public void deveImportarUmExtratoCsvEmBlocos(){
+        Usuario usuario = Usuario.builder().id(1l).build();
+
+        Importacao importacao = service.importar(usuario, "csv", conteudo(CSV));
+
+        Assertions.assertThat(importacao.getStatus()).isEqualTo(StatusImportacao.CONCLUIDA);
+        Assertions.assertThat(importacao.getLinhasProcessadas()).isEqualTo(4);
+        Assertions.assertThat(importacao.getLinhasImportadas()).isEqualTo(3);
+        Assertions.assertThat(importacao.getLinhasComErro()).isEqualTo(1);
+        Mockito.verify(lancamentoService, Mockito.times(2)).salvarLote(Mockito.anyList());
+
+        Assertions.assertThat(gravados).extracting(Lancamento::getTipoLancamento)
+                .containsExactly(TipoLancamento.RECEITA, TipoLancamento.DESPESA, TipoLancamento.DESPESA);
+        Assertions.assertThat(gravados.get(1).getValor()).isEqualByComparingTo(BigDecimal.valueOf(1200.50));
+        Assertions.assertThat(gravados.get(2).getMes()).isEqualTo(2);
+    }
+
+    @Test
+    public void deveRetomarAImportacaoAPartirDoUltimoBlocoGravado(){
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Importacao interrompida = Importacao.builder().id(1l).idUsuario(1l).formato("csv")
+                .status(StatusImportacao.FALHOU)
+                .linhasProcessadas(2l).linhasImportadas(2l).linhasComErro(0l).build();
+        Mockito.when(repository.assumir(Mockito.eq(1l), Mockito.any(), Mockito.any())).thenReturn(1);
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(interrompida));
+
+        Importacao importacao = service.retomar(interrompida, usuario, conteudo(CSV));
+
+        Assertions.assertThat(importacao.getStatus()).isEqualTo(StatusImportacao.CONCLUIDA);
+        Assertions.assertThat(importacao.getLinhasProcessadas()).isEqualTo(4);
+        Assertions.assertThat(gravados).extracting(Lancamento::getDescricao).containsExactly("Padaria");
+    }
+
+    @Test
+    public void naoDeveRetomarUmaImportacaoQueOutraRequisicaoJaAssumiu(){
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Importacao emAndamento = Importacao.builder().id(1l).idUsuario(1l).formato("csv")
+                .status(StatusImportacao.EM_ANDAMENTO)
+                .linhasProcessadas(2l).linhasImportadas(2l).linhasComErro(0l).build();
+        Mockito.when(repository.assumir(Mockito.eq(1l), Mockito.any(), Mockito.any())).thenReturn(0);
+
+        Assertions.assertThatThrownBy(() -> service.retomar(emAndamento, usuario, conteudo(CSV)))
+                .isInstanceOf(RegraNegocioException.class)
+                .hasMessage("A importação já está em andamento ou foi concluída!");
+        Assertions.assertThat(gravados).isEmpty();
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(Importacao.class));
+    }
+
+    @Test
+    public void deveImportarUmExtratoOfx(){
+        String ofx = "OFXHEADER:100\nDATA:OFXSGML\n<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n" +
+                "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20200115120000[-3:BRT]\n<TRNAMT>-42.90\n<MEMO>Farmácia\n</STMTTRN>\n" +
+                "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20200120<TRNAMT>100.00<NAME>Pix recebido</STMTTRN>\n" +
+                "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>";
+
+        Importacao importacao = service.importar(Usuario.builder().id(1l).build(), "ofx", conteudo(ofx));
+
+        Assertions.assertThat(importacao.getLinhasImportadas()).isEqualTo(2);
+        Assertions.assertThat(gravados).extracting(Lancamento::getDescricao).containsExactly("Farmácia", "Pix recebido");
+        Assertions.assertThat(gravados.get(0).getTipoLancamento()).isEqualTo(TipoLancamento.DESPESA);
+        Assertions.assertThat(gravados.get(1).getTipoLancamento()).isEqualTo(TipoLancamento.RECEITA);
+    }
+
+    @Test
+    public void naoDeveImportarUmFormatoInvalido(){
+        Throwable erro = Assertions.catchThrowable(() ->
+                service.importar(Usuario.builder().id(1l).build(), "xls", conteudo("")));
+
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(Importacao.class));
+    }
+
+    private InputStream conteudo(String texto){
+        return new ByteArrayInputStream(texto.getBytes(StandardCharsets.UTF_8));
+    }
+}
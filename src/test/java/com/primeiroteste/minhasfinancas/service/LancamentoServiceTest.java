@@ -1,15 +1,23 @@
 package com.primeiroteste.minhasfinancas.service;
 
+import com.primeiroteste.minhasfinancas.api.dto.LancamentoDto;
+import com.primeiroteste.minhasfinancas.config.LeituraAposEscrita;
 import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
 import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
 import com.primeiroteste.minhasfinancas.model.entity.Usuario;
 import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.repository.CursorLancamento;
 import com.primeiroteste.minhasfinancas.model.repository.LancamentoRepository;
 import com.primeiroteste.minhasfinancas.model.repository.LancamentoRepositoryTest;
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoValor;
 import com.primeiroteste.minhasfinancas.service.impl.LancamentoServiceImpl;
+import com.primeiroteste.minhasfinancas.service.indice.IndiceDescricao;
 import org.assertj.core.api.Assertions;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
@@ -19,9 +27,14 @@ import org.springframework.test.context.junit4.SpringRunner;
 
 import javax.validation.constraints.Null;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @RunWith(SpringRunner.class)
 @ActiveProfiles("test")
@@ -31,10 +44,19 @@ public class LancamentoServiceTest {
     LancamentoServiceImpl service;
     @MockBean
     LancamentoRepository repository;
+    @MockBean
+    SaldoService saldoService;
+    @MockBean
+    IndiceDescricao indiceDescricao;
+    @MockBean
+    LeituraAposEscrita leituraAposEscrita;
+    @MockBean
+    ResumoMensalService resumoMensalService;
 
     @Test
     public void deveSalvarUmLancamento(){
         Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
+        lancamentoASalvar.setUsuario(Usuario.builder().id(1l).build());
         Mockito.doNothing().when(service).validar(lancamentoASalvar);
 
         Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
@@ -45,9 +67,29 @@ public class LancamentoServiceTest {
 
         Assertions.assertThat(lancamento.getId()).isEqualTo(lancamentoSalvo.getId());
         Assertions.assertThat(lancamento.getStatusLancamento()).isEqualTo(StatusLancamento.PENDENTE);
+        Mockito.verify(saldoService).registrar(1l, TipoLancamento.RECEITA, lancamentoASalvar.getValor());
 
     }
 
+    @Test
+    public void deveSalvarUmLoteSomandoOSaldoUmaVezPorTipo(){
+        Usuario usuario = Usuario.builder().id(1l).build();
+        Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+        primeiro.setUsuario(usuario);
+        Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+        segundo.setUsuario(usuario);
+        segundo.setDescricao("Outro");
+        List<Lancamento> lote = Arrays.asList(primeiro, segundo);
+        Mockito.doNothing().when(service).validar(Mockito.any(Lancamento.class));
+        Mockito.when(repository.saveAll(lote)).thenReturn(lote);
+
+        service.salvarLote(lote);
+
+        Mockito.verify(saldoService, Mockito.times(1)).registrar(1l, TipoLancamento.RECEITA, BigDecimal.valueOf(20));
+        Mockito.verify(repository).saveAll(lote);
+        Mockito.verify(repository).flush();
+    }
+
     @Test
     public void naoDeveSalvarUmLancamentoQuandoHouverErroDeValidacao(){
         Lancamento lancamentoASalvar = LancamentoRepositoryTest.criarLancamento();
@@ -56,6 +98,7 @@ public class LancamentoServiceTest {
         Assertions.catchThrowableOfType(()->service.salvar(lancamentoASalvar), RegraNegocioException.class);
 
         Mockito.verify(repository, Mockito.never()).save(lancamentoASalvar);
+        Mockito.verifyNoInteractions(saldoService);
 
     }
 
@@ -63,6 +106,7 @@ public class LancamentoServiceTest {
     public void deveAtualizarUmLancamento(){
         Lancamento lancamentoSalvo = LancamentoRepositoryTest.criarLancamento();
         lancamentoSalvo.setId(1l);
+        lancamentoSalvo.setUsuario(Usuario.builder().id(1l).build());
         Mockito.doNothing().when(service).validar(lancamentoSalvo);
 
 
@@ -73,6 +117,27 @@ public class LancamentoServiceTest {
         Mockito.verify(repository, Mockito.times(1)).save(lancamentoSalvo);
     }
 
+    @Test
+    public void deveEstornarOValorAnteriorDoSaldoAoAtualizarUmLancamento(){
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+        lancamento.setValor(BigDecimal.valueOf(50));
+        lancamento.setUsuario(Usuario.builder().id(1l).build());
+        Mockito.doNothing().when(service).validar(lancamento);
+
+        LancamentoValor anterior = Mockito.mock(LancamentoValor.class);
+        Mockito.when(anterior.getIdUsuario()).thenReturn(1l);
+        Mockito.when(anterior.getTipoLancamento()).thenReturn(TipoLancamento.DESPESA);
+        Mockito.when(anterior.getValor()).thenReturn(BigDecimal.valueOf(30));
+        Mockito.when(repository.obterValorPersistido(1l)).thenReturn(Optional.of(anterior));
+        Mockito.when(repository.save(lancamento)).thenReturn(lancamento);
+
+        service.atualizar(lancamento);
+
+        Mockito.verify(saldoService).estornar(1l, TipoLancamento.DESPESA, BigDecimal.valueOf(30));
+        Mockito.verify(saldoService).registrar(1l, TipoLancamento.RECEITA, BigDecimal.valueOf(50));
+    }
+
     @Test
     public void deveLancarErroAoTentarAtualizarLancamentoQueAindaNaoFoiSalvo(){
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
@@ -91,6 +156,23 @@ public class LancamentoServiceTest {
        Mockito.verify(repository).delete(lancamento);
     }
 
+    @Test
+    public void deveEstornarOSaldoAoDeletarUmLancamento(){
+        Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
+        lancamento.setId(1l);
+
+        LancamentoValor anterior = Mockito.mock(LancamentoValor.class);
+        Mockito.when(anterior.getIdUsuario()).thenReturn(1l);
+        Mockito.when(anterior.getTipoLancamento()).thenReturn(TipoLancamento.RECEITA);
+        Mockito.when(anterior.getValor()).thenReturn(BigDecimal.valueOf(10));
+        Mockito.when(repository.obterValorPersistido(1l)).thenReturn(Optional.of(anterior));
+
+        service.deletar(lancamento);
+
+        Mockito.verify(saldoService).estornar(1l, TipoLancamento.RECEITA, BigDecimal.valueOf(10));
+        Mockito.verify(repository).delete(lancamento);
+    }
+
     @Test
     public void deveLancarErroAoTentarDeletarUmLancamentoQueAindaNaoFoiSalvo(){
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
@@ -112,6 +194,67 @@ public class LancamentoServiceTest {
 
         Assertions.assertThat(resultado).isNotEmpty().hasSize(1).contains(lancamento);
     }
+    @Test
+    public void deveBuscarUmaPaginaDeLancamentosAPartirDoCursor(){
+        Lancamento filtro = LancamentoRepositoryTest.criarLancamento();
+        filtro.setDescricao(null);
+        CursorLancamento cursor = new CursorLancamento(2019, 1, 10l);
+        LancamentoDto lancamento = new LancamentoDto();
+        lancamento.setId(11l);
+        Mockito.when(repository.buscarPagina(filtro, cursor, 20)).thenReturn(Arrays.asList(lancamento));
+
+        List<LancamentoDto> resultado = service.buscar(filtro, cursor, 20);
+
+        Assertions.assertThat(resultado).containsExactly(lancamento);
+        Mockito.verify(repository, Mockito.never()).findAll(Mockito.any(Example.class));
+    }
+
+    @Test
+    public void deveBuscarPelaDescricaoUsandoOsIdsDoIndice(){
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+        filtro.setDescricao("merc");
+        filtro.setAno(2020);
+        Set<Long> ids = new HashSet<>(Arrays.asList(3l, 7l));
+        Mockito.when(indiceDescricao.buscar(1l, "merc")).thenReturn(ids);
+
+        service.buscar(filtro, null, 20);
+
+        ArgumentCaptor<Lancamento> captor = ArgumentCaptor.forClass(Lancamento.class);
+        Mockito.verify(repository).buscarPagina(captor.capture(), Mockito.eq(ids), Mockito.isNull(), Mockito.eq(20));
+        Assertions.assertThat(captor.getValue().getDescricao()).isNull();
+        Assertions.assertThat(captor.getValue().getAno()).isEqualTo(2020);
+    }
+
+    @Test
+    public void naoDeveIrAoBancoQuandoOIndiceNaoEncontraADescricao(){
+        Lancamento filtro = new Lancamento();
+        filtro.setUsuario(Usuario.builder().id(1l).build());
+        filtro.setDescricao("inexistente");
+        Mockito.when(indiceDescricao.buscar(1l, "inexistente")).thenReturn(Collections.emptySet());
+
+        List<LancamentoDto> resultado = service.buscar(filtro, null, 20);
+
+        Assertions.assertThat(resultado).isEmpty();
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveExportarEDesanexarCadaLancamento(){
+        Lancamento primeiro = LancamentoRepositoryTest.criarLancamento();
+        primeiro.setId(1l);
+        Lancamento segundo = LancamentoRepositoryTest.criarLancamento();
+        segundo.setId(2l);
+        Mockito.when(repository.streamPorUsuario(1l)).thenReturn(Stream.of(primeiro, segundo));
+
+        List<Lancamento> exportados = new ArrayList<>();
+        service.exportar(1l, exportados::add);
+
+        Assertions.assertThat(exportados).containsExactly(primeiro, segundo);
+        Mockito.verify(repository).desanexar(primeiro);
+        Mockito.verify(repository).desanexar(segundo);
+    }
+
     @Test
     public void deveAtualizarStatusDeUmLancamento(){
         Lancamento lancamento = LancamentoRepositoryTest.criarLancamento();
@@ -156,6 +299,16 @@ public class LancamentoServiceTest {
         Assertions.assertThat(resultado.isPresent()).isFalse();
     }
 
+    @Test
+    public void deveObterOSaldoPeloSaldoDoUsuario(){
+        Mockito.when(saldoService.obterSaldo(1l)).thenReturn(BigDecimal.valueOf(100));
+
+        BigDecimal saldo = service.obterSaldoPorUsuario(1l);
+
+        Assertions.assertThat(saldo).isEqualTo(BigDecimal.valueOf(100));
+        Mockito.verify(repository, Mockito.never()).obterSaldoPorTipoLancamentoEUsuario(Mockito.anyLong(), Mockito.any());
+    }
+
     @Test
     public void deveLancarErrosAoValidarUmLancamento(){
         Lancamento lancamento = new Lancamento();
@@ -211,4 +364,58 @@ public class LancamentoServiceTest {
 
     }
 
+
+    @Test
+    public void deveAtualizarOStatusEmLoteComUmUnicoUpdate(){
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1l).build()).ano(2020).mes(1).build();
+        Mockito.when(repository.contarPorStatus(filtro, null, Collections.singleton(StatusLancamento.CANCELADO))).thenReturn(0l);
+        Mockito.when(repository.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO)).thenReturn(4);
+
+        int atualizados = service.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO);
+
+        Assertions.assertThat(atualizados).isEqualTo(4);
+        InOrder ordem = Mockito.inOrder(repository);
+        ordem.verify(repository).travar(filtro, null);
+        ordem.verify(repository).resumir(filtro, null, StatusLancamento.EFETIVADO);
+        ordem.verify(repository).atualizarStatus(filtro, null, StatusLancamento.EFETIVADO);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(Lancamento.class));
+        Mockito.verifyNoInteractions(saldoService);
+    }
+
+    @Test
+    public void naoDeveAtualizarNenhumStatusQuandoAlgumLancamentoEstiverCancelado(){
+        Lancamento filtro = Lancamento.builder().usuario(Usuario.builder().id(1l).build()).build();
+        List<Long> ids = Arrays.asList(1l, 2l);
+        Mockito.when(repository.contarPorStatus(filtro, ids, Collections.singleton(StatusLancamento.CANCELADO))).thenReturn(1l);
+
+        Throwable erro = Assertions.catchThrowable(() -> service.atualizarStatus(filtro, ids, StatusLancamento.EFETIVADO));
+
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class)
+                .hasMessage("Não é possível alterar o status de lançamentos cancelados!");
+
+        Mockito.verify(repository, Mockito.never()).atualizarStatus(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void naoDeveTirarDeCanceladoUmLancamentoPelaVersao(){
+        LancamentoValor anterior = Mockito.mock(LancamentoValor.class);
+        Mockito.when(anterior.getIdUsuario()).thenReturn(1l);
+        Mockito.when(anterior.getStatusLancamento()).thenReturn(StatusLancamento.CANCELADO);
+        Mockito.when(repository.obterValorPersistido(10l)).thenReturn(Optional.of(anterior));
+
+        Throwable erro = Assertions.catchThrowable(() -> service.atualizarStatusNaVersao(10l, 5l, 1l, StatusLancamento.PENDENTE));
+
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class)
+                .hasMessage("Não é possível alterar o status de lançamentos cancelados!");
+        Mockito.verify(repository, Mockito.never()).atualizarStatusNaVersao(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void naoDeveAtualizarStatusSoPelosIdsSemOUsuario(){
+        Throwable erro = Assertions.catchThrowable(() -> service.atualizarStatus(new Lancamento(), Arrays.asList(1l, 2l), StatusLancamento.EFETIVADO));
+
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class)
+                .hasMessage("Informe o usuário para atualizar o status!");
+        Mockito.verify(repository, Mockito.never()).atualizarStatus(Mockito.any(), Mockito.any(), Mockito.any());
+    }
 }
@@ -0,0 +1,82 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.ChaveResumoMensal;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.repository.ResumoMensalRepository;
+import com.primeiroteste.minhasfinancas.service.impl.ResumoMensalServiceImpl;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class ResumoMensalServiceTest {
+
+    @SpyBean
+    ResumoMensalServiceImpl service;
+
+    @MockBean
+    ResumoMensalRepository repository;
+
+    @Test
+    public void deveJuntarAsParcelasDaMesmaChaveNumUnicoUpdate(){
+        ChaveResumoMensal chave = chave(StatusLancamento.PENDENTE);
+        Mockito.when(repository.somarValores(chave, BigDecimal.valueOf(30), 2l)).thenReturn(1);
+
+        service.somar(Arrays.asList(parcela(chave, 10, 1), parcela(chave, 20, 1)));
+
+        Mockito.verify(repository).somarValores(chave, BigDecimal.valueOf(30), 2l);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(ResumoMensal.class));
+    }
+
+    @Test
+    public void deveInserirALinhaQuandoAChaveAindaNaoExistir(){
+        ChaveResumoMensal chave = chave(StatusLancamento.EFETIVADO);
+        ResumoMensal parcela = parcela(chave, 10, 1);
+        Mockito.when(repository.somarValores(chave, BigDecimal.TEN, 1l)).thenReturn(0);
+        Mockito.when(repository.inserir(chave, BigDecimal.TEN, 1l)).thenReturn(1);
+
+        service.somar(Arrays.asList(parcela));
+
+        Mockito.verify(repository).inserir(chave, BigDecimal.TEN, 1l);
+        Mockito.verify(repository, Mockito.times(1)).somarValores(chave, BigDecimal.TEN, 1l);
+    }
+
+    @Test
+    public void deveSomarNaLinhaDaOutraTransacaoQuandoPerderOPrimeiroInsert(){
+        ChaveResumoMensal chave = chave(StatusLancamento.EFETIVADO);
+        Mockito.when(repository.somarValores(chave, BigDecimal.TEN, 1l)).thenReturn(0, 1);
+        Mockito.when(repository.inserir(chave, BigDecimal.TEN, 1l)).thenReturn(0);
+
+        service.somar(Arrays.asList(parcela(chave, 10, 1)));
+
+        Mockito.verify(repository, Mockito.times(2)).somarValores(chave, BigDecimal.TEN, 1l);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(ResumoMensal.class));
+    }
+
+    @Test
+    public void naoDeveIrAoBancoQuandoEstornoERegistroSeAnularem(){
+        ChaveResumoMensal chave = chave(StatusLancamento.PENDENTE);
+
+        service.somar(Arrays.asList(parcela(chave, 10, 1), parcela(chave, -10, -1)));
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    private static ChaveResumoMensal chave(StatusLancamento status){
+        return new ChaveResumoMensal(1l, 2020, 1, TipoLancamento.RECEITA, status);
+    }
+
+    private static ResumoMensal parcela(ChaveResumoMensal chave, int valor, long quantidade){
+        return ResumoMensal.builder().chave(chave).valorTotal(BigDecimal.valueOf(valor)).quantidade(quantidade).build();
+    }
+}
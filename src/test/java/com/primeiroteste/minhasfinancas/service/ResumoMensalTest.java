@@ -0,0 +1,68 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class ResumoMensalTest {
+
+    @Autowired
+    UsuarioService usuarioService;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Test
+    public void deveManterOResumoDoAnoAtualizadoPelasEscritasDoLancamento(){
+        Usuario usuario = usuarioService.salvarUsuario(Usuario.builder()
+                .nome("resumo").email("resumo@email.com").senha("senha").build());
+        Lancamento salario = lancamentoService.salvar(lancamento(usuario, 1, 1000, TipoLancamento.RECEITA));
+        Lancamento aluguel = lancamentoService.salvar(lancamento(usuario, 1, 300, TipoLancamento.DESPESA));
+        lancamentoService.salvarLote(Arrays.asList(
+                lancamento(usuario, 2, 50, TipoLancamento.DESPESA),
+                lancamento(usuario, 2, 70, TipoLancamento.DESPESA)));
+        lancamentoService.salvar(Lancamento.builder().usuario(usuario).descricao("Outro ano").mes(1).ano(2021)
+                .valor(BigDecimal.ONE).tipoLancamento(TipoLancamento.RECEITA).build());
+
+        Lancamento filtro = Lancamento.builder().usuario(usuario).ano(2020).mes(2).build();
+        lancamentoService.atualizarStatus(filtro, null, StatusLancamento.EFETIVADO);
+        lancamentoService.atualizarStatusNaVersao(salario.getId(), salario.getVersao(), usuario.getId(), StatusLancamento.EFETIVADO);
+        lancamentoService.deletar(aluguel);
+
+        List<String> resumo = lancamentoService.obterResumoPorAno(usuario.getId(), 2020).stream()
+                .map(ResumoMensalTest::descrever)
+                .collect(Collectors.toList());
+        Assertions.assertThat(resumo).containsExactly(
+                "1 RECEITA EFETIVADO 1000.00 1",
+                "2 DESPESA EFETIVADO 120.00 2");
+        Assertions.assertThat(lancamentoService.obterSaldoPorUsuario(usuario.getId())).isEqualByComparingTo("881");
+        Assertions.assertThat(lancamentoService.recalcularSaldoPorUsuario(usuario.getId())).isEqualByComparingTo("881");
+    }
+
+    private static String descrever(ResumoMensal resumo){
+        return resumo.getChave().getMes() + " " + resumo.getChave().getTipoLancamento() + " "
+                + resumo.getChave().getStatusLancamento() + " " + resumo.getValorTotal().setScale(2) + " " + resumo.getQuantidade();
+    }
+
+    private static Lancamento lancamento(Usuario usuario, int mes, int valor, TipoLancamento tipo){
+        return Lancamento.builder().usuario(usuario).descricao("Lancamento").mes(mes).ano(2020)
+                .valor(BigDecimal.valueOf(valor)).tipoLancamento(tipo).build();
+    }
+}
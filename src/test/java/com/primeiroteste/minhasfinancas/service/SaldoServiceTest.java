@@ -0,0 +1,108 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.SaldoUsuario;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoRepository;
+import com.primeiroteste.minhasfinancas.model.repository.SaldoUsuarioRepository;
+import com.primeiroteste.minhasfinancas.service.impl.SaldoServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+@RunWith(SpringRunner.class)
+@ActiveProfiles("test")
+public class SaldoServiceTest {
+
+    @SpyBean
+    SaldoServiceImpl service;
+
+    @MockBean
+    SaldoUsuarioRepository repository;
+
+    @MockBean
+    LancamentoRepository lancamentoRepository;
+
+    @Test
+    public void deveSomarUmaReceitaNoSaldoExistente(){
+        Mockito.when(repository.somarValores(1l, BigDecimal.TEN, BigDecimal.ZERO)).thenReturn(1);
+
+        service.registrar(1l, TipoLancamento.RECEITA, BigDecimal.TEN);
+
+        Mockito.verify(repository).somarValores(1l, BigDecimal.TEN, BigDecimal.ZERO);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(SaldoUsuario.class));
+    }
+
+    @Test
+    public void deveSubtrairADespesaAoEstornar(){
+        Mockito.when(repository.somarValores(1l, BigDecimal.ZERO, BigDecimal.TEN.negate())).thenReturn(1);
+
+        service.estornar(1l, TipoLancamento.DESPESA, BigDecimal.TEN);
+
+        Mockito.verify(repository).somarValores(1l, BigDecimal.ZERO, BigDecimal.TEN.negate());
+    }
+
+    @Test
+    public void deveMontarOSaldoAPartirDosLancamentosQuandoAindaNaoExistir(){
+        Mockito.when(repository.somarValores(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0);
+        Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuario(1l, TipoLancamento.RECEITA))
+                .thenReturn(BigDecimal.valueOf(100));
+        Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuario(1l, TipoLancamento.DESPESA))
+                .thenReturn(null);
+
+        Mockito.when(repository.inserir(1l, BigDecimal.valueOf(100), BigDecimal.valueOf(40))).thenReturn(1);
+
+        service.registrar(1l, TipoLancamento.DESPESA, BigDecimal.valueOf(40));
+
+        Mockito.verify(repository).inserir(1l, BigDecimal.valueOf(100), BigDecimal.valueOf(40));
+        Mockito.verify(repository, Mockito.times(1)).somarValores(Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void deveSomarNaLinhaDaOutraTransacaoQuandoPerderOPrimeiroInsert(){
+        Mockito.when(repository.somarValores(1l, BigDecimal.TEN, BigDecimal.ZERO)).thenReturn(0, 1);
+        Mockito.when(repository.inserir(Mockito.anyLong(), Mockito.any(), Mockito.any())).thenReturn(0);
+
+        service.registrar(1l, TipoLancamento.RECEITA, BigDecimal.TEN);
+
+        Mockito.verify(repository, Mockito.times(2)).somarValores(1l, BigDecimal.TEN, BigDecimal.ZERO);
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(SaldoUsuario.class));
+    }
+
+    @Test
+    public void deveObterOSaldoPelaChaveDoUsuario(){
+        SaldoUsuario saldo = SaldoUsuario.builder().idUsuario(1l)
+                .totalReceitas(BigDecimal.valueOf(100)).totalDespesas(BigDecimal.valueOf(30)).build();
+        Mockito.when(repository.findById(1l)).thenReturn(Optional.of(saldo));
+
+        BigDecimal resultado = service.obterSaldo(1l);
+
+        Assertions.assertThat(resultado).isEqualTo(BigDecimal.valueOf(70));
+        Mockito.verifyNoInteractions(lancamentoRepository);
+    }
+
+    @Test
+    public void deveRecalcularOSaldoAPartirDosLancamentos(){
+        Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuario(1l, TipoLancamento.RECEITA))
+                .thenReturn(BigDecimal.valueOf(50));
+        Mockito.when(lancamentoRepository.obterSaldoPorTipoLancamentoEUsuario(1l, TipoLancamento.DESPESA))
+                .thenReturn(BigDecimal.valueOf(20));
+        Mockito.when(repository.save(Mockito.any(SaldoUsuario.class))).thenAnswer(i -> i.getArgument(0));
+
+        SaldoUsuario saldo = service.recalcular(1l);
+
+        Assertions.assertThat(saldo.getSaldo()).isEqualTo(BigDecimal.valueOf(30));
+        InOrder ordem = Mockito.inOrder(repository, lancamentoRepository);
+        ordem.verify(repository).travar(1l);
+        ordem.verify(lancamentoRepository).obterSaldoPorTipoLancamentoEUsuario(1l, TipoLancamento.RECEITA);
+        ordem.verify(repository).save(Mockito.any(SaldoUsuario.class));
+    }
+}
@@ -0,0 +1,110 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.model.entity.ResumoMensal;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.model.enums.FrequenciaRecorrencia;
+import com.primeiroteste.minhasfinancas.model.enums.StatusLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoLancamento;
+import com.primeiroteste.minhasfinancas.model.enums.TipoRecorrencia;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class SerieLancamentoTest {
+
+    @Autowired
+    UsuarioService usuarioService;
+
+    @Autowired
+    LancamentoService lancamentoService;
+
+    @Autowired
+    SaldoService saldoService;
+
+    Usuario usuario;
+
+    @Before
+    public void setUp(){
+        usuario = usuarioService.salvarUsuario(Usuario.builder()
+                .nome("serie").email("serie" + System.nanoTime() + "@email.com").senha("senha").build());
+    }
+
+    @Test
+    public void deveParcelarDeixandoOsCentavosQueSobramNaPrimeiraParcela(){
+        List<Lancamento> serie = lancamentoService.salvarSerie(modelo(11, 2020, "100.00", TipoLancamento.DESPESA),
+                TipoRecorrencia.PARCELADO, FrequenciaRecorrencia.MENSAL, 3);
+
+        Assertions.assertThat(serie).extracting(Lancamento::getParcela).containsExactly(1, 2, 3);
+        Assertions.assertThat(serie).extracting(l -> l.getMes() + "/" + l.getAno()).containsExactly("11/2020", "12/2020", "1/2021");
+        Assertions.assertThat(serie).extracting(l -> l.getValor().toPlainString()).containsExactly("33.34", "33.33", "33.33");
+        Assertions.assertThat(serie).extracting(Lancamento::getIdSerie).containsOnly(serie.get(0).getIdSerie()).doesNotContainNull();
+        Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isEqualByComparingTo("-100");
+    }
+
+    @Test
+    public void deveAlterarECancelarSoOsPendentesDaSerieAcertandoSaldoEResumo(){
+        List<Lancamento> serie = lancamentoService.salvarSerie(modelo(1, 2020, "50", TipoLancamento.DESPESA),
+                TipoRecorrencia.RECORRENTE, FrequenciaRecorrencia.TRIMESTRAL, 4);
+        Lancamento primeiro = serie.get(0);
+        lancamentoService.atualizarStatusNaVersao(primeiro.getId(), primeiro.getVersao(), usuario.getId(), StatusLancamento.EFETIVADO);
+        Lancamento filtro = Lancamento.builder().usuario(usuario).idSerie(primeiro.getIdSerie()).build();
+
+        int alterados = lancamentoService.atualizarSerie(filtro,
+                Lancamento.builder().descricao("Academia nova").valor(BigDecimal.valueOf(80)).build());
+
+        Assertions.assertThat(alterados).isEqualTo(3);
+        Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isEqualByComparingTo("-290");
+        Assertions.assertThat(resumo()).containsExactly(
+                "1 DESPESA EFETIVADO 50.00 1",
+                "4 DESPESA PENDENTE 80.00 1",
+                "7 DESPESA PENDENTE 80.00 1",
+                "10 DESPESA PENDENTE 80.00 1");
+
+        Assertions.assertThat(lancamentoService.cancelarSerie(filtro)).isEqualTo(3);
+        Assertions.assertThat(lancamentoService.atualizarSerie(filtro, Lancamento.builder().valor(BigDecimal.ONE).build())).isZero();
+        Assertions.assertThat(resumo()).containsExactly(
+                "1 DESPESA EFETIVADO 50.00 1",
+                "4 DESPESA CANCELADO 80.00 1",
+                "7 DESPESA CANCELADO 80.00 1",
+                "10 DESPESA CANCELADO 80.00 1");
+    }
+
+    @Test
+    public void naoDeveGerarSerieAcimaDoLimite(){
+        Throwable erro = Assertions.catchThrowable(() -> lancamentoService.salvarSerie(modelo(1, 2020, "10", TipoLancamento.RECEITA),
+                TipoRecorrencia.RECORRENTE, FrequenciaRecorrencia.MENSAL, 121));
+
+        Assertions.assertThat(erro).isInstanceOf(RegraNegocioException.class);
+        Assertions.assertThat(saldoService.obterSaldo(usuario.getId())).isEqualByComparingTo("0");
+    }
+
+    private List<String> resumo(){
+        return lancamentoService.obterResumoPorAno(usuario.getId(), 2020).stream()
+                .map(SerieLancamentoTest::descrever)
+                .collect(Collectors.toList());
+    }
+
+    private static String descrever(ResumoMensal resumo){
+        return resumo.getChave().getMes() + " " + resumo.getChave().getTipoLancamento() + " "
+                + resumo.getChave().getStatusLancamento() + " " + resumo.getValorTotal().setScale(2) + " " + resumo.getQuantidade();
+    }
+
+    private Lancamento modelo(int mes, int ano, String valor, TipoLancamento tipo){
+        return Lancamento.builder().usuario(usuario).descricao("Academia").mes(mes).ano(ano)
+                .valor(new BigDecimal(valor)).tipoLancamento(tipo).build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.service.impl.TokenServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public class TokenServiceTest {
+
+    static final String SEGREDO = "segredo-dos-testes-com-mais-de-32-bytes";
+
+    TokenService service = new TokenServiceImpl(SEGREDO, Duration.ofHours(1));
+
+    @Test
+    public void deveValidarUmTokenGeradoERetornarOIdDoUsuario(){
+        String token = service.gerarToken(Usuario.builder().id(7l).build());
+
+        Optional<Long> id = service.validar(token);
+
+        Assertions.assertThat(id).contains(7l);
+    }
+
+    @Test
+    public void naoDeveValidarUmTokenAdulterado(){
+        String token = service.gerarToken(Usuario.builder().id(7l).build());
+        String outro = service.gerarToken(Usuario.builder().id(8l).build());
+        String adulterado = outro.substring(0, outro.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        Assertions.assertThat(service.validar(adulterado)).isEmpty();
+        Assertions.assertThat(service.validar("lixo")).isEmpty();
+    }
+
+    @Test
+    public void naoDeveValidarUmTokenAssinadoComOutroSegredo(){
+        String token = new TokenServiceImpl("outro-segredo-tambem-com-mais-de-32-bytes", Duration.ofHours(1)).gerarToken(Usuario.builder().id(7l).build());
+
+        Assertions.assertThat(service.validar(token)).isEmpty();
+    }
+
+    @Test
+    public void naoDeveValidarUmTokenExpirado(){
+        TokenService expirado = new TokenServiceImpl(SEGREDO, Duration.ofSeconds(-1));
+        String token = expirado.gerarToken(Usuario.builder().id(7l).build());
+
+        Assertions.assertThat(expirado.validar(token)).isEmpty();
+    }
+
+    @Test
+    public void naoDeveSubirComSegredoAusenteCurtoOuDeExemplo(){
+        Assertions.assertThatThrownBy(() -> new TokenServiceImpl("", Duration.ofHours(1)))
+                .isInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(() -> new TokenServiceImpl("segredo", Duration.ofHours(1)))
+                .isInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(() -> new TokenServiceImpl("troque-este-segredo-em-producao-xxxxxxxxxxx", Duration.ofHours(1)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.primeiroteste.minhasfinancas.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.primeiroteste.minhasfinancas.model.entity.Usuario;
+import com.primeiroteste.minhasfinancas.service.impl.CacheUsuarios;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.Optional;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("test")
+public class UsuarioCacheTest {
+
+    @Autowired
+    UsuarioService service;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Test
+    public void deveGuardarOUsuarioNoCacheAoSalvarEBuscarPorIdSemIrAoBanco(){
+        Usuario usuario = service.salvarUsuario(Usuario.builder()
+                .nome("cache").email("cache-id@email.com").senha("senha").build());
+        CacheStats antes = estatisticas(CacheUsuarios.POR_ID);
+
+        service.obterPorId(usuario.getId());
+        Optional<Usuario> doCache = service.obterPorId(usuario.getId());
+
+        CacheStats depois = estatisticas(CacheUsuarios.POR_ID).minus(antes);
+        Assertions.assertThat(doCache).isPresent();
+        Assertions.assertThat(depois.missCount()).isZero();
+        Assertions.assertThat(depois.hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void deveInvalidarOEmailNoCacheAoSalvarUmUsuario(){
+        String email = "cache-email@email.com";
+        Throwable erro = Assertions.catchThrowable(() -> service.autenticar(email, "senha"));
+        Assertions.assertThat(erro).isNotNull();
+        Assertions.assertThat(cacheManager.getCache(CacheUsuarios.POR_EMAIL).get(email)).isNull(); //oVazioNaoFicaNoCache
+
+        service.salvarUsuario(Usuario.builder().nome("cache").email(email).senha("senha").build());
+
+        Assertions.assertThat(service.autenticar(email, "senha").getEmail()).isEqualTo(email);
+    }
+
+    @Test
+    public void deveDevolverUmaCopiaSemASenhaQueNaoAlteraOCache(){
+        Usuario usuario = service.salvarUsuario(Usuario.builder()
+                .nome("cache").email("cache-copia@email.com").senha("senha").build());
+
+        Usuario primeiro = service.obterPorId(usuario.getId()).get();
+        primeiro.setNome("alterado");
+        Usuario segundo = service.obterPorId(usuario.getId()).get();
+
+        Assertions.assertThat(segundo.getNome()).isEqualTo("cache");
+        Assertions.assertThat(segundo.getSenha()).isNull();
+    }
+
+    //oEvictEsperaOCommitEntaoOCacheDeVerdadeFicaDentroDoDecorator
+    private CacheStats estatisticas(String cache){
+        TransactionAwareCacheDecorator decorator = (TransactionAwareCacheDecorator) cacheManager.getCache(cache);
+        return ((CaffeineCache) decorator.getTargetCache()).getNativeCache().stats();
+    }
+}
@@ -4,8 +4,11 @@ import com.primeiroteste.minhasfinancas.exception.ErroAutenticacao;
 import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
 import com.primeiroteste.minhasfinancas.model.entity.Usuario;
 import com.primeiroteste.minhasfinancas.model.repository.UsuarioRepository;
+import com.primeiroteste.minhasfinancas.service.impl.CacheUsuarios;
 import com.primeiroteste.minhasfinancas.service.impl.UsuarioServiceImpl;
+import com.primeiroteste.minhasfinancas.service.indice.FiltroEmails;
 import org.assertj.core.api.Assertions;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -15,9 +18,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 @RunWith(SpringRunner.class)
@@ -30,6 +35,17 @@ public class UsuarioServiceTest {
     @MockBean
     UsuarioRepository repository;
 
+    @MockBean
+    FiltroEmails filtroEmails;
+
+    @SpyBean
+    CacheUsuarios cacheUsuarios;
+
+    @Before
+    public void setUp(){
+        Mockito.when(filtroEmails.talvezContenha(Mockito.any())).thenReturn(true);
+    }
+
     @Test(expected = Test.None.class)
     public void deveSalvarUmUsuario(){
         //cenario
@@ -78,6 +94,7 @@ public class UsuarioServiceTest {
 
         //verificacao
         Assertions.assertThat(result).isNotNull();
+        Assertions.assertThat(result.getSenha()).isNull();
     }
 
     @Test
@@ -123,4 +140,62 @@ public class UsuarioServiceTest {
         //acao
         service.validarEmail("email@email.com");
     }
+
+    @Test
+    public void naoDeveConsultarOBancoQuandoOFiltroDisserQueOEmailNaoExiste(){
+        //cenario
+        Mockito.when(filtroEmails.talvezContenha("novo@email.com")).thenReturn(false);
+
+        //acao
+        service.validarEmail("novo@email.com");
+
+        //verificacao
+        Mockito.verify(repository, Mockito.never()).existsByEmail(Mockito.anyString());
+    }
+
+    @Test
+    public void deveTraduzirAViolacaoDaConstraintDeEmailUnicoEmRegraNegocioException(){
+        //cenario
+        Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+        Mockito.when(repository.save(Mockito.any(Usuario.class))).thenThrow(violacao("\"FINANCAS.UK_USUARIO_EMAIL ON FINANCAS.USUARIO(EMAIL)\""));
+
+        //acao
+        Throwable exception = Assertions.catchThrowable(() -> service.salvarUsuario(
+                Usuario.builder().email("email@email.com").build()));
+
+        //verificacao
+        Assertions.assertThat(exception).isInstanceOf(RegraNegocioException.class)
+                .hasMessage("Já existe um usuário cadastrado com este email");
+        Mockito.verify(filtroEmails, Mockito.never()).adicionar(Mockito.anyString());
+    }
+
+    @Test
+    public void naoDeveTraduzirOutraViolacaoComoEmailJaCadastrado(){
+        //cenario
+        Mockito.doNothing().when(service).validarEmail(Mockito.anyString());
+        Mockito.when(repository.save(Mockito.any(Usuario.class))).thenThrow(violacao("outra_constraint"));
+
+        //acao
+        Throwable exception = Assertions.catchThrowable(() -> service.salvarUsuario(
+                Usuario.builder().email("email@email.com").build()));
+
+        //verificacao
+        Assertions.assertThat(exception).isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    public void deveRecusarNomeEmailESenhaMaioresQueAsColunas(){
+        Assertions.assertThatThrownBy(() -> service.salvarUsuario(Usuario.builder().nome("n".repeat(151)).email("email@email.com").build()))
+                .isInstanceOf(RegraNegocioException.class).hasMessage("Informe um nome de até 150 caracteres!");
+        Assertions.assertThatThrownBy(() -> service.salvarUsuario(Usuario.builder().email("e".repeat(91) + "@email.com").build()))
+                .isInstanceOf(RegraNegocioException.class).hasMessage("Informe um email de até 100 caracteres!");
+        Assertions.assertThatThrownBy(() -> service.salvarUsuario(Usuario.builder().email("email@email.com").senha("s".repeat(21)).build()))
+                .isInstanceOf(RegraNegocioException.class).hasMessage("Informe uma senha de até 20 caracteres!");
+        Mockito.verify(repository, Mockito.never()).save(Mockito.any(Usuario.class));
+    }
+
+    private static DataIntegrityViolationException violacao(String constraint){
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException(), constraint));
+    }
 }
@@ -0,0 +1,36 @@
+package com.primeiroteste.minhasfinancas.service.expurgo;
+
+import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+
+public class ExpurgoLancamentosTest {
+
+    LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+    ExpurgoLancamentos expurgo = new ExpurgoLancamentos(lancamentoService, 2);
+
+    @Test
+    public void deveExpurgarEmLotesAteOUltimoVirIncompleto(){
+        Mockito.when(lancamentoService.expurgarExcluidos(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenReturn(2, 2, 1);
+
+        int total = expurgo.expurgar();
+
+        Assertions.assertThat(total).isEqualTo(5);
+        Mockito.verify(lancamentoService, Mockito.times(3)).expurgarExcluidos(Mockito.any(LocalDateTime.class), Mockito.eq(2));
+    }
+
+    @Test
+    public void deveUsarOMesmoLimiteEmTodosOsLotes(){
+        Mockito.when(lancamentoService.expurgarExcluidos(Mockito.any(LocalDateTime.class), Mockito.eq(2)))
+                .thenReturn(2, 0);
+
+        expurgo.expurgar();
+
+        Mockito.verify(lancamentoService, Mockito.times(2)).expurgarExcluidos(Mockito.argThat(limite ->
+                !limite.isAfter(LocalDateTime.now())), Mockito.eq(2));
+    }
+}
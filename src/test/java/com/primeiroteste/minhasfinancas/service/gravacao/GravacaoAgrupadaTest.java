@@ -0,0 +1,135 @@
+package com.primeiroteste.minhasfinancas.service.gravacao;
+
+import com.primeiroteste.minhasfinancas.exception.RegraNegocioException;
+import com.primeiroteste.minhasfinancas.model.entity.Lancamento;
+import com.primeiroteste.minhasfinancas.service.LancamentoService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GravacaoAgrupadaTest {
+
+    LancamentoService lancamentoService = Mockito.mock(LancamentoService.class);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    GravacaoAgrupada gravacao;
+
+    @After
+    public void tearDown(){
+        gravacao.close();
+    }
+
+    @Test
+    public void deveGravarVariasRequisicoesNumLoteSoEDevolverOIdDeCada(){
+        AtomicLong ids = new AtomicLong();
+        Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocation -> {
+            List<Lancamento> lancamentos = invocation.getArgument(0);
+            lancamentos.forEach(lancamento -> lancamento.setId(ids.incrementAndGet()));
+            return lancamentos;
+        });
+        gravacao = new GravacaoAgrupada(lancamentoService, registry, 10, Duration.ofMillis(200), 100, Duration.ofMillis(100), Duration.ofSeconds(5));
+
+        List<CompletableFuture<Lancamento>> futuros = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futuros.add(gravacao.enfileirar(Lancamento.builder().descricao("Lancamento " + i).build()));
+        }
+
+        Assertions.assertThat(futuros.stream().map(CompletableFuture::join).map(Lancamento::getId))
+                .containsExactlyInAnyOrder(1l, 2l, 3l, 4l, 5l, 6l, 7l, 8l, 9l, 10l);
+        Mockito.verify(lancamentoService, Mockito.times(1)).salvarLote(Mockito.anyList());
+        Assertions.assertThat(registry.get(GravacaoAgrupada.TAMANHO_LOTE).summary().max()).isEqualTo(10);
+        Assertions.assertThat(registry.get(GravacaoAgrupada.COMMIT).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void deveRefazerUmPorUmQuandoOLoteFalhaParaSoOLancamentoRuimFalhar(){
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocation -> {
+            liberar.await();
+            List<Lancamento> lancamentos = invocation.getArgument(0);
+            if(lancamentos.stream().anyMatch(lancamento -> lancamento.getDescricao().equals("ruim"))){
+                throw new RegraNegocioException("Usuário não encontrado para o id informado!");
+            }
+            lancamentos.forEach(lancamento -> lancamento.setId(1l));
+            return lancamentos;
+        });
+        gravacao = new GravacaoAgrupada(lancamentoService, registry, 10, Duration.ofMillis(200), 100, Duration.ofMillis(100), Duration.ofSeconds(5));
+
+        CompletableFuture<Lancamento> bom = gravacao.enfileirar(Lancamento.builder().descricao("bom").build());
+        CompletableFuture<Lancamento> ruim = gravacao.enfileirar(Lancamento.builder().descricao("ruim").build());
+        liberar.countDown();
+
+        Assertions.assertThat(bom.join().getId()).isEqualTo(1l);
+        Assertions.assertThatThrownBy(ruim::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RegraNegocioException.class);
+    }
+
+    @Test
+    public void deveRecusarQuandoAFilaEstaCheia() throws Exception{
+        CountDownLatch gravando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocation -> {
+            gravando.countDown();
+            liberar.await();
+            return invocation.getArgument(0);
+        });
+        gravacao = new GravacaoAgrupada(lancamentoService, registry, 1, Duration.ZERO, 1, Duration.ofMillis(10), Duration.ofSeconds(5));
+
+        CompletableFuture<Lancamento> primeiro = gravacao.enfileirar(new Lancamento());
+        gravando.await();
+        CompletableFuture<Lancamento> naFila = gravacao.enfileirar(new Lancamento());
+        CompletableFuture<Lancamento> recusado = gravacao.enfileirar(new Lancamento());
+        liberar.countDown();
+
+        Assertions.assertThatThrownBy(recusado::join).hasCauseInstanceOf(RejectedExecutionException.class);
+        Assertions.assertThat(primeiro.join()).isNotNull();
+        Assertions.assertThat(naFila.join()).isNotNull();
+    }
+
+    @Test
+    public void deveValidarAntesDeEnfileirar(){
+        Mockito.doThrow(new RegraNegocioException("Informe um valor válido!")).when(lancamentoService).validar(Mockito.any());
+        gravacao = new GravacaoAgrupada(lancamentoService, registry, 10, Duration.ofMillis(5), 100, Duration.ofMillis(100), Duration.ofSeconds(5));
+
+        Assertions.assertThatThrownBy(() -> gravacao.enfileirar(new Lancamento())).isInstanceOf(RegraNegocioException.class);
+        Mockito.verify(lancamentoService, Mockito.never()).salvarLote(Mockito.anyList());
+    }
+
+    @Test
+    public void deveDesistirDeEsperarQuandoOCommitNaoVoltaNoTempo() throws Exception{
+        CountDownLatch liberar = new CountDownLatch(1);
+        Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenAnswer(invocation -> {
+            liberar.await();
+            return invocation.getArgument(0);
+        });
+        gravacao = new GravacaoAgrupada(lancamentoService, registry, 1, Duration.ZERO, 10, Duration.ofMillis(10), Duration.ofMillis(50));
+
+        CompletableFuture<Lancamento> travado = gravacao.enfileirar(new Lancamento());
+
+        Assertions.assertThatThrownBy(travado::join).hasCauseInstanceOf(TimeoutException.class);
+        liberar.countDown();
+    }
+
+    @Test
+    public void deveRecusarNaHoraQuandoUmErroParaOGravador(){
+        Mockito.when(lancamentoService.salvarLote(Mockito.anyList())).thenThrow(new OutOfMemoryError("sem memoria"));
+        gravacao = new GravacaoAgrupada(lancamentoService, registry, 1, Duration.ZERO, 10, Duration.ofMillis(10), Duration.ofSeconds(5));
+
+        CompletableFuture<Lancamento> primeiro = gravacao.enfileirar(new Lancamento());
+
+        Assertions.assertThatThrownBy(primeiro::join).hasCauseInstanceOf(OutOfMemoryError.class);
+        Assertions.assertThatThrownBy(() -> gravacao.enfileirar(new Lancamento()).join())
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+}
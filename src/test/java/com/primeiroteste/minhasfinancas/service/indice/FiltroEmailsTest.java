@@ -0,0 +1,57 @@
+package com.primeiroteste.minhasfinancas.service.indice;
+
+import com.primeiroteste.minhasfinancas.model.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.stream.Stream;
+
+public class FiltroEmailsTest {
+
+    UsuarioRepository repository = Mockito.mock(UsuarioRepository.class);
+    MeterRegistry registry = new SimpleMeterRegistry();
+    FiltroEmails filtro = new FiltroEmails(repository, registry, 1000, 0.01);
+
+    @Test
+    public void deveResponderTalvezAntesDeCarregar(){
+        Assertions.assertThat(filtro.isCarregado()).isFalse();
+        Assertions.assertThat(filtro.talvezContenha("qualquer@email.com")).isTrue();
+    }
+
+    @Test
+    public void deveConterOsEmailsCarregadosEOsAdicionadosDepois(){
+        Mockito.when(repository.streamEmails()).thenReturn(Stream.of("a@email.com", "b@email.com"));
+        filtro.carregar();
+        filtro.adicionar("c@email.com");
+
+        Assertions.assertThat(filtro.talvezContenha("a@email.com")).isTrue();
+        Assertions.assertThat(filtro.talvezContenha("b@email.com")).isTrue();
+        Assertions.assertThat(filtro.talvezContenha("c@email.com")).isTrue();
+        Assertions.assertThat(registry.get("minhasfinancas.usuario.filtro.emails.elementos").gauge().value())
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void deveManterATaxaDeFalsoPositivoPertoDaConfiguradaNaCapacidade(){
+        Mockito.when(repository.streamEmails()).thenReturn(Stream.empty());
+        filtro.carregar();
+        for (int i = 0; i < 1000; i++) {
+            filtro.adicionar("usuario" + i + "@email.com");
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10000; i++) {
+            if(filtro.talvezContenha("novo" + i + "@email.com")){
+                falsosPositivos++;
+            }
+        }
+
+        Assertions.assertThat(falsosPositivos / 10000d).isLessThan(0.03);
+        Assertions.assertThat(filtro.taxaFalsoPositivoEstimada()).isBetween(0.005, 0.02);
+        Assertions.assertThat(registry.get("minhasfinancas.usuario.filtro.emails.consultas")
+                .tag("resultado", "ausente").counter().count()).isEqualTo(10000 - falsosPositivos);
+    }
+}
@@ -0,0 +1,87 @@
+package com.primeiroteste.minhasfinancas.service.indice;
+
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoDescricao;
+import com.primeiroteste.minhasfinancas.model.repository.LancamentoRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+public class IndiceDescricaoTest {
+
+    LancamentoRepository repository = Mockito.mock(LancamentoRepository.class);
+    IndiceDescricao indice = new IndiceDescricao(repository, 100, Duration.ofHours(1));
+
+    @Test
+    public void deveEncontrarOsLancamentosQueContemOTrechoIgnorandoMaiusculas(){
+        Mockito.when(repository.listarDescricoesPorUsuario(1l)).thenReturn(Arrays.asList(
+                descricao(1l, "Supermercado Extra"),
+                descricao(2l, "Mercadinho da esquina"),
+                descricao(3l, "Cremação"),
+                descricao(4l, "Aluguel")));
+
+        Assertions.assertThat(indice.buscar(1l, "MERC")).containsExactlyInAnyOrder(1l, 2l);
+        Assertions.assertThat(indice.buscar(1l, "al")).containsExactlyInAnyOrder(4l);
+        Assertions.assertThat(indice.buscar(1l, "crem")).containsExactlyInAnyOrder(3l);
+        Assertions.assertThat(indice.buscar(1l, "xyz")).isEmpty();
+    }
+
+    @Test
+    public void deveManterOIndiceAtualizadoAoIndexarERemover(){
+        Mockito.when(repository.listarDescricoesPorUsuario(1l)).thenReturn(Arrays.asList(descricao(1l, "Conta de luz")));
+        indice.buscar(1l, "luz");
+
+        indice.indexar(1l, 2l, "Luz do escritório");
+        indice.indexar(1l, 1l, "Conta de água");
+        indice.remover(1l, 3l);
+
+        Assertions.assertThat(indice.buscar(1l, "luz")).containsExactly(2l);
+        Assertions.assertThat(indice.buscar(1l, "conta")).containsExactly(1l);
+        Mockito.verify(repository, Mockito.times(1)).listarDescricoesPorUsuario(1l);
+    }
+
+    @Test
+    public void naoDeveCarregarOIndiceAoGravarParaUmUsuarioQueAindaNaoBuscou(){
+        indice.indexar(2l, 1l, "Padaria");
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void deveReaplicarOQueFoiGravadoEnquantoOIndiceCarregava(){
+        Mockito.when(repository.listarDescricoesPorUsuario(1l)).thenAnswer(invocation -> {
+            indice.indexar(1l, 2l, "Luz do escritório"); //commitDeOutraRequisicaoNoMeioDaConsulta
+            indice.remover(1l, 1l);
+            return Arrays.asList(descricao(1l, "Conta de luz"));
+        });
+
+        Assertions.assertThat(indice.buscar(1l, "luz")).containsExactly(2l);
+    }
+
+    @Test
+    public void deveRecarregarDoBancoDepoisDaValidade(){
+        IndiceDescricao semValidade = new IndiceDescricao(repository, 10, Duration.ZERO);
+        Mockito.when(repository.listarDescricoesPorUsuario(1l))
+                .thenReturn(Arrays.asList(descricao(1l, "Conta de luz")))
+                .thenReturn(Arrays.asList(descricao(1l, "Conta de luz"), descricao(2l, "Luz gravada em outra instância")));
+
+        Assertions.assertThat(semValidade.buscar(1l, "luz")).containsExactly(1l);
+        Assertions.assertThat(semValidade.buscar(1l, "luz")).containsExactlyInAnyOrder(1l, 2l);
+    }
+
+    private LancamentoDescricao descricao(Long id, String descricao){
+        return new LancamentoDescricao() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getDescricao() {
+                return descricao;
+            }
+        };
+    }
+}